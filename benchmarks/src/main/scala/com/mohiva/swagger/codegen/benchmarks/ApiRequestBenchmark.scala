@@ -0,0 +1,108 @@
+/**
+ * Copyright 2016 Mohiva Organisation (license at mohiva dot com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mohiva.swagger.codegen.benchmarks
+
+import java.util.concurrent.TimeUnit
+
+import akka.actor.ActorSystem
+import akka.stream.ActorMaterializer
+import com.mohiva.swagger.codegen.core.ApiParams.{ AnyMapNormalizers, ArrayValues, CollectionFormats }
+import com.mohiva.swagger.codegen.core.ApiRequest._
+import com.mohiva.swagger.codegen.core.PlayRequest._
+import com.mohiva.swagger.codegen.core.{ ApiConfig, ApiRequest, PlayRequest }
+import mockws.{ MockWS, Route }
+import org.openjdk.jmh.annotations._
+import play.api.libs.streams.Accumulator
+import play.api.mvc.EssentialAction
+import play.api.mvc.Results._
+
+/**
+ * Measures the construction of API requests and their conversion into Play requests.
+ *
+ * Run with: `sbt "benchmarks/jmh:run -i 10 -wi 10 -f 1 .*ApiRequestBenchmark.*"`
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.AverageTime))
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+class ApiRequestBenchmark {
+
+  /**
+   * The actor system of the mocked WS client.
+   */
+  implicit val system: ActorSystem = ActorSystem("ApiRequestBenchmark")
+
+  /**
+   * The materializer of the mocked WS client.
+   */
+  implicit val materializer: ActorMaterializer = ActorMaterializer()
+
+  /**
+   * The mocked WS client, which is never called because the requests will only be built.
+   */
+  val wsClient: MockWS = MockWS(Route {
+    case (_, _) => EssentialAction(_ => Accumulator.done(NoContent))
+  })
+
+  /**
+   * The API config.
+   */
+  val config: ApiConfig = ApiConfig(url = Some("http://localhost"))
+
+  /**
+   * The request template.
+   */
+  val template: Template = Template("BenchmarkApi", "getUser", RequestMethod.GET, "", PathTemplate.parse("/users/{id}"), None)
+
+  /**
+   * The query params, which cover all value types the normalizer knows.
+   */
+  val queryParams: Map[String, Any] = Map(
+    "name" -> "Lucky Luke",
+    "visits" -> 45,
+    "activated" -> Some(true),
+    "lastLogin" -> None,
+    "roles" -> ArrayValues(Seq("user", "admin")),
+    "tags" -> ArrayValues(Seq("a", "b", "c"), CollectionFormats.MULTI)
+  )
+
+  /**
+   * A fully built request.
+   */
+  val request: ApiRequest = build()
+
+  @TearDown
+  def tearDown(): Unit = {
+    wsClient.close()
+    system.terminate()
+  }
+
+  @Benchmark
+  def build(): ApiRequest = {
+    ApiRequest(template, Config())
+      .withPathParam("id", 1L)
+      .withQueryParam("name", "Lucky Luke")
+      .withQueryParam("visits", 45)
+      .withQueryParam("roles", ArrayValues(Seq("user", "admin")))
+      .withHeaderParam("X-Request-Id", "1")
+      .withCredentials(BasicCredentials("user", "password"))
+  }
+
+  @Benchmark
+  def toPlay(): PlayRequest = request.toPlay(config, wsClient)
+
+  @Benchmark
+  def normalize(): Seq[(String, Any)] = queryParams.normalize
+}
@@ -0,0 +1,100 @@
+/**
+ * Copyright 2016 Mohiva Organisation (license at mohiva dot com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mohiva.swagger.codegen.benchmarks
+
+import java.util.concurrent.TimeUnit
+
+import com.samskivert.mustache.{ Mustache, Template }
+import io.swagger.codegen.languages.PlayScalaClientCodegen
+import org.openjdk.jmh.annotations._
+
+import scala.collection.JavaConverters._
+
+/**
+ * Measures the identifier transforms and the lambdas of the code generator, which run for every operation, param
+ * and property of a spec.
+ *
+ * Run with: `sbt "benchmarks/jmh:run -i 10 -wi 10 -f 1 .*CodegenBenchmark.*"`
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.AverageTime))
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+class CodegenBenchmark {
+
+  /**
+   * The number of distinct identifiers, which a large spec repeats across its operations.
+   */
+  @Param(Array("100", "10000"))
+  var identifiers: Int = _
+
+  /**
+   * The code generator.
+   */
+  var codegen: PlayScalaClientCodegen = _
+
+  /**
+   * The identifiers in their Swagger notation.
+   */
+  var names: Array[String] = _
+
+  /**
+   * A template which renders a description with the Javadoc lambda.
+   */
+  var javadoc: Template = _
+
+  /**
+   * The context of the Javadoc template.
+   */
+  var context: java.util.Map[String, AnyRef] = _
+
+  /**
+   * The index of the next identifier.
+   */
+  var index: Int = 0
+
+  @Setup
+  def setup(): Unit = {
+    codegen = new PlayScalaClientCodegen()
+    names = Array.tabulate(identifiers)(i => s"user_property_$i")
+    javadoc = codegen.processCompiler(Mustache.compiler()).compile("{{#javadocRenderer}}{{description}}{{/javadocRenderer}}")
+    context = Map[String, AnyRef](
+      "javadocRenderer" -> codegen.additionalProperties().get("javadocRenderer"),
+      "description" -> "The description of the model.\nIt spans multiple lines.\r\nAnd uses different line breaks."
+    ).asJava
+  }
+
+  /**
+   * Gets the next identifier.
+   *
+   * @return The next identifier.
+   */
+  private def next(): String = {
+    index = (index + 1) % names.length
+    names(index)
+  }
+
+  @Benchmark
+  def toVarName(): String = codegen.toVarName(next())
+
+  @Benchmark
+  def toParamName(): String = codegen.toParamName(next())
+
+  @Benchmark
+  def toOperationId(): String = codegen.toOperationId(next())
+
+  @Benchmark
+  def javadocLambda(): String = javadoc.execute(context)
+}
@@ -0,0 +1,61 @@
+/**
+ * Copyright 2016 Mohiva Organisation (license at mohiva dot com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mohiva.swagger.codegen.benchmarks
+
+import java.util.concurrent.TimeUnit
+
+import com.mohiva.swagger.codegen.core.ApiJsonFormats
+import com.mohiva.swagger.codegen.models.User
+import org.openjdk.jmh.annotations._
+import play.api.libs.json.{ Format, JsResult, JsString, JsValue }
+
+/**
+ * Measures the Json formats of enum values.
+ *
+ * Run with: `sbt "benchmarks/jmh:run -i 10 -wi 10 -f 1 .*EnumFormatBenchmark.*"`
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.AverageTime))
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+class EnumFormatBenchmark {
+
+  /**
+   * The enum format resolved by reflection.
+   */
+  val format: Format[User.Gender] = ApiJsonFormats.enumValueFormat[User.Gender.type]
+
+  /**
+   * The enum format generated into the enum object.
+   */
+  val indexedFormat: Format[User.Gender] = User.Gender.jsonFormat
+
+  /**
+   * The Json value of the last enum value, which is the worst case for a linear lookup.
+   */
+  val json: JsValue = JsString(User.Gender.Female.toString)
+
+  @Benchmark
+  def reads(): JsResult[User.Gender] = format.reads(json)
+
+  @Benchmark
+  def writes(): JsValue = format.writes(User.Gender.Female)
+
+  @Benchmark
+  def indexedReads(): JsResult[User.Gender] = indexedFormat.reads(json)
+
+  @Benchmark
+  def indexedWrites(): JsValue = indexedFormat.writes(User.Gender.Female)
+}
@@ -0,0 +1,142 @@
+/**
+ * Copyright 2016 Mohiva Organisation (license at mohiva dot com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mohiva.swagger.codegen.benchmarks
+
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.{ ForkJoinPool, TimeUnit }
+
+import akka.actor.ActorSystem
+import akka.stream.ActorMaterializer
+import com.mohiva.swagger.codegen.benchmarks.JsonBackendBenchmark._
+import com.mohiva.swagger.codegen.core.ApiRequest._
+import com.mohiva.swagger.codegen.core._
+import org.openjdk.jmh.annotations._
+import play.api.libs.json.Json
+import play.api.libs.ws.ahc.AhcWSClient
+
+import scala.concurrent.duration._
+import scala.concurrent.{ Await, ExecutionContext, ExecutionContextExecutorService, Future }
+
+/**
+ * A local load test which measures the latency of unrelated actions while the client decodes large responses.
+ *
+ * The actions run on a fork-join pool with one thread per processor, like the default dispatcher of a Play
+ * application. In the background, 4 requests per processor are continuously sent to a [[LocalServer]], which answers
+ * with a Json array of 2000 pets. With `load = shared` the responses are decoded on the pool of the actions, with
+ * `load = offloaded` on the decode pool of the API, which has half as many threads. The percentiles of the sample
+ * mode show how the p99 latency of the actions degrades compared to `load = none`.
+ *
+ * Run with: `sbt "benchmarks/jmh:run -i 10 -wi 5 -f 1 .*ExecutorOffloadBenchmark.*"`
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.SampleTime))
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+class ExecutorOffloadBenchmark {
+
+  /**
+   * The actor system of the WS client.
+   */
+  implicit val system: ActorSystem = ActorSystem("ExecutorOffloadBenchmark")
+
+  /**
+   * The materializer of the WS client.
+   */
+  implicit val materializer: ActorMaterializer = ActorMaterializer()
+
+  /**
+   * The background load: none, shared or offloaded.
+   */
+  @Param(Array("none", "shared", "offloaded"))
+  var load: String = _
+
+  /**
+   * The number of processors.
+   */
+  val processors: Int = Runtime.getRuntime.availableProcessors
+
+  /**
+   * The pool on which the actions and the callbacks of the client run.
+   */
+  val actionContext: ExecutionContextExecutorService = ExecutionContext.fromExecutorService(new ForkJoinPool(processors))
+
+  /**
+   * Indicates if the background load is running.
+   */
+  val running = new AtomicBoolean()
+
+  /**
+   * The local server.
+   */
+  var server: LocalServer = _
+
+  /**
+   * The WS client.
+   */
+  var wsClient: AhcWSClient = _
+
+  /**
+   * The executors of the API, if the decoding is offloaded.
+   */
+  var executors: Option[ApiExecutors] = None
+
+  /**
+   * The API invoker.
+   */
+  var apiInvoker: ApiInvoker = _
+
+  /**
+   * The request template.
+   */
+  val findPets: Template = Template("BenchmarkApi", "findPets", RequestMethod.GET, "", PathTemplate.parse("/pets"), None)
+    .withJsonSuccessResponse[Seq[Pet]](200)
+
+  @Setup
+  def setup(): Unit = {
+    val pets = (1 to 2000).map { i =>
+      Pet(Some(i.toLong), Some(Category(Some(1L), Some("Dogs"))), s"Pet $i", Seq(s"https://petstore.swagger.io/$i.jpg"),
+        Some(Seq(Tag(Some(1L), Some("friendly")))), Some("available"))
+    }
+    server = new LocalServer(Json.toBytes(Json.toJson(pets)))
+    wsClient = ApiTransport.client(TransportConfig())
+    executors = if (load == "offloaded") Some(ApiExecutors(ExecutorConfig(decodeParallelism = math.max(1, processors / 2)))) else None
+    apiInvoker = new ApiInvoker(ApiConfig(url = Some(server.url), executors = executors), wsClient)
+
+    if (load != "none") {
+      running.set(true)
+      (1 to processors * 4).foreach(_ => send())
+    }
+  }
+
+  @TearDown
+  def tearDown(): Unit = {
+    running.set(false)
+    executors.foreach(_.shutdown())
+    wsClient.close()
+    server.stop()
+    actionContext.shutdown()
+    system.terminate()
+  }
+
+  /**
+   * Sends a request and sends the next one as soon as the response was decoded.
+   */
+  def send(): Unit = if (running.get) {
+    apiInvoker.execute[Seq[Pet]](ApiRequest(findPets, Config()))(actionContext).onComplete(_ => send())(actionContext)
+  }
+
+  @Benchmark
+  def action(): Long = Await.result(Future(System.nanoTime())(actionContext), 10.seconds)
+}
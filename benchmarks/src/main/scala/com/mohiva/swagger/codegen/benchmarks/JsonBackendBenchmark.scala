@@ -0,0 +1,158 @@
+/**
+ * Copyright 2016 Mohiva Organisation (license at mohiva dot com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mohiva.swagger.codegen.benchmarks
+
+import java.time.OffsetDateTime
+import java.util.concurrent.TimeUnit
+
+import ai.x.play.json.Jsonx
+import com.github.plokhotnyuk.jsoniter_scala.core._
+import com.github.plokhotnyuk.jsoniter_scala.macros.{ CodecMakerConfig, JsonCodecMaker }
+import com.mohiva.swagger.codegen.benchmarks.JsonBackendBenchmark._
+import com.mohiva.swagger.codegen.core.ApiJsonFormats
+import org.openjdk.jmh.annotations._
+import play.api.libs.json.{ Format, Json, OFormat }
+
+/**
+ * Compares the play-json and the jsoniter-scala backend on the petstore models.
+ *
+ * Both backends read from and write to bytes, as the client does with the bodies of the HTTP requests and responses.
+ *
+ * Run with: `sbt "benchmarks/jmh:run -i 10 -wi 10 -f 1 .*JsonBackendBenchmark.*"`
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.Throughput))
+@OutputTimeUnit(TimeUnit.SECONDS)
+class JsonBackendBenchmark {
+
+  /**
+   * The pets to encode.
+   */
+  val pets: Seq[Pet] = (1 to 100).map { i =>
+    Pet(
+      id = Some(i.toLong),
+      category = Some(Category(Some(1L), Some("Dogs"))),
+      name = s"Pet $i",
+      photoUrls = Seq(s"https://petstore.swagger.io/photos/$i/1.jpg", s"https://petstore.swagger.io/photos/$i/2.jpg"),
+      tags = Some(Seq(Tag(Some(1L), Some("friendly")), Tag(Some(2L), Some("small")))),
+      status = Some("available"),
+      color = Some(Pet.Color.Brown),
+      `type` = Some("dog")
+    )
+  }
+
+  /**
+   * The order to encode.
+   */
+  val order: Order = Order(
+    id = Some(1L),
+    petId = Some(1L),
+    quantity = Some(2),
+    shipDate = Some(OffsetDateTime.parse("2016-03-14T12:00:00+01:00")),
+    status = Some("placed"),
+    complete = Some(false)
+  )
+
+  /**
+   * The encoded pets.
+   */
+  val petsBytes: Array[Byte] = writeToArray(pets)
+
+  /**
+   * The encoded order.
+   */
+  val orderBytes: Array[Byte] = writeToArray(order)
+
+  @Benchmark
+  def readPetsWithPlayJson(): Seq[Pet] = Json.parse(petsBytes).as[Seq[Pet]]
+
+  @Benchmark
+  def readPetsWithJsoniter(): Seq[Pet] = readFromArray[Seq[Pet]](petsBytes)
+
+  @Benchmark
+  def writePetsWithPlayJson(): Array[Byte] = Json.toBytes(Json.toJson(pets))
+
+  @Benchmark
+  def writePetsWithJsoniter(): Array[Byte] = writeToArray(pets)
+
+  @Benchmark
+  def readOrderWithPlayJson(): Order = Json.parse(orderBytes).as[Order]
+
+  @Benchmark
+  def readOrderWithJsoniter(): Order = readFromArray[Order](orderBytes)
+
+  @Benchmark
+  def writeOrderWithPlayJson(): Array[Byte] = Json.toBytes(Json.toJson(order))
+
+  @Benchmark
+  def writeOrderWithJsoniter(): Array[Byte] = writeToArray(order)
+}
+
+/**
+ * The companion object.
+ */
+object JsonBackendBenchmark {
+
+  /**
+   * The models as the generator would create them for the petstore spec, including the `color` enum with the
+   * play-json format of the generator and the reserved word `type`.
+   */
+  case class Category(id: Option[Long], name: Option[String])
+  case class Tag(id: Option[Long], name: Option[String])
+  case class Pet(
+    id: Option[Long],
+    category: Option[Category],
+    name: String,
+    photoUrls: Seq[String],
+    tags: Option[Seq[Tag]],
+    status: Option[String],
+    color: Option[Pet.Color],
+    `type`: Option[String]
+  )
+  object Pet {
+
+    /**
+     * The `Color` enum.
+     */
+    type Color = Color.Value
+    object Color extends Enumeration {
+      val Black = Value("black")
+      val White = Value("white")
+      val Brown = Value("brown")
+
+      /**
+       * Converts a [[Color]] value into a JSON string.
+       */
+      implicit val jsonFormat: Format[Value] = ApiJsonFormats.enumFormat(this)
+    }
+  }
+  case class Order(
+    id: Option[Long],
+    petId: Option[Long],
+    quantity: Option[Int],
+    shipDate: Option[OffsetDateTime],
+    status: Option[String],
+    complete: Option[Boolean]
+  )
+
+  implicit val categoryFormat: OFormat[Category] = Jsonx.formatCaseClass[Category]
+  implicit val tagFormat: OFormat[Tag] = Jsonx.formatCaseClass[Tag]
+  implicit val petFormat: OFormat[Pet] = Jsonx.formatCaseClass[Pet]
+  implicit val orderFormat: OFormat[Order] = Jsonx.formatCaseClass[Order]
+
+  implicit val petsCodec: JsonValueCodec[Seq[Pet]] = JsonCodecMaker.make[Seq[Pet]](CodecMakerConfig())
+  implicit val orderCodec: JsonValueCodec[Order] = JsonCodecMaker.make[Order](CodecMakerConfig())
+}
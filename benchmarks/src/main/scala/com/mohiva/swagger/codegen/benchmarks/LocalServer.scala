@@ -0,0 +1,105 @@
+/**
+ * Copyright 2016 Mohiva Organisation (license at mohiva dot com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mohiva.swagger.codegen.benchmarks
+
+import java.io.ByteArrayOutputStream
+import java.net.InetSocketAddress
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.{ ExecutorService, Executors }
+import java.util.zip.GZIPOutputStream
+
+import com.sun.net.httpserver.{ HttpExchange, HttpHandler, HttpServer }
+
+/**
+ * A local HTTP server which answers every request with a fixed payload.
+ *
+ * The server runs on the loopback interface with the HTTP server of the JDK, so that the benchmarks measure the
+ * transport of the client over real sockets without depending on a remote host. If the request accepts gzip, the
+ * payload will be sent gzip encoded. The server reads the request bodies and counts their bytes, so that the
+ * benchmarks can report the bytes on the wire.
+ *
+ * @param payload The payload of the responses.
+ * @param threads The number of threads which handle the requests.
+ */
+class LocalServer(payload: Array[Byte], threads: Int = 16) {
+
+  /**
+   * The gzip encoded payload.
+   */
+  private val gzippedPayload: Array[Byte] = {
+    val out = new ByteArrayOutputStream()
+    val gzip = new GZIPOutputStream(out)
+    gzip.write(payload)
+    gzip.close()
+    out.toByteArray
+  }
+
+  /**
+   * The number of received bytes of the request bodies.
+   */
+  private val received = new AtomicLong()
+
+  /**
+   * The executor of the request handlers.
+   */
+  private val executor: ExecutorService = Executors.newFixedThreadPool(threads)
+
+  /**
+   * The underlying HTTP server.
+   */
+  private val server: HttpServer = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024)
+  server.setExecutor(executor)
+  server.createContext("/", new HttpHandler {
+    override def handle(exchange: HttpExchange): Unit = {
+      val gzip = Option(exchange.getRequestHeaders.getFirst("Accept-Encoding")).exists(_.contains("gzip"))
+      val body = if (gzip) gzippedPayload else payload
+      val in = exchange.getRequestBody
+      val buffer = new Array[Byte](8192)
+      var read = in.read(buffer)
+      while (read >= 0) {
+        received.addAndGet(read.toLong)
+        read = in.read(buffer)
+      }
+      in.close()
+      exchange.getResponseHeaders.set("Content-Type", "application/json")
+      if (gzip) exchange.getResponseHeaders.set("Content-Encoding", "gzip")
+      exchange.sendResponseHeaders(200, body.length.toLong)
+      exchange.getResponseBody.write(body)
+      exchange.close()
+    }
+  })
+  server.start()
+
+  /**
+   * The base URL of the server.
+   */
+  val url: String = s"http://127.0.0.1:${server.getAddress.getPort}"
+
+  /**
+   * Gets the number of received bytes of the request bodies.
+   *
+   * @return The number of received bytes.
+   */
+  def receivedBytes: Long = received.get
+
+  /**
+   * Stops the server.
+   */
+  def stop(): Unit = {
+    server.stop(0)
+    executor.shutdownNow()
+  }
+}
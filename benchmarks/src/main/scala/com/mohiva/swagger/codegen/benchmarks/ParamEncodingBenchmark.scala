@@ -0,0 +1,135 @@
+/**
+ * Copyright 2016 Mohiva Organisation (license at mohiva dot com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mohiva.swagger.codegen.benchmarks
+
+import java.util.concurrent.TimeUnit
+
+import akka.actor.ActorSystem
+import akka.stream.ActorMaterializer
+import com.mohiva.swagger.codegen.core.ApiParams._
+import com.mohiva.swagger.codegen.core.ApiRequest._
+import com.mohiva.swagger.codegen.core.PlayRequest._
+import com.mohiva.swagger.codegen.core.{ ApiConfig, ApiRequest, PlayRequest }
+import mockws.{ MockWS, Route }
+import org.openjdk.jmh.annotations._
+import play.api.libs.streams.Accumulator
+import play.api.mvc.EssentialAction
+import play.api.mvc.Results._
+
+/**
+ * Compares the runtime normalization of untyped params with the typed param encoders of the generated operations.
+ *
+ * The operation has many array params, most of them in the `MULTI` format, which is the worst case for the
+ * normalizer. The typed params are encoded while the request gets built, whereas the untyped params are normalized
+ * when the request gets converted into a Play request, so `typed` should be compared with `untyped` plus `normalize`.
+ * Run it with the GC profiler to see the allocations per operation.
+ *
+ * Run with: `sbt "benchmarks/jmh:run -i 10 -wi 10 -f 1 -prof gc .*ParamEncodingBenchmark.*"`
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.AverageTime))
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+class ParamEncodingBenchmark {
+
+  /**
+   * The actor system of the mocked WS client.
+   */
+  implicit val system: ActorSystem = ActorSystem("ParamEncodingBenchmark")
+
+  /**
+   * The materializer of the mocked WS client.
+   */
+  implicit val materializer: ActorMaterializer = ActorMaterializer()
+
+  /**
+   * The mocked WS client, which is never called because the requests will only be built.
+   */
+  val wsClient: MockWS = MockWS(Route {
+    case (_, _) => EssentialAction(_ => Accumulator.done(NoContent))
+  })
+
+  /**
+   * The API config.
+   */
+  val config: ApiConfig = ApiConfig(url = Some("http://localhost"))
+
+  /**
+   * The request template.
+   */
+  val template: Template = Template("BenchmarkApi", "findPets", RequestMethod.GET, "", PathTemplate.parse("/pets"), None)
+
+  /**
+   * The values of the array params.
+   */
+  val tags: Seq[String] = (1 to 10).map(i => s"tag$i")
+  val ids: Seq[Long] = (1L to 10L).toList
+  val scores: Seq[Double] = (1 to 10).map(_ * 0.5)
+  val flags: Seq[Boolean] = List(true, false, true, false)
+
+  /**
+   * The encoders which would be chosen by the generator.
+   */
+  val multiStrings: ParamEncoder[Iterable[String]] = ParamEncoder.String.array(CollectionFormats.MULTI)
+  val multiLongs: ParamEncoder[Iterable[Long]] = ParamEncoder.Long.array(CollectionFormats.MULTI)
+  val multiDoubles: ParamEncoder[Iterable[Double]] = ParamEncoder.Double.array(CollectionFormats.MULTI)
+  val csvBooleans: ParamEncoder[Iterable[Boolean]] = ParamEncoder.Boolean.array(CollectionFormats.CSV)
+  val optionalInt: ParamEncoder[Option[Int]] = ParamEncoder.Int.optional
+
+  /**
+   * The fully built requests.
+   */
+  val untypedRequest: ApiRequest = untyped()
+  val typedRequest: ApiRequest = typed()
+
+  @TearDown
+  def tearDown(): Unit = {
+    wsClient.close()
+    system.terminate()
+  }
+
+  @Benchmark
+  def untyped(): ApiRequest = {
+    ApiRequest(template, Config())
+      .withQueryParam("tags", ArrayValues(tags, CollectionFormats.MULTI))
+      .withQueryParam("ids", ArrayValues(ids, CollectionFormats.MULTI))
+      .withQueryParam("scores", ArrayValues(scores, CollectionFormats.MULTI))
+      .withQueryParam("flags", ArrayValues(flags, CollectionFormats.CSV))
+      .withQueryParam("limit", Some(20))
+      .withQueryParam("offset", None)
+  }
+
+  @Benchmark
+  def typed(): ApiRequest = {
+    ApiRequest(template, Config())
+      .withQueryParam("tags", tags, multiStrings)
+      .withQueryParam("ids", ids, multiLongs)
+      .withQueryParam("scores", scores, multiDoubles)
+      .withQueryParam("flags", flags, csvBooleans)
+      .withQueryParam("limit", Some(20), optionalInt)
+      .withQueryParam("offset", None, optionalInt)
+  }
+
+  @Benchmark
+  def normalize(): Seq[(String, String)] = {
+    untypedRequest.queryParams.normalize.map { case (k, v) => k -> String.valueOf(v) }
+  }
+
+  @Benchmark
+  def untypedToPlay(): PlayRequest = untypedRequest.toPlay(config, wsClient)
+
+  @Benchmark
+  def typedToPlay(): PlayRequest = typedRequest.toPlay(config, wsClient)
+}
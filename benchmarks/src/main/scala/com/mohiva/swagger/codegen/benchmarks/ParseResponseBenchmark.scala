@@ -0,0 +1,125 @@
+/**
+ * Copyright 2016 Mohiva Organisation (license at mohiva dot com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mohiva.swagger.codegen.benchmarks
+
+import java.util.concurrent.TimeUnit
+
+import akka.actor.ActorSystem
+import akka.stream.ActorMaterializer
+import akka.util.ByteString
+import com.mohiva.swagger.codegen.core.ApiRequest._
+import com.mohiva.swagger.codegen.core._
+import com.mohiva.swagger.codegen.models.User
+import mockws.{ MockWS, Route }
+import org.openjdk.jmh.annotations._
+import play.api.libs.json.Json
+import play.api.libs.streams.Accumulator
+import play.api.mvc.EssentialAction
+import play.api.mvc.Results._
+
+import scala.concurrent.Await
+import scala.concurrent.ExecutionContext.Implicits.global
+import scala.concurrent.duration._
+
+/**
+ * Measures the execution and the response parsing of the API invoker for Json, primitive and file responses.
+ *
+ * The requests will be answered in-process by a mocked WS client, so that the numbers contain the overhead of the
+ * client stub and the mock, but no network latency.
+ *
+ * Run with: `sbt "benchmarks/jmh:run -i 10 -wi 10 -f 1 .*ParseResponseBenchmark.*"`
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.Throughput))
+@OutputTimeUnit(TimeUnit.SECONDS)
+class ParseResponseBenchmark {
+
+  /**
+   * The actor system of the mocked WS client.
+   */
+  implicit val system: ActorSystem = ActorSystem("ParseResponseBenchmark")
+
+  /**
+   * The materializer of the mocked WS client.
+   */
+  implicit val materializer: ActorMaterializer = ActorMaterializer()
+
+  /**
+   * The size of the file response in bytes.
+   */
+  @Param(Array("1024", "1048576"))
+  var fileSize: Int = _
+
+  /**
+   * The Json response.
+   */
+  val user: String = Json.stringify(Json.obj(
+    "id" -> 1,
+    "name" -> "Lucky Luke",
+    "visits" -> 45,
+    "roles" -> Seq("user", "admin"),
+    "gender" -> "Male",
+    "activated" -> true,
+    "dateOfBirth" -> "1979-02-17",
+    "insertDate" -> "2016-02-19T13:28:43Z"
+  ))
+
+  /**
+   * The mocked WS client.
+   */
+  var wsClient: MockWS = _
+
+  /**
+   * The API invoker.
+   */
+  var apiInvoker: ApiInvoker = _
+
+  /**
+   * The request templates.
+   */
+  val json: Template = Template("BenchmarkApi", "json", RequestMethod.GET, "", PathTemplate.parse("/json"), None)
+    .withJsonSuccessResponse[User](200)
+  val primitive: Template = Template("BenchmarkApi", "primitive", RequestMethod.GET, "", PathTemplate.parse("/primitive"), None)
+    .withPrimitiveSuccessResponse[Long](200)
+  val file: Template = Template("BenchmarkApi", "file", RequestMethod.GET, "", PathTemplate.parse("/file"), None)
+    .withPrimitiveSuccessResponse[ApiFile](200)
+
+  @Setup
+  def setup(): Unit = {
+    val fileContent = ByteString(Array.fill[Byte](fileSize)('x'.toByte))
+    wsClient = MockWS(Route {
+      case ("GET", "/json")      => EssentialAction(_ => Accumulator.done(Ok(user).as("application/json")))
+      case ("GET", "/primitive") => EssentialAction(_ => Accumulator.done(Ok("1234567890")))
+      case ("GET", "/file")      => EssentialAction(_ => Accumulator.done(Ok(fileContent)))
+    })
+    apiInvoker = new ApiInvoker(ApiConfig(url = Some("http://localhost")), wsClient)
+  }
+
+  @TearDown
+  def tearDown(): Unit = {
+    wsClient.close()
+    system.terminate()
+  }
+
+  @Benchmark
+  def jsonResponse(): ApiResponse[User] = Await.result(apiInvoker.execute[User](ApiRequest(json, Config())), 10.seconds)
+
+  @Benchmark
+  def primitiveResponse(): ApiResponse[Long] = Await.result(apiInvoker.execute[Long](ApiRequest(primitive, Config())), 10.seconds)
+
+  @Benchmark
+  def fileResponse(): ApiResponse[ApiFile] = Await.result(apiInvoker.execute[ApiFile](ApiRequest(file, Config())), 10.seconds)
+}
@@ -0,0 +1,71 @@
+/**
+ * Copyright 2016 Mohiva Organisation (license at mohiva dot com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mohiva.swagger.codegen.benchmarks
+
+import java.util.concurrent.TimeUnit
+
+import com.mohiva.swagger.codegen.core.ApiRequest.PathTemplate
+import org.openjdk.jmh.annotations._
+
+/**
+ * Compares the rendering of a precompiled path template with the former regex based param replacement.
+ *
+ * Run with: `sbt "benchmarks/jmh:run -i 10 -wi 10 -f 1 .*PathTemplateBenchmark.*"`
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.AverageTime))
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+class PathTemplateBenchmark {
+
+  /**
+   * The number of path params.
+   */
+  @Param(Array("0", "3", "10"))
+  var params: Int = _
+
+  /**
+   * The path in its Swagger notation.
+   */
+  var path: String = _
+
+  /**
+   * The precompiled path template.
+   */
+  var template: PathTemplate = _
+
+  /**
+   * The param values.
+   */
+  var values: Map[String, String] = _
+
+  @Setup
+  def setup(): Unit = {
+    path = "/{format}/resources" + (1 to params).map(i => s"/{param$i}").mkString
+    template = PathTemplate.parse(path)
+    values = (1 to params).map(i => s"param$i" -> s"value$i").toMap
+  }
+
+  @Benchmark
+  def pathTemplate(): String = template.render("http://localhost", values)
+
+  @Benchmark
+  def regexReplace(): String = {
+    val formatted = path.replaceAll("\\{format\\}", "json")
+    "http://localhost" + values.foldLeft(formatted) {
+      case (p, (name, value)) => p.replaceAll(s"\\{$name\\}", value)
+    }
+  }
+}
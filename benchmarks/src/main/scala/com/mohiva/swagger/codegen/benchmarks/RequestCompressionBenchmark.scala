@@ -0,0 +1,150 @@
+/**
+ * Copyright 2016 Mohiva Organisation (license at mohiva dot com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mohiva.swagger.codegen.benchmarks
+
+import java.util.concurrent.TimeUnit
+
+import akka.actor.ActorSystem
+import akka.stream.ActorMaterializer
+import com.mohiva.swagger.codegen.core.ApiRequest._
+import com.mohiva.swagger.codegen.core._
+import org.openjdk.jmh.annotations._
+import play.api.libs.json.{ JsValue, Json }
+import play.api.libs.ws.ahc.AhcWSClient
+
+import scala.concurrent.Await
+import scala.concurrent.ExecutionContext.Implicits.global
+import scala.concurrent.duration._
+
+/**
+ * Measures the latency and the bytes on the wire of large Json request bodies with and without compression.
+ *
+ * The requests will be sent over the loopback interface to a [[LocalServer]], which counts the received bytes. The
+ * bytes of a request body on the wire will be reported as the secondary result `wireBytes`. On the loopback
+ * interface the latency contains the CPU costs of the compression, but barely the savings of the transfer, which
+ * grow with the latency and shrink with the bandwidth of a real network.
+ *
+ * Run with: `sbt "benchmarks/jmh:run -i 10 -wi 5 -f 1 .*RequestCompressionBenchmark.*"`
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.AverageTime))
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+class RequestCompressionBenchmark {
+
+  /**
+   * The actor system of the WS client.
+   */
+  implicit val system: ActorSystem = ActorSystem("RequestCompressionBenchmark")
+
+  /**
+   * The materializer of the WS client.
+   */
+  implicit val materializer: ActorMaterializer = ActorMaterializer()
+
+  /**
+   * The content encoding of the request bodies, or `none` to send them uncompressed.
+   */
+  @Param(Array("none", "gzip", "deflate"))
+  var encoding: String = _
+
+  /**
+   * The approximate size of the uncompressed request body in bytes.
+   */
+  @Param(Array("16384", "1048576"))
+  var bodySize: Int = _
+
+  /**
+   * The local server.
+   */
+  var server: LocalServer = _
+
+  /**
+   * The WS client.
+   */
+  var wsClient: AhcWSClient = _
+
+  /**
+   * The API invoker.
+   */
+  var apiInvoker: ApiInvoker = _
+
+  /**
+   * The request body.
+   */
+  var body: JsValue = _
+
+  /**
+   * The request template.
+   */
+  var bulk: Template = _
+
+  @Setup
+  def setup(): Unit = {
+    val pet = Json.obj(
+      "id" -> 1234567890L,
+      "category" -> Json.obj("id" -> 1, "name" -> "Dogs"),
+      "name" -> "doggie",
+      "photoUrls" -> Seq("https://petstore.swagger.io/photos/1234567890.jpg"),
+      "tags" -> Seq(Json.obj("id" -> 1, "name" -> "friendly")),
+      "status" -> "available"
+    )
+    body = Json.toJson(Seq.fill(math.max(bodySize / Json.stringify(pet).length, 1))(pet))
+    bulk = Template("BenchmarkApi", "bulk", RequestMethod.POST, "", PathTemplate.parse("/bulk"), Some("application/json"))
+      .withPrimitiveSuccessResponse[Unit](200)
+    encoding match {
+      case "gzip"    => bulk = bulk.withRequestCompression(RequestCompression(ContentEncoding.Gzip))
+      case "deflate" => bulk = bulk.withRequestCompression(RequestCompression(ContentEncoding.Deflate))
+      case _         =>
+    }
+    server = new LocalServer("{}".getBytes("UTF-8"))
+    wsClient = ApiTransport.client(TransportConfig())
+    apiInvoker = new ApiInvoker(ApiConfig(url = Some(server.url)), wsClient)
+  }
+
+  @TearDown
+  def tearDown(): Unit = {
+    wsClient.close()
+    server.stop()
+    system.terminate()
+  }
+
+  @Benchmark
+  def post(wire: RequestCompressionBenchmark.Wire): ApiResponse[Unit] = {
+    val received = server.receivedBytes
+    val response = Await.result(apiInvoker.execute[Unit](ApiRequest(bulk, Config()).withJsonBody(body)), 10.seconds)
+    wire.wireBytes = server.receivedBytes - received
+    response
+  }
+}
+
+/**
+ * The companion object of the [[RequestCompressionBenchmark]].
+ */
+object RequestCompressionBenchmark {
+
+  /**
+   * Reports the bytes of a request body on the wire.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  class Wire {
+
+    /**
+     * The bytes of the last request body on the wire.
+     */
+    var wireBytes: Long = 0
+  }
+}
@@ -0,0 +1,131 @@
+/**
+ * Copyright 2016 Mohiva Organisation (license at mohiva dot com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mohiva.swagger.codegen.benchmarks
+
+import java.lang.management.ManagementFactory
+import java.util.concurrent.TimeUnit
+
+import akka.actor.ActorSystem
+import akka.stream.ActorMaterializer
+import com.mohiva.swagger.codegen.TestApi
+import com.mohiva.swagger.codegen.core.{ ApiConfig, ApiInvoker, ApiResponse }
+import com.mohiva.swagger.codegen.models.User
+import mockws.{ MockWS, Route }
+import org.openjdk.jmh.annotations._
+import play.api.libs.json.Json
+import play.api.libs.streams.Accumulator
+import play.api.mvc.EssentialAction
+import play.api.mvc.Results._
+
+import scala.collection.JavaConverters._
+import scala.concurrent.Await
+import scala.concurrent.ExecutionContext.Implicits.global
+import scala.concurrent.duration._
+
+/**
+ * Measures the time and the metaspace needed until the first call of an API returns.
+ *
+ * Every measurement runs in a fresh JVM, so that the numbers contain the class loading and the initialization of
+ * the API, its request templates and the Json formats of its models. The used metaspace will be reported as the
+ * secondary result `metaspaceKb`.
+ *
+ * Run with: `sbt "benchmarks/jmh:run .*StartupBenchmark.*"`
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.SingleShotTime))
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+class StartupBenchmark {
+
+  /**
+   * The actor system of the mocked WS client.
+   */
+  var system: ActorSystem = _
+
+  /**
+   * The materializer of the mocked WS client and the invoker.
+   */
+  implicit var materializer: ActorMaterializer = _
+
+  /**
+   * The mocked WS client.
+   */
+  var wsClient: MockWS = _
+
+  @Setup
+  def setup(): Unit = {
+    system = ActorSystem("StartupBenchmark")
+    materializer = ActorMaterializer()(system)
+    val user = Json.obj(
+      "id" -> 1,
+      "name" -> "Lucky Luke",
+      "visits" -> 45,
+      "roles" -> Seq("user", "admin"),
+      "gender" -> "Male",
+      "activated" -> true,
+      "dateOfBirth" -> "1979-02-17",
+      "insertDate" -> "2016-02-19T13:28:43Z"
+    )
+    wsClient = MockWS(Route {
+      case (_, _) => EssentialAction(_ => Accumulator.done(Ok(user)))
+    })
+  }
+
+  @TearDown
+  def tearDown(): Unit = {
+    wsClient.close()
+    system.terminate()
+  }
+
+  @Benchmark
+  def firstCall(metaspace: StartupBenchmark.Metaspace): ApiResponse[User] = {
+    val api = new TestApi(new ApiInvoker(ApiConfig(url = Some("http://localhost")), wsClient))
+    val response = Await.result(api.testApiResponseWithJsonObjectAsValue(), 10.seconds)
+    metaspace.record()
+    response
+  }
+}
+
+/**
+ * The companion object of the [[StartupBenchmark]].
+ */
+object StartupBenchmark {
+
+  /**
+   * Reports the metaspace which is used after the first call.
+   */
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  class Metaspace {
+
+    /**
+     * The used metaspace in KB.
+     */
+    var metaspaceKb: Long = 0
+
+    /**
+     * Records the used metaspace.
+     */
+    def record(): Unit = {
+      metaspaceKb = ManagementFactory.getMemoryPoolMXBeans.asScala
+        .filter(_.getName == "Metaspace")
+        .map(_.getUsage.getUsed / 1024)
+        .sum
+    }
+  }
+}
@@ -0,0 +1,119 @@
+/**
+ * Copyright 2016 Mohiva Organisation (license at mohiva dot com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mohiva.swagger.codegen.benchmarks
+
+import java.util.concurrent.TimeUnit
+
+import akka.actor.ActorSystem
+import akka.stream.ActorMaterializer
+import com.mohiva.swagger.codegen.core.ApiRequest._
+import com.mohiva.swagger.codegen.core._
+import org.openjdk.jmh.annotations._
+import play.api.libs.ws.ahc.AhcWSClient
+
+import scala.concurrent.Await
+import scala.concurrent.ExecutionContext.Implicits.global
+import scala.concurrent.duration._
+
+/**
+ * Measures the effect of the transport settings of a dedicated WS client.
+ *
+ * The requests will be sent from 32 threads over the loopback interface to a [[LocalServer]], which answers with a
+ * Json payload of 32KB. The benchmark shows how the pool size, keep-alive and response compression affect the
+ * throughput. Compression only pays off if the network is the bottleneck, which it isn't on the loopback interface,
+ * so its numbers show the CPU costs of the compression.
+ *
+ * Run with: `sbt "benchmarks/jmh:run -i 10 -wi 5 -f 1 .*TransportBenchmark.*"`
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Array(Mode.Throughput))
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Threads(32)
+class TransportBenchmark {
+
+  /**
+   * The actor system of the WS client.
+   */
+  implicit val system: ActorSystem = ActorSystem("TransportBenchmark")
+
+  /**
+   * The materializer of the WS client.
+   */
+  implicit val materializer: ActorMaterializer = ActorMaterializer()
+
+  /**
+   * The maximum number of connections to the server, -1 means unlimited. The limit must not be lower than the
+   * number of threads, because requests which exceed the limit fail instead of waiting for a connection.
+   */
+  @Param(Array("32", "-1"))
+  var maxConnectionsPerHost: Int = _
+
+  /**
+   * Indicates if connections should be reused.
+   */
+  @Param(Array("true", "false"))
+  var keepAlive: Boolean = _
+
+  /**
+   * Indicates if the responses should be gzip encoded.
+   */
+  @Param(Array("false", "true"))
+  var compression: Boolean = _
+
+  /**
+   * The local server.
+   */
+  var server: LocalServer = _
+
+  /**
+   * The dedicated WS client.
+   */
+  var wsClient: AhcWSClient = _
+
+  /**
+   * The API invoker.
+   */
+  var apiInvoker: ApiInvoker = _
+
+  /**
+   * The request template.
+   */
+  val payload: Template = Template("BenchmarkApi", "payload", RequestMethod.GET, "", PathTemplate.parse("/payload"), None)
+    .withPrimitiveSuccessResponse[String](200)
+
+  @Setup
+  def setup(): Unit = {
+    val json = ("[" + Seq.fill(1024)("{\"id\":1234567890,\"name\":\"name\"}").mkString(",") + "]").take(32 * 1024)
+    server = new LocalServer(json.getBytes("UTF-8"))
+    val transport = TransportConfig(
+      maxConnectionsPerHost = maxConnectionsPerHost,
+      keepAlive = keepAlive,
+      compression = compression
+    )
+    wsClient = ApiTransport.client(transport)
+    apiInvoker = new ApiInvoker(ApiConfig(url = Some(server.url)), wsClient)
+  }
+
+  @TearDown
+  def tearDown(): Unit = {
+    wsClient.close()
+    server.stop()
+    system.terminate()
+  }
+
+  @Benchmark
+  def get(): ApiResponse[String] = Await.result(apiInvoker.execute[String](ApiRequest(payload, Config())), 10.seconds)
+}
@@ -21,13 +21,21 @@ package com.mohiva.swagger.codegen
 
 import javax.inject.Inject
 
+import akka.NotUsed
+import akka.stream.scaladsl.Source
+import akka.util.ByteString
+import com.github.plokhotnyuk.jsoniter_scala.core.JsonValueCodec
+import com.github.plokhotnyuk.jsoniter_scala.macros.{ CodecMakerConfig, JsonCodecMaker }
+import com.mohiva.swagger.codegen.core.ApiJsoniter._
 import com.mohiva.swagger.codegen.core.ApiParams.{ ArrayValues, CollectionFormats }
 import com.mohiva.swagger.codegen.core.ApiRequest._
 import com.mohiva.swagger.codegen.core._
 import com.mohiva.swagger.codegen.models.{ Status, User }
 
+import scala.concurrent.duration.FiniteDuration
 import scala.concurrent.{ ExecutionContext, Future }
 import scala.language.reflectiveCalls
+import scala.util.Try
 
 /**
  * A test API.
@@ -35,32 +43,76 @@ import scala.language.reflectiveCalls
  * @param apiInvoker The API invoker.
  */
 class TestApi @Inject() (apiInvoker: ApiInvoker) {
+  import TestApi._
 
   /**
    * Test the execution of GET request.
    */
   def testGet(rc: Config = Config())(implicit ec: ExecutionContext): Future[ApiResponse[Unit]] = {
-    apiInvoker.execute[Unit](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
-      .withPrimitiveSuccessResponse[Unit](204)
-    )
+    apiInvoker.execute[Unit](ApiRequest(Templates.testGet, rc))
+  }
+
+  /**
+   * Test the execution of a GET request whose identical in-flight requests will be coalesced.
+   */
+  def testCoalescedGet(rc: Config = Config())(implicit ec: ExecutionContext): Future[ApiResponse[String]] = {
+    apiInvoker.execute[String](ApiRequest(Templates.testCoalescedGet, rc))
+  }
+
+  /**
+   * Test the execution of a GET request whose response will be cached.
+   */
+  def testCachedGet(rc: Config = Config())(implicit ec: ExecutionContext): Future[ApiResponse[String]] = {
+    apiInvoker.execute[String](ApiRequest(Templates.testCachedGet, rc))
+  }
+
+  /**
+   * Test the execution of a GET request which will be retried.
+   */
+  def testRetriedGet(rc: Config = Config())(implicit ec: ExecutionContext): Future[ApiResponse[String]] = {
+    apiInvoker.execute[String](ApiRequest(Templates.testRetriedGet, rc))
   }
 
   /**
    * Test the execution of POST request.
    */
   def testPost(rc: Config = Config())(implicit ec: ExecutionContext): Future[ApiResponse[Unit]] = {
-    apiInvoker.execute[Unit](ApiRequest(RequestMethod.POST, "", "/test", None, rc)
-      .withPrimitiveSuccessResponse[Unit](204)
-    )
+    apiInvoker.execute[Unit](ApiRequest(Templates.testPost, rc))
   }
 
   /**
    * Test the execution of POST request with a body.
    */
   def testPostWithBody(body: User, rc: Config = Config())(implicit ec: ExecutionContext): Future[ApiResponse[User]] = {
-    apiInvoker.execute[User](ApiRequest(RequestMethod.POST, "", "/test", None, rc)
+    apiInvoker.execute[User](ApiRequest(Templates.testPostWithBody, rc)
+      .withJsonBody[User](body)
+    )
+  }
+
+  /**
+   * Test the execution of POST request with a compressed body.
+   */
+  def testPostWithCompressedBody(body: User, rc: Config = Config())(implicit ec: ExecutionContext): Future[ApiResponse[User]] = {
+    apiInvoker.execute[User](ApiRequest(Templates.testPostWithCompressedBody, rc)
+      .withJsonBody[User](body)
+    )
+  }
+
+  /**
+   * Test the execution of POST request with a body encoded with jsoniter-scala.
+   */
+  def testPostWithJsoniterBody(body: User, rc: Config = Config())(implicit ec: ExecutionContext): Future[ApiResponse[User]] = {
+    apiInvoker.execute[User](ApiRequest(Templates.testPostWithJsoniterBody, rc)
+      .withJsoniterBody[User](body)
+    )
+  }
+
+  /**
+   * Test the execution of POST request with a body which will be sent as CBOR.
+   */
+  def testPostWithCborBody(body: User, rc: Config = Config())(implicit ec: ExecutionContext): Future[ApiResponse[User]] = {
+    apiInvoker.execute[User](ApiRequest(Templates.testPostWithCborBody, rc)
       .withJsonBody[User](body)
-      .withJsonSuccessResponse[User](200)
     )
   }
 
@@ -68,18 +120,15 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
    * Test the execution of PUT request.
    */
   def testPut(rc: Config = Config())(implicit ec: ExecutionContext): Future[ApiResponse[Unit]] = {
-    apiInvoker.execute[Unit](ApiRequest(RequestMethod.PUT, "", "/test", None, rc)
-      .withPrimitiveSuccessResponse[Unit](204)
-    )
+    apiInvoker.execute[Unit](ApiRequest(Templates.testPut, rc))
   }
 
   /**
    * Test the execution of PUT request with a body.
    */
   def testPutWithBody(body: User, rc: Config = Config())(implicit ec: ExecutionContext): Future[ApiResponse[User]] = {
-    apiInvoker.execute[User](ApiRequest(RequestMethod.PUT, "", "/test", None, rc)
+    apiInvoker.execute[User](ApiRequest(Templates.testPutWithBody, rc)
       .withJsonBody[User](body)
-      .withJsonSuccessResponse[User](200)
     )
   }
 
@@ -87,18 +136,15 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
    * Test the execution of PATCH request.
    */
   def testPatch(rc: Config = Config())(implicit ec: ExecutionContext): Future[ApiResponse[Unit]] = {
-    apiInvoker.execute[Unit](ApiRequest(RequestMethod.PATCH, "", "/test", None, rc)
-      .withPrimitiveSuccessResponse[Unit](204)
-    )
+    apiInvoker.execute[Unit](ApiRequest(Templates.testPatch, rc))
   }
 
   /**
    * Test the execution of PATCH request with a body.
    */
   def testPatchWithBody(body: User, rc: Config = Config())(implicit ec: ExecutionContext): Future[ApiResponse[User]] = {
-    apiInvoker.execute[User](ApiRequest(RequestMethod.PATCH, "", "/test", None, rc)
+    apiInvoker.execute[User](ApiRequest(Templates.testPatchWithBody, rc)
       .withJsonBody[User](body)
-      .withJsonSuccessResponse[User](200)
     )
   }
 
@@ -106,18 +152,15 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
    * Test the execution of DELETE request.
    */
   def testDelete(rc: Config = Config())(implicit ec: ExecutionContext): Future[ApiResponse[Unit]] = {
-    apiInvoker.execute[Unit](ApiRequest(RequestMethod.DELETE, "", "/test", None, rc)
-      .withPrimitiveSuccessResponse[Unit](204)
-    )
+    apiInvoker.execute[Unit](ApiRequest(Templates.testDelete, rc))
   }
 
   /**
    * Test the execution of DELETE request with a body.
    */
   def testDeleteWithBody(body: User, rc: Config = Config())(implicit ec: ExecutionContext): Future[ApiResponse[User]] = {
-    apiInvoker.execute[User](ApiRequest(RequestMethod.DELETE, "", "/test", None, rc)
+    apiInvoker.execute[User](ApiRequest(Templates.testDeleteWithBody, rc)
       .withJsonBody[User](body)
-      .withJsonSuccessResponse[User](200)
     )
   }
 
@@ -125,36 +168,28 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
    * Test the execution of CONNECT request.
    */
   def testConnect(rc: Config = Config())(implicit ec: ExecutionContext): Future[ApiResponse[Unit]] = {
-    apiInvoker.execute[Unit](ApiRequest(RequestMethod.CONNECT, "", "/test", None, rc)
-      .withPrimitiveSuccessResponse[Unit](204)
-    )
+    apiInvoker.execute[Unit](ApiRequest(Templates.testConnect, rc))
   }
 
   /**
    * Test the execution of HEAD request.
    */
   def testHead(rc: Config = Config())(implicit ec: ExecutionContext): Future[ApiResponse[Unit]] = {
-    apiInvoker.execute[Unit](ApiRequest(RequestMethod.HEAD, "", "/test", None, rc)
-      .withPrimitiveSuccessResponse[Unit](204)
-    )
+    apiInvoker.execute[Unit](ApiRequest(Templates.testHead, rc))
   }
 
   /**
    * Test the execution of OPTIONS request.
    */
   def testOptions(rc: Config = Config())(implicit ec: ExecutionContext): Future[ApiResponse[Unit]] = {
-    apiInvoker.execute[Unit](ApiRequest(RequestMethod.OPTIONS, "", "/test", None, rc)
-      .withPrimitiveSuccessResponse[Unit](204)
-    )
+    apiInvoker.execute[Unit](ApiRequest(Templates.testOptions, rc))
   }
 
   /**
    * Test the execution of TRACE request.
    */
   def testTrace(rc: Config = Config())(implicit ec: ExecutionContext): Future[ApiResponse[Unit]] = {
-    apiInvoker.execute[Unit](ApiRequest(RequestMethod.TRACE, "", "/test", None, rc)
-      .withPrimitiveSuccessResponse[Unit](204)
-    )
+    apiInvoker.execute[Unit](ApiRequest(Templates.testTrace, rc))
   }
 
   /**
@@ -164,9 +199,7 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[Unit]] = {
-    apiInvoker.execute[Unit](ApiRequest(RequestMethod.POST, "", "/test", None, rc)
-      .withPrimitiveSuccessResponse[Unit](204)
-    )
+    apiInvoker.execute[Unit](ApiRequest(Templates.testRequestWithEmptyBody, rc))
   }
 
   /**
@@ -176,9 +209,8 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[User]] = {
-    apiInvoker.execute[User](ApiRequest(RequestMethod.POST, "", "/test", None, rc)
+    apiInvoker.execute[User](ApiRequest(Templates.testRequestWithJsonObjectBody, rc)
       .withJsonBody[User](body)
-      .withJsonSuccessResponse[User](200)
     )
   }
 
@@ -189,9 +221,8 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[Seq[User]]] = {
-    apiInvoker.execute[Seq[User]](ApiRequest(RequestMethod.POST, "", "/test", None, rc)
+    apiInvoker.execute[Seq[User]](ApiRequest(Templates.testRequestWithJsonArrayBody, rc)
       .withJsonBody[Seq[User]](body)
-      .withJsonSuccessResponse[Seq[User]](200)
     )
   }
 
@@ -202,9 +233,8 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[User]] = {
-    apiInvoker.execute[User](ApiRequest(RequestMethod.POST, "", "/test", None, rc)
+    apiInvoker.execute[User](ApiRequest(Templates.testRequestWithSomeJsonBody, rc)
       .withJsonBody[User](body)
-      .withJsonSuccessResponse[User](200)
     )
   }
 
@@ -215,9 +245,8 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[Unit]] = {
-    apiInvoker.execute[Unit](ApiRequest(RequestMethod.POST, "", "/test", None, rc)
+    apiInvoker.execute[Unit](ApiRequest(Templates.testRequestWithNoneJsonBody, rc)
       .withJsonBody[User](body)
-      .withPrimitiveSuccessResponse[Unit](204)
     )
   }
 
@@ -228,9 +257,8 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[ApiFile]] = {
-    apiInvoker.execute[ApiFile](ApiRequest(RequestMethod.POST, "", "/test", None, rc)
+    apiInvoker.execute[ApiFile](ApiRequest(Templates.testRequestWithFileBody, rc)
       .withPrimitiveBody(body)
-      .withPrimitiveSuccessResponse[ApiFile](200)
     )
   }
 
@@ -241,9 +269,8 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[String]] = {
-    apiInvoker.execute[String](ApiRequest(RequestMethod.POST, "", "/test", None, rc)
+    apiInvoker.execute[String](ApiRequest(Templates.testRequestWithIntBody, rc)
       .withPrimitiveBody(body)
-      .withPrimitiveSuccessResponse[String](200)
     )
   }
 
@@ -254,9 +281,8 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[String]] = {
-    apiInvoker.execute[String](ApiRequest(RequestMethod.POST, "", "/test", None, rc)
+    apiInvoker.execute[String](ApiRequest(Templates.testRequestWithStringBody, rc)
       .withPrimitiveBody(body)
-      .withPrimitiveSuccessResponse[String](200)
     )
   }
 
@@ -267,9 +293,8 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[String]] = {
-    apiInvoker.execute[String](ApiRequest(RequestMethod.POST, "", "/test", None, rc)
+    apiInvoker.execute[String](ApiRequest(Templates.testRequestWithBooleanBody, rc)
       .withPrimitiveBody(body)
-      .withPrimitiveSuccessResponse[String](200)
     )
   }
 
@@ -280,9 +305,8 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[String]] = {
-    apiInvoker.execute[String](ApiRequest(RequestMethod.POST, "", "/test", None, rc)
+    apiInvoker.execute[String](ApiRequest(Templates.testRequestWithSomePrimitiveBody, rc)
       .withPrimitiveBody(body)
-      .withPrimitiveSuccessResponse[String](200)
     )
   }
 
@@ -293,9 +317,8 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[Unit]] = {
-    apiInvoker.execute[Unit](ApiRequest(RequestMethod.POST, "", "/test", None, rc)
+    apiInvoker.execute[Unit](ApiRequest(Templates.testRequestWithNonePrimitiveBody, rc)
       .withPrimitiveBody(body)
-      .withPrimitiveSuccessResponse[Unit](204)
     )
   }
 
@@ -312,12 +335,11 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[String]] = {
-    apiInvoker.execute[String](ApiRequest(RequestMethod.POST, "", "/test", Some("multipart/form-data; charset=utf-8"), rc)
+    apiInvoker.execute[String](ApiRequest(Templates.testRequestWithMultipartFormData, rc)
       .withFormParam("file", file)
       .withFormParam("files", ApiParams.ArrayValues(files, ApiParams.CollectionFormats.MULTI))
       .withFormParam("param", param)
       .withFormParam("returnFile", returnFile)
-      .withPrimitiveSuccessResponse[String](200)
     )
   }
 
@@ -328,10 +350,9 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[String]] = {
-    apiInvoker.execute[String](ApiRequest(RequestMethod.POST, "", "/test", Some("application/x-www-form-urlencoded; charset=utf-8"), rc)
+    apiInvoker.execute[String](ApiRequest(Templates.testRequestWithFormURLEncodedData, rc)
       .withFormParam("param1", param1)
       .withFormParam("param2", param2)
-      .withPrimitiveSuccessResponse[String](200)
     )
   }
 
@@ -342,9 +363,8 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[String]] = {
-    apiInvoker.execute[String](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
+    apiInvoker.execute[String](ApiRequest(Templates.testRequestWithIntHeader, rc)
       .withHeaderParam("X-HEADER", header)
-      .withPrimitiveSuccessResponse[String](200)
     )
   }
 
@@ -355,9 +375,8 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[String]] = {
-    apiInvoker.execute[String](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
+    apiInvoker.execute[String](ApiRequest(Templates.testRequestWithStringHeader, rc)
       .withHeaderParam("X-HEADER", header)
-      .withPrimitiveSuccessResponse[String](200)
     )
   }
 
@@ -368,9 +387,8 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[String]] = {
-    apiInvoker.execute[String](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
+    apiInvoker.execute[String](ApiRequest(Templates.testRequestWithBooleanHeader, rc)
       .withHeaderParam("X-HEADER", header)
-      .withPrimitiveSuccessResponse[String](200)
     )
   }
 
@@ -381,9 +399,8 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[String]] = {
-    apiInvoker.execute[String](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
+    apiInvoker.execute[String](ApiRequest(Templates.testRequestWithSomeStringHeader, rc)
       .withHeaderParam("X-HEADER", header)
-      .withPrimitiveSuccessResponse[String](200)
     )
   }
 
@@ -394,9 +411,8 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[Unit]] = {
-    apiInvoker.execute[Unit](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
+    apiInvoker.execute[Unit](ApiRequest(Templates.testRequestWithNoneStringHeader, rc)
       .withHeaderParam("X-HEADER", header)
-      .withPrimitiveSuccessResponse[Unit](204)
     )
   }
 
@@ -407,13 +423,31 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[String]] = {
-    apiInvoker.execute[String](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
+    apiInvoker.execute[String](ApiRequest(Templates.testRequestWithQueryParameters, rc)
       .withQueryParam("param1", param1)
       .withQueryParam("param2", param2)
-      .withPrimitiveSuccessResponse[String](200)
     )
   }
 
+  /**
+   * Test if a batch of requests with query parameters will be sent successfully.
+   */
+  def testRequestWithQueryParametersBatch(
+    params: Iterable[(String, Int)],
+    parallelism: Int = ApiInvoker.DefaultBatchParallelism,
+    deadline: Option[FiniteDuration] = None,
+    rc: Config = Config()
+  )(
+    implicit
+    ec: ExecutionContext
+  ): Source[Try[ApiResponse[String]], NotUsed] = {
+    apiInvoker.executeBatch[String](params.map {
+      case (param1, param2) => ApiRequest(Templates.testRequestWithQueryParameters, rc)
+        .withQueryParam("param1", param1)
+        .withQueryParam("param2", param2)
+    }, parallelism, deadline)
+  }
+
   /**
    * Test if a request with array values[CSV] in query parameter will be sent successfully.
    */
@@ -421,9 +455,8 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[String]] = {
-    apiInvoker.execute[String](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
+    apiInvoker.execute[String](ApiRequest(Templates.testRequestWithArrayCsvQueryParameters, rc)
       .withQueryParam("param", ArrayValues(param, CollectionFormats.CSV))
-      .withPrimitiveSuccessResponse[String](200)
     )
   }
 
@@ -434,9 +467,8 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[String]] = {
-    apiInvoker.execute[String](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
+    apiInvoker.execute[String](ApiRequest(Templates.testRequestWithArrayTsvQueryParameters, rc)
       .withQueryParam("param", ArrayValues(param, CollectionFormats.TSV))
-      .withPrimitiveSuccessResponse[String](200)
     )
   }
 
@@ -447,9 +479,8 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[String]] = {
-    apiInvoker.execute[String](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
+    apiInvoker.execute[String](ApiRequest(Templates.testRequestWithArraySsvQueryParameters, rc)
       .withQueryParam("param", ArrayValues(param, CollectionFormats.SSV))
-      .withPrimitiveSuccessResponse[String](200)
     )
   }
 
@@ -460,9 +491,8 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[String]] = {
-    apiInvoker.execute[String](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
+    apiInvoker.execute[String](ApiRequest(Templates.testRequestWithArrayPipesQueryParameters, rc)
       .withQueryParam("param", ArrayValues(param, CollectionFormats.PIPES))
-      .withPrimitiveSuccessResponse[String](200)
     )
   }
 
@@ -473,9 +503,8 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[String]] = {
-    apiInvoker.execute[String](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
+    apiInvoker.execute[String](ApiRequest(Templates.testRequestWithArrayMultiQueryParameters, rc)
       .withQueryParam("param", ArrayValues(param, CollectionFormats.MULTI))
-      .withPrimitiveSuccessResponse[String](200)
     )
   }
 
@@ -486,9 +515,8 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[String]] = {
-    apiInvoker.execute[String](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
+    apiInvoker.execute[String](ApiRequest(Templates.testRequestWithSomeArrayQueryParameters, rc)
       .withQueryParam("param", ArrayValues(param, CollectionFormats.CSV))
-      .withPrimitiveSuccessResponse[String](200)
     )
   }
 
@@ -499,9 +527,8 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[Unit]] = {
-    apiInvoker.execute[Unit](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
+    apiInvoker.execute[Unit](ApiRequest(Templates.testRequestWithNoneArrayQueryParameters, rc)
       .withQueryParam("param", ArrayValues(param, CollectionFormats.CSV))
-      .withPrimitiveSuccessResponse[Unit](204)
     )
   }
 
@@ -512,9 +539,8 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[String]] = {
-    apiInvoker.execute[String](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
+    apiInvoker.execute[String](ApiRequest(Templates.testRequestWithSomeStringQueryParameter, rc)
       .withQueryParam("param", param)
-      .withPrimitiveSuccessResponse[String](200)
     )
   }
 
@@ -525,9 +551,8 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[Unit]] = {
-    apiInvoker.execute[Unit](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
+    apiInvoker.execute[Unit](ApiRequest(Templates.testRequestWithNoneStringQueryParameter, rc)
       .withQueryParam("param", param)
-      .withPrimitiveSuccessResponse[Unit](204)
     )
   }
 
@@ -538,10 +563,33 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[Unit]] = {
-    apiInvoker.execute[Unit](ApiRequest(RequestMethod.GET, "", "/test/{param1}/{param2}", None, rc)
+    apiInvoker.execute[Unit](ApiRequest(Templates.testRequestWithPathParameters, rc)
       .withPathParam("param1", param1)
       .withPathParam("param2", param2)
-      .withPrimitiveSuccessResponse[Unit](204)
+    )
+  }
+
+  /**
+   * Test if a request with typed path, query and header parameters will be sent successfully.
+   */
+  def testRequestWithEncodedParameters(
+    id: Long,
+    tags: Seq[String],
+    ids: Seq[Int],
+    limit: Option[Int] = None,
+    filter: Option[String] = None,
+    header: Boolean,
+    rc: Config = Config())(
+    implicit
+    ec: ExecutionContext
+  ): Future[ApiResponse[String]] = {
+    apiInvoker.execute[String](ApiRequest(Templates.testRequestWithEncodedParameters, rc)
+      .withQueryParam("tags", tags, ApiParams.ParamEncoder.String.array(ApiParams.CollectionFormats.MULTI))
+      .withQueryParam("ids", ids, ApiParams.ParamEncoder.Int.array(ApiParams.CollectionFormats.PIPES))
+      .withQueryParam("limit", limit, ApiParams.ParamEncoder.Int.optional)
+      .withQueryParam("filter", filter, ApiParams.ParamEncoder.String.optional)
+      .withPathParam("id", id, ApiParams.ParamEncoder.Long)
+      .withHeaderParam("X-HEADER", header, ApiParams.ParamEncoder.Boolean)
     )
   }
 
@@ -553,9 +601,8 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     ec: ExecutionContext,
     basicAuth: ApiRequest.BasicCredentials
   ): Future[ApiResponse[String]] = {
-    apiInvoker.execute[String](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
+    apiInvoker.execute[String](ApiRequest(Templates.testRequestWithBasicCredentials, rc)
       .withCredentials(basicAuth)
-      .withPrimitiveSuccessResponse[String](200)
     )
   }
 
@@ -567,9 +614,8 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     ec: ExecutionContext,
     apiKey: ApiRequest.ApiKey
   ): Future[ApiResponse[String]] = {
-    apiInvoker.execute[String](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
+    apiInvoker.execute[String](ApiRequest(Templates.testRequestWithAPICredentialsInHeader, rc)
       .withCredentials(ApiRequest.ApiKeyCredentials(apiKey, "X-AUTH", ApiRequest.ApiKeyLocations.HEADER))
-      .withPrimitiveSuccessResponse[String](200)
     )
   }
 
@@ -581,9 +627,8 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     ec: ExecutionContext,
     apiKey: ApiRequest.ApiKey
   ): Future[ApiResponse[String]] = {
-    apiInvoker.execute[String](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
+    apiInvoker.execute[String](ApiRequest(Templates.testRequestWithAPICredentialsInQueryString, rc)
       .withCredentials(ApiRequest.ApiKeyCredentials(apiKey, "auth", ApiRequest.ApiKeyLocations.QUERY))
-      .withPrimitiveSuccessResponse[String](200)
     )
   }
 
@@ -594,9 +639,7 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[Unit]] = {
-    apiInvoker.execute[Unit](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
-      .withPrimitiveSuccessResponse[Unit](204)
-    )
+    apiInvoker.execute[Unit](ApiRequest(Templates.testApiResponseWithUnitAsValue, rc))
   }
 
   /**
@@ -606,9 +649,8 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[String]] = {
-    apiInvoker.execute[String](ApiRequest(RequestMethod.POST, "", "/test", None, rc)
+    apiInvoker.execute[String](ApiRequest(Templates.testRequestWithDefaultPrimitiveType, rc)
       .withPrimitiveBody(body)
-      .withDefaultPrimitiveSuccessResponse[String]
     )
   }
 
@@ -619,9 +661,37 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[User]] = {
-    apiInvoker.execute[User](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
-      .withJsonSuccessResponse[User](200)
-    )
+    apiInvoker.execute[User](ApiRequest(Templates.testApiResponseWithJsonObjectAsValue, rc))
+  }
+
+  /**
+   * Test if a response of an operation which also produces binary media types can return a Json object as value.
+   */
+  def testApiResponseWithBinaryMediaTypes(rc: ApiRequest.Config = ApiRequest.Config())(
+    implicit
+    ec: ExecutionContext
+  ): Future[ApiResponse[User]] = {
+    apiInvoker.execute[User](ApiRequest(Templates.testApiResponseWithBinaryMediaTypes, rc))
+  }
+
+  /**
+   * Test if a response can return a Json object decoded with jsoniter-scala as value.
+   */
+  def testApiResponseWithJsoniterObjectAsValue(rc: ApiRequest.Config = ApiRequest.Config())(
+    implicit
+    ec: ExecutionContext
+  ): Future[ApiResponse[User]] = {
+    apiInvoker.execute[User](ApiRequest(Templates.testApiResponseWithJsoniterObjectAsValue, rc))
+  }
+
+  /**
+   * Test if a response can return a Json array decoded with jsoniter-scala as value.
+   */
+  def testApiResponseWithJsoniterArrayAsValue(rc: ApiRequest.Config = ApiRequest.Config())(
+    implicit
+    ec: ExecutionContext
+  ): Future[ApiResponse[Seq[User]]] = {
+    apiInvoker.execute[Seq[User]](ApiRequest(Templates.testApiResponseWithJsoniterArrayAsValue, rc))
   }
 
   /**
@@ -631,9 +701,17 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[Seq[User]]] = {
-    apiInvoker.execute[Seq[User]](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
-      .withJsonSuccessResponse[Seq[User]](200)
-    )
+    apiInvoker.execute[Seq[User]](ApiRequest(Templates.testApiResponseWithJsonArrayAsValue, rc))
+  }
+
+  /**
+   * Test if a response can stream the elements of a Json array.
+   */
+  def testApiResponseWithJsonArrayAsValueSource(rc: ApiRequest.Config = ApiRequest.Config())(
+    implicit
+    ec: ExecutionContext
+  ): Future[ApiResponse[Source[User, Any]]] = {
+    apiInvoker.streamJson[User](ApiRequest(Templates.testApiResponseWithJsonArrayAsValue, rc))
   }
 
   /**
@@ -643,9 +721,7 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[User]] = {
-    apiInvoker.execute[User](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
-      .withJsonSuccessResponse[User](200)
-    )
+    apiInvoker.execute[User](ApiRequest(Templates.testApiResponseForUnexpectedJson, rc))
   }
 
   /**
@@ -655,9 +731,7 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[User]] = {
-    apiInvoker.execute[User](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
-      .withDefaultJsonSuccessResponse[User]
-    )
+    apiInvoker.execute[User](ApiRequest(Templates.testApiResponseWithDefaultJsonResponse, rc))
   }
 
   /**
@@ -667,9 +741,17 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[ApiFile]] = {
-    apiInvoker.execute[ApiFile](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
-      .withPrimitiveSuccessResponse[ApiFile](200)
-    )
+    apiInvoker.execute[ApiFile](ApiRequest(Templates.testApiResponseWithFileAsValue, rc))
+  }
+
+  /**
+   * Test if a response can stream a File.
+   */
+  def testApiResponseWithFileAsValueStream(rc: ApiRequest.Config = ApiRequest.Config())(
+    implicit
+    ec: ExecutionContext
+  ): Future[ApiResponse[Source[ByteString, Any]]] = {
+    apiInvoker.stream(ApiRequest(Templates.testApiResponseWithFileAsValue, rc))
   }
 
   /**
@@ -679,9 +761,7 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[String]] = {
-    apiInvoker.execute[String](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
-      .withPrimitiveSuccessResponse[String](200)
-    )
+    apiInvoker.execute[String](ApiRequest(Templates.testApiResponseWithStringAsValue, rc))
   }
 
   /**
@@ -691,9 +771,7 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[Long]] = {
-    apiInvoker.execute[Long](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
-      .withPrimitiveSuccessResponse[Long](200)
-    )
+    apiInvoker.execute[Long](ApiRequest(Templates.testApiResponseWithLongAsValue, rc))
   }
 
   /**
@@ -703,9 +781,7 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[Int]] = {
-    apiInvoker.execute[Int](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
-      .withPrimitiveSuccessResponse[Int](200)
-    )
+    apiInvoker.execute[Int](ApiRequest(Templates.testApiResponseWithIntAsValue, rc))
   }
 
   /**
@@ -715,9 +791,7 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[Double]] = {
-    apiInvoker.execute[Double](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
-      .withPrimitiveSuccessResponse[Double](200)
-    )
+    apiInvoker.execute[Double](ApiRequest(Templates.testApiResponseWithDoubleAsValue, rc))
   }
 
   /**
@@ -727,9 +801,7 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[Float]] = {
-    apiInvoker.execute[Float](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
-      .withPrimitiveSuccessResponse[Float](200)
-    )
+    apiInvoker.execute[Float](ApiRequest(Templates.testApiResponseWithFloatAsValue, rc))
   }
 
   /**
@@ -739,9 +811,7 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[Boolean]] = {
-    apiInvoker.execute[Boolean](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
-      .withPrimitiveSuccessResponse[Boolean](200)
-    )
+    apiInvoker.execute[Boolean](ApiRequest(Templates.testApiResponseWithBooleanAsValue, rc))
   }
 
   /**
@@ -751,9 +821,7 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[Byte]] = {
-    apiInvoker.execute[Byte](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
-      .withPrimitiveSuccessResponse[Byte](200)
-    )
+    apiInvoker.execute[Byte](ApiRequest(Templates.testApiResponseWithByteAsValue, rc))
   }
 
   /**
@@ -763,9 +831,7 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[Boolean]] = {
-    apiInvoker.execute[Boolean](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
-      .withPrimitiveSuccessResponse[Boolean](200)
-    )
+    apiInvoker.execute[Boolean](ApiRequest(Templates.testApiResponseForUnexpectedPrimitiveType, rc))
   }
 
   /**
@@ -775,9 +841,7 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[Unit]] = {
-    apiInvoker.execute[Unit](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
-      .withPrimitiveErrorResponse[Unit](500)
-    )
+    apiInvoker.execute[Unit](ApiRequest(Templates.testApiErrorWithUnitAsValue, rc))
   }
 
   /**
@@ -787,9 +851,7 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[User]] = {
-    apiInvoker.execute[User](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
-      .withJsonErrorResponse[Status](500)
-    )
+    apiInvoker.execute[User](ApiRequest(Templates.testApiErrorWithJsonObjectAsValue, rc))
   }
 
   /**
@@ -799,9 +861,7 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[Seq[User]]] = {
-    apiInvoker.execute[Seq[User]](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
-      .withJsonErrorResponse[Seq[Status]](500)
-    )
+    apiInvoker.execute[Seq[User]](ApiRequest(Templates.testApiErrorWithJsonArrayAsValue, rc))
   }
 
   /**
@@ -811,9 +871,7 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[User]] = {
-    apiInvoker.execute[User](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
-      .withJsonErrorResponse[Status](500)
-    )
+    apiInvoker.execute[User](ApiRequest(Templates.testApiErrorForUnexpectedJson, rc))
   }
 
   /**
@@ -823,9 +881,7 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[User]] = {
-    apiInvoker.execute[User](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
-      .withDefaultJsonErrorResponse[Status]
-    )
+    apiInvoker.execute[User](ApiRequest(Templates.testApiErrorWithDefaultJsonResponse, rc))
   }
 
   /**
@@ -835,9 +891,7 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[ApiFile]] = {
-    apiInvoker.execute[ApiFile](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
-      .withPrimitiveErrorResponse[ApiFile](500)
-    )
+    apiInvoker.execute[ApiFile](ApiRequest(Templates.testApiErrorWithFileAsValue, rc))
   }
 
   /**
@@ -847,9 +901,17 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[String]] = {
-    apiInvoker.execute[String](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
-      .withPrimitiveErrorResponse[String](500)
-    )
+    apiInvoker.execute[String](ApiRequest(Templates.testApiErrorWithStringAsValue, rc))
+  }
+
+  /**
+   * Test if an error can return a String as value for a streamed response.
+   */
+  def testApiErrorWithStringAsValueStream(rc: ApiRequest.Config = ApiRequest.Config())(
+    implicit
+    ec: ExecutionContext
+  ): Future[ApiResponse[Source[ByteString, Any]]] = {
+    apiInvoker.stream(ApiRequest(Templates.testApiErrorWithStringAsValue, rc))
   }
 
   /**
@@ -859,9 +921,7 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[Long]] = {
-    apiInvoker.execute[Long](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
-      .withPrimitiveErrorResponse[Long](500)
-    )
+    apiInvoker.execute[Long](ApiRequest(Templates.testApiErrorWithLongAsValue, rc))
   }
 
   /**
@@ -871,9 +931,7 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[Int]] = {
-    apiInvoker.execute[Int](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
-      .withPrimitiveErrorResponse[Int](500)
-    )
+    apiInvoker.execute[Int](ApiRequest(Templates.testApiErrorWithIntAsValue, rc))
   }
 
   /**
@@ -883,9 +941,7 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[Double]] = {
-    apiInvoker.execute[Double](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
-      .withPrimitiveErrorResponse[Double](500)
-    )
+    apiInvoker.execute[Double](ApiRequest(Templates.testApiErrorWithDoubleAsValue, rc))
   }
 
   /**
@@ -895,9 +951,7 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[Float]] = {
-    apiInvoker.execute[Float](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
-      .withPrimitiveErrorResponse[Float](500)
-    )
+    apiInvoker.execute[Float](ApiRequest(Templates.testApiErrorWithFloatAsValue, rc))
   }
 
   /**
@@ -907,9 +961,7 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[Boolean]] = {
-    apiInvoker.execute[Boolean](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
-      .withPrimitiveErrorResponse[Boolean](500)
-    )
+    apiInvoker.execute[Boolean](ApiRequest(Templates.testApiErrorWithBooleanAsValue, rc))
   }
 
   /**
@@ -919,9 +971,7 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[Byte]] = {
-    apiInvoker.execute[Byte](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
-      .withPrimitiveErrorResponse[Byte](500)
-    )
+    apiInvoker.execute[Byte](ApiRequest(Templates.testApiErrorWithByteAsValue, rc))
   }
 
   /**
@@ -931,9 +981,7 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[Boolean]] = {
-    apiInvoker.execute[Boolean](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
-      .withPrimitiveErrorResponse[Boolean](500)
-    )
+    apiInvoker.execute[Boolean](ApiRequest(Templates.testApiErrorForUnexpectedPrimitiveType, rc))
   }
 
   /**
@@ -943,9 +991,7 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[Boolean]] = {
-    apiInvoker.execute[Boolean](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
-      .withDefaultPrimitiveErrorResponse[Boolean]
-    )
+    apiInvoker.execute[Boolean](ApiRequest(Templates.testApiErrorForDefaultPrimitiveType, rc))
   }
 
   /**
@@ -955,9 +1001,7 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
     implicit
     ec: ExecutionContext
   ): Future[ApiResponse[Unit]] = {
-    apiInvoker.execute[Unit](ApiRequest(RequestMethod.GET, "", "/test", None, rc)
-      .withPrimitiveSuccessResponse[Unit](200)
-    )
+    apiInvoker.execute[Unit](ApiRequest(Templates.testResponseHeaders, rc))
   }
 }
 
@@ -966,6 +1010,284 @@ class TestApi @Inject() (apiInvoker: ApiInvoker) {
  */
 object TestApi {
 
+  /**
+   * The jsoniter-scala codec for a [[User]].
+   */
+  implicit lazy val userCodec: JsonValueCodec[User] = JsonCodecMaker.make[User](CodecMakerConfig())
+
+  /**
+   * The jsoniter-scala codec for a sequence of [[User]]s.
+   */
+  implicit lazy val userSeqCodec: JsonValueCodec[Seq[User]] = JsonCodecMaker.make[Seq[User]](CodecMakerConfig())
+
+  /**
+   * The request templates of the API operations.
+   */
+  object Templates {
+    val testGet: Template = Template("TestApi", "testGet", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[Unit](204)
+
+    val testCoalescedGet: Template = Template("TestApi", "testCoalescedGet", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[String](200)
+      .withCoalescing
+
+    val testCachedGet: Template = Template("TestApi", "testCachedGet", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[String](200)
+
+    val testRetriedGet: Template = Template("TestApi", "testRetriedGet", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[String](200)
+      .withRetryPolicy(RetryPolicy(maxAttempts = 3))
+
+    val testPost: Template = Template("TestApi", "testPost", RequestMethod.POST, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[Unit](204)
+
+    val testPostWithBody: Template = Template("TestApi", "testPostWithBody", RequestMethod.POST, "", PathTemplate.parse("/test"), None)
+      .withJsonSuccessResponse[User](200)
+
+    val testPostWithCompressedBody: Template = Template("TestApi", "testPostWithCompressedBody", RequestMethod.POST, "", PathTemplate.parse("/test"), None)
+      .withJsonSuccessResponse[User](200)
+      .withRequestCompression(RequestCompression(minSize = 0))
+
+    val testPostWithCborBody: Template = Template("TestApi", "testPostWithCborBody", RequestMethod.POST, "", PathTemplate.parse("/test"), Some("application/json"))
+      .withJsonSuccessResponse[User](200)
+      .withMediaTypes(Seq("application/json"), Seq("application/json", "application/cbor"))
+
+    val testPostWithJsoniterBody: Template = Template("TestApi", "testPostWithJsoniterBody", RequestMethod.POST, "", PathTemplate.parse("/test"), None)
+      .withJsoniterSuccessResponse[User](200)
+
+    val testPut: Template = Template("TestApi", "testPut", RequestMethod.PUT, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[Unit](204)
+
+    val testPutWithBody: Template = Template("TestApi", "testPutWithBody", RequestMethod.PUT, "", PathTemplate.parse("/test"), None)
+      .withJsonSuccessResponse[User](200)
+
+    val testPatch: Template = Template("TestApi", "testPatch", RequestMethod.PATCH, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[Unit](204)
+
+    val testPatchWithBody: Template = Template("TestApi", "testPatchWithBody", RequestMethod.PATCH, "", PathTemplate.parse("/test"), None)
+      .withJsonSuccessResponse[User](200)
+
+    val testDelete: Template = Template("TestApi", "testDelete", RequestMethod.DELETE, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[Unit](204)
+
+    val testDeleteWithBody: Template = Template("TestApi", "testDeleteWithBody", RequestMethod.DELETE, "", PathTemplate.parse("/test"), None)
+      .withJsonSuccessResponse[User](200)
+
+    val testConnect: Template = Template("TestApi", "testConnect", RequestMethod.CONNECT, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[Unit](204)
+
+    val testHead: Template = Template("TestApi", "testHead", RequestMethod.HEAD, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[Unit](204)
+
+    val testOptions: Template = Template("TestApi", "testOptions", RequestMethod.OPTIONS, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[Unit](204)
+
+    val testTrace: Template = Template("TestApi", "testTrace", RequestMethod.TRACE, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[Unit](204)
+
+    val testRequestWithEmptyBody: Template = Template("TestApi", "testRequestWithEmptyBody", RequestMethod.POST, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[Unit](204)
+
+    val testRequestWithJsonObjectBody: Template = Template("TestApi", "testRequestWithJsonObjectBody", RequestMethod.POST, "", PathTemplate.parse("/test"), None)
+      .withJsonSuccessResponse[User](200)
+
+    val testRequestWithJsonArrayBody: Template = Template("TestApi", "testRequestWithJsonArrayBody", RequestMethod.POST, "", PathTemplate.parse("/test"), None)
+      .withJsonSuccessResponse[Seq[User]](200)
+
+    val testRequestWithSomeJsonBody: Template = Template("TestApi", "testRequestWithSomeJsonBody", RequestMethod.POST, "", PathTemplate.parse("/test"), None)
+      .withJsonSuccessResponse[User](200)
+
+    val testRequestWithNoneJsonBody: Template = Template("TestApi", "testRequestWithNoneJsonBody", RequestMethod.POST, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[Unit](204)
+
+    val testRequestWithFileBody: Template = Template("TestApi", "testRequestWithFileBody", RequestMethod.POST, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[ApiFile](200)
+
+    val testRequestWithIntBody: Template = Template("TestApi", "testRequestWithIntBody", RequestMethod.POST, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[String](200)
+
+    val testRequestWithStringBody: Template = Template("TestApi", "testRequestWithStringBody", RequestMethod.POST, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[String](200)
+
+    val testRequestWithBooleanBody: Template = Template("TestApi", "testRequestWithBooleanBody", RequestMethod.POST, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[String](200)
+
+    val testRequestWithSomePrimitiveBody: Template = Template("TestApi", "testRequestWithSomePrimitiveBody", RequestMethod.POST, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[String](200)
+
+    val testRequestWithNonePrimitiveBody: Template = Template("TestApi", "testRequestWithNonePrimitiveBody", RequestMethod.POST, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[Unit](204)
+
+    val testRequestWithMultipartFormData: Template = Template("TestApi", "testRequestWithMultipartFormData", RequestMethod.POST, "", PathTemplate.parse("/test"), Some("multipart/form-data; charset=utf-8"))
+      .withPrimitiveSuccessResponse[String](200)
+
+    val testRequestWithFormURLEncodedData: Template = Template("TestApi", "testRequestWithFormURLEncodedData", RequestMethod.POST, "", PathTemplate.parse("/test"), Some("application/x-www-form-urlencoded; charset=utf-8"))
+      .withPrimitiveSuccessResponse[String](200)
+
+    val testRequestWithIntHeader: Template = Template("TestApi", "testRequestWithIntHeader", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[String](200)
+
+    val testRequestWithStringHeader: Template = Template("TestApi", "testRequestWithStringHeader", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[String](200)
+
+    val testRequestWithBooleanHeader: Template = Template("TestApi", "testRequestWithBooleanHeader", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[String](200)
+
+    val testRequestWithSomeStringHeader: Template = Template("TestApi", "testRequestWithSomeStringHeader", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[String](200)
+
+    val testRequestWithNoneStringHeader: Template = Template("TestApi", "testRequestWithNoneStringHeader", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[Unit](204)
+
+    val testRequestWithQueryParameters: Template = Template("TestApi", "testRequestWithQueryParameters", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[String](200)
+
+    val testRequestWithArrayCsvQueryParameters: Template = Template("TestApi", "testRequestWithArrayCsvQueryParameters", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[String](200)
+
+    val testRequestWithArrayTsvQueryParameters: Template = Template("TestApi", "testRequestWithArrayTsvQueryParameters", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[String](200)
+
+    val testRequestWithArraySsvQueryParameters: Template = Template("TestApi", "testRequestWithArraySsvQueryParameters", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[String](200)
+
+    val testRequestWithArrayPipesQueryParameters: Template = Template("TestApi", "testRequestWithArrayPipesQueryParameters", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[String](200)
+
+    val testRequestWithArrayMultiQueryParameters: Template = Template("TestApi", "testRequestWithArrayMultiQueryParameters", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[String](200)
+
+    val testRequestWithSomeArrayQueryParameters: Template = Template("TestApi", "testRequestWithSomeArrayQueryParameters", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[String](200)
+
+    val testRequestWithNoneArrayQueryParameters: Template = Template("TestApi", "testRequestWithNoneArrayQueryParameters", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[Unit](204)
+
+    val testRequestWithSomeStringQueryParameter: Template = Template("TestApi", "testRequestWithSomeStringQueryParameter", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[String](200)
+
+    val testRequestWithNoneStringQueryParameter: Template = Template("TestApi", "testRequestWithNoneStringQueryParameter", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[Unit](204)
+
+    val testRequestWithPathParameters: Template = Template("TestApi", "testRequestWithPathParameters", RequestMethod.GET, "", PathTemplate.parse("/test/{param1}/{param2}"), None)
+      .withPrimitiveSuccessResponse[Unit](204)
+
+    val testRequestWithEncodedParameters: Template = Template("TestApi", "testRequestWithEncodedParameters", RequestMethod.GET, "", PathTemplate.parse("/test/{id}"), None)
+      .withPrimitiveSuccessResponse[String](200)
+
+    val testRequestWithBasicCredentials: Template = Template("TestApi", "testRequestWithBasicCredentials", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[String](200)
+
+    val testRequestWithAPICredentialsInHeader: Template = Template("TestApi", "testRequestWithAPICredentialsInHeader", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[String](200)
+
+    val testRequestWithAPICredentialsInQueryString: Template = Template("TestApi", "testRequestWithAPICredentialsInQueryString", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[String](200)
+
+    val testApiResponseWithUnitAsValue: Template = Template("TestApi", "testApiResponseWithUnitAsValue", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[Unit](204)
+
+    val testRequestWithDefaultPrimitiveType: Template = Template("TestApi", "testRequestWithDefaultPrimitiveType", RequestMethod.POST, "", PathTemplate.parse("/test"), None)
+      .withDefaultPrimitiveSuccessResponse[String]
+
+    val testApiResponseWithJsonObjectAsValue: Template = Template("TestApi", "testApiResponseWithJsonObjectAsValue", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withJsonSuccessResponse[User](200)
+
+    val testApiResponseWithBinaryMediaTypes: Template = Template("TestApi", "testApiResponseWithBinaryMediaTypes", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withJsonSuccessResponse[User](200)
+      .withMediaTypes(Seq("application/cbor", "application/x-protobuf", "application/json"), Seq("application/json"))
+
+    val testApiResponseWithJsoniterObjectAsValue: Template = Template("TestApi", "testApiResponseWithJsoniterObjectAsValue", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withJsoniterSuccessResponse[User](200)
+
+    val testApiResponseWithJsoniterArrayAsValue: Template = Template("TestApi", "testApiResponseWithJsoniterArrayAsValue", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withJsoniterSuccessResponse[Seq[User]](200)
+
+    val testApiResponseWithJsonArrayAsValue: Template = Template("TestApi", "testApiResponseWithJsonArrayAsValue", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withJsonSuccessResponse[Seq[User]](200)
+
+    val testApiResponseForUnexpectedJson: Template = Template("TestApi", "testApiResponseForUnexpectedJson", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withJsonSuccessResponse[User](200)
+
+    val testApiResponseWithDefaultJsonResponse: Template = Template("TestApi", "testApiResponseWithDefaultJsonResponse", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withDefaultJsonSuccessResponse[User]
+
+    val testApiResponseWithFileAsValue: Template = Template("TestApi", "testApiResponseWithFileAsValue", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[ApiFile](200)
+
+    val testApiResponseWithStringAsValue: Template = Template("TestApi", "testApiResponseWithStringAsValue", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[String](200)
+
+    val testApiResponseWithLongAsValue: Template = Template("TestApi", "testApiResponseWithLongAsValue", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[Long](200)
+
+    val testApiResponseWithIntAsValue: Template = Template("TestApi", "testApiResponseWithIntAsValue", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[Int](200)
+
+    val testApiResponseWithDoubleAsValue: Template = Template("TestApi", "testApiResponseWithDoubleAsValue", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[Double](200)
+
+    val testApiResponseWithFloatAsValue: Template = Template("TestApi", "testApiResponseWithFloatAsValue", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[Float](200)
+
+    val testApiResponseWithBooleanAsValue: Template = Template("TestApi", "testApiResponseWithBooleanAsValue", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[Boolean](200)
+
+    val testApiResponseWithByteAsValue: Template = Template("TestApi", "testApiResponseWithByteAsValue", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[Byte](200)
+
+    val testApiResponseForUnexpectedPrimitiveType: Template = Template("TestApi", "testApiResponseForUnexpectedPrimitiveType", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[Boolean](200)
+
+    val testApiErrorWithUnitAsValue: Template = Template("TestApi", "testApiErrorWithUnitAsValue", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveErrorResponse[Unit](500)
+
+    val testApiErrorWithJsonObjectAsValue: Template = Template("TestApi", "testApiErrorWithJsonObjectAsValue", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withJsonErrorResponse[Status](500)
+
+    val testApiErrorWithJsonArrayAsValue: Template = Template("TestApi", "testApiErrorWithJsonArrayAsValue", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withJsonErrorResponse[Seq[Status]](500)
+
+    val testApiErrorForUnexpectedJson: Template = Template("TestApi", "testApiErrorForUnexpectedJson", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withJsonErrorResponse[Status](500)
+
+    val testApiErrorWithDefaultJsonResponse: Template = Template("TestApi", "testApiErrorWithDefaultJsonResponse", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withDefaultJsonErrorResponse[Status]
+
+    val testApiErrorWithFileAsValue: Template = Template("TestApi", "testApiErrorWithFileAsValue", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveErrorResponse[ApiFile](500)
+
+    val testApiErrorWithStringAsValue: Template = Template("TestApi", "testApiErrorWithStringAsValue", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveErrorResponse[String](500)
+
+    val testApiErrorWithLongAsValue: Template = Template("TestApi", "testApiErrorWithLongAsValue", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveErrorResponse[Long](500)
+
+    val testApiErrorWithIntAsValue: Template = Template("TestApi", "testApiErrorWithIntAsValue", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveErrorResponse[Int](500)
+
+    val testApiErrorWithDoubleAsValue: Template = Template("TestApi", "testApiErrorWithDoubleAsValue", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveErrorResponse[Double](500)
+
+    val testApiErrorWithFloatAsValue: Template = Template("TestApi", "testApiErrorWithFloatAsValue", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveErrorResponse[Float](500)
+
+    val testApiErrorWithBooleanAsValue: Template = Template("TestApi", "testApiErrorWithBooleanAsValue", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveErrorResponse[Boolean](500)
+
+    val testApiErrorWithByteAsValue: Template = Template("TestApi", "testApiErrorWithByteAsValue", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveErrorResponse[Byte](500)
+
+    val testApiErrorForUnexpectedPrimitiveType: Template = Template("TestApi", "testApiErrorForUnexpectedPrimitiveType", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveErrorResponse[Boolean](500)
+
+    val testApiErrorForDefaultPrimitiveType: Template = Template("TestApi", "testApiErrorForDefaultPrimitiveType", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withDefaultPrimitiveErrorResponse[Boolean]
+
+    val testResponseHeaders: Template = Template("TestApi", "testResponseHeaders", RequestMethod.GET, "", PathTemplate.parse("/test"), None)
+      .withPrimitiveSuccessResponse[Unit](200)
+  }
+
   /**
    * Helper to extract headers for the `testResponseHeaders` method.
    */
@@ -0,0 +1,291 @@
+/**
+ * Original work: Swagger Codegen (https://github.com/swagger-api/swagger-codegen)
+ * Copyright 2016 Swagger (http://swagger.io)
+ *
+ * Derivative work: Swagger Codegen - Play Scala (https://github.com/mohiva/swagger-codegen-play-scala)
+ * Modifications Copyright 2016 Mohiva Organisation (license at mohiva dot com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mohiva.swagger.codegen.core
+
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.LongAdder
+
+import com.mohiva.swagger.codegen.core.ApiCache._
+import play.api.libs.ws.WSResponse
+
+import scala.concurrent.{ ExecutionContext, Future }
+import scala.util.Try
+
+/**
+ * A client side HTTP response cache.
+ *
+ * The cache stores the raw responses of GET requests in a size-bounded LRU store. It honors the `no-store`,
+ * `no-cache` and `max-age` directives of the `Cache-Control` response header. Stale responses with an `ETag`
+ * or a `Last-Modified` header will be revalidated with a conditional request, so that an unchanged resource
+ * will not be transferred again.
+ *
+ * @param maximumSize The maximum size of all cached response bodies in bytes.
+ * @param operations  The IDs of the operations whose responses should be cached. If empty, the responses of all
+ *                    GET operations will be cached.
+ */
+class ApiCache(maximumSize: Long, operations: Set[String] = Set.empty) {
+
+  /**
+   * The cached entries in access order.
+   */
+  private val entries = new java.util.LinkedHashMap[PlayRequest.Key, Entry](16, 0.75f, true)
+
+  /**
+   * The size of all cached response bodies.
+   */
+  private var size = 0L
+
+  /**
+   * Some counters.
+   */
+  private val hits = new LongAdder
+  private val misses = new LongAdder
+  private val revalidations = new LongAdder
+  private val evictions = new LongAdder
+
+  /**
+   * Indicates if the responses of an operation should be cached.
+   *
+   * @param operationId The ID of the API operation.
+   * @return True if the responses of the operation should be cached, false otherwise.
+   */
+  def isEnabledFor(operationId: String): Boolean = operations.isEmpty || operations.contains(operationId)
+
+  /**
+   * Gets the cache statistics.
+   *
+   * @return The cache statistics.
+   */
+  def stats: Stats = synchronized {
+    Stats(hits.sum(), misses.sum(), revalidations.sum(), evictions.sum(), entries.size, size)
+  }
+
+  /**
+   * Removes all cached responses.
+   */
+  def invalidateAll(): Unit = synchronized {
+    entries.clear()
+    size = 0L
+  }
+
+  /**
+   * Executes a request through the cache.
+   *
+   * A fresh cached response will be returned without a network round trip. A stale cached response will be
+   * revalidated with a conditional request. Otherwise the request will be fetched and its response cached, if
+   * the response allows it.
+   *
+   * @param request The Play request.
+   * @param fetch   Fetches the response of the request if no cached response exists.
+   * @param ec      The execution context.
+   * @return The response.
+   */
+  private[core] def execute(request: PlayRequest)(fetch: => Future[WSResponse])(
+    implicit
+    ec: ExecutionContext
+  ): Future[WSResponse] = {
+    val key = request.key
+    val now = System.nanoTime()
+    get(key) match {
+      case Some(entry) if entry.isFresh(now) =>
+        hits.increment()
+        Future.successful(entry.response)
+      case Some(entry) if entry.validators.nonEmpty =>
+        request.executeConditional(entry.validators).map { response =>
+          if (response.status == NotModified) {
+            revalidations.increment()
+            put(key, entry.copy(expires = now + maxAge(response).getOrElse(0L)))
+            entry.response
+          } else {
+            misses.increment()
+            store(key, response, now)
+            response
+          }
+        }
+      case _ =>
+        misses.increment()
+        fetch.map { response =>
+          store(key, response, now)
+          response
+        }
+    }
+  }
+
+  /**
+   * Gets a cached entry.
+   *
+   * @param key The request key.
+   * @return The cached entry if one exists.
+   */
+  private def get(key: PlayRequest.Key): Option[Entry] = synchronized(Option(entries.get(key)))
+
+  /**
+   * Stores a response if it's cacheable, otherwise a previously cached response for the request will be removed.
+   *
+   * @param key      The request key.
+   * @param response The response to store.
+   * @param now      The time at which the request was sent.
+   */
+  private def store(key: PlayRequest.Key, response: WSResponse, now: Long): Unit = {
+    Entry(response, now) match {
+      case Some(entry) => put(key, entry)
+      case None        => remove(key)
+    }
+  }
+
+  /**
+   * Puts an entry into the cache and evicts the least recently used entries if the cache is full.
+   *
+   * @param key   The request key.
+   * @param entry The entry to put.
+   */
+  private def put(key: PlayRequest.Key, entry: Entry): Unit = synchronized {
+    if (entry.size <= maximumSize) {
+      Option(entries.put(key, entry)).foreach(previous => size -= previous.size)
+      size += entry.size
+      val it = entries.values().iterator()
+      while (size > maximumSize && it.hasNext) {
+        size -= it.next().size
+        it.remove()
+        evictions.increment()
+      }
+    } else {
+      remove(key)
+    }
+  }
+
+  /**
+   * Removes an entry from the cache.
+   *
+   * @param key The request key.
+   */
+  private def remove(key: PlayRequest.Key): Unit = synchronized {
+    Option(entries.remove(key)).foreach(previous => size -= previous.size)
+  }
+}
+
+/**
+ * The companion object of the [[ApiCache]].
+ */
+object ApiCache {
+
+  /**
+   * The HTTP status codes which are relevant for the cache.
+   */
+  private val Ok = 200
+  private val NotModified = 304
+
+  /**
+   * The statistics of a cache.
+   *
+   * @param hits          The number of requests which were served by a fresh cached response.
+   * @param misses        The number of requests which were fetched from the API.
+   * @param revalidations The number of requests which were served by a stale cached response after the API
+   *                      confirmed that it's unchanged.
+   * @param evictions     The number of cached responses which were evicted because the cache was full.
+   * @param entries       The number of cached responses.
+   * @param size          The size of all cached response bodies in bytes.
+   */
+  case class Stats(hits: Long, misses: Long, revalidations: Long, evictions: Long, entries: Int, size: Long)
+
+  /**
+   * A cached response.
+   *
+   * @param response     The response.
+   * @param size         The size of the response body.
+   * @param etag         The entity tag of the response.
+   * @param lastModified The last modification date of the response.
+   * @param expires      The `System.nanoTime` at which the response gets stale.
+   */
+  private[core] case class Entry(
+    response: WSResponse,
+    size: Long,
+    etag: Option[String],
+    lastModified: Option[String],
+    expires: Long) {
+
+    /**
+     * Indicates if the response is fresh.
+     *
+     * @param now The current `System.nanoTime`.
+     * @return True if the response is fresh, false otherwise.
+     */
+    def isFresh(now: Long): Boolean = now - expires < 0
+
+    /**
+     * Gets the headers needed to revalidate the response with a conditional request.
+     *
+     * @return The headers needed to revalidate the response.
+     */
+    def validators: Seq[(String, String)] = {
+      etag.map("If-None-Match" -> _).toList ++ lastModified.map("If-Modified-Since" -> _).toList
+    }
+  }
+
+  /**
+   * The companion object of the [[Entry]].
+   */
+  private[core] object Entry {
+
+    /**
+     * Creates a cache entry for a response if the response is cacheable.
+     *
+     * @param response The response.
+     * @param now      The time at which the request was sent.
+     * @return The cache entry or None if the response isn't cacheable.
+     */
+    def apply(response: WSResponse, now: Long): Option[Entry] = {
+      val directives = cacheControl(response)
+      val etag = response.header("ETag")
+      val lastModified = response.header("Last-Modified")
+      val age = if (directives.contains("no-cache")) Some(0L) else maxAge(response)
+      if (response.status != Ok || directives.contains("no-store") || (age.isEmpty && etag.isEmpty && lastModified.isEmpty)) {
+        None
+      } else {
+        Some(Entry(response, response.bodyAsBytes.size.toLong, etag, lastModified, now + age.getOrElse(0L)))
+      }
+    }
+  }
+
+  /**
+   * Gets the directives of the `Cache-Control` header of a response.
+   *
+   * @param response The response.
+   * @return The lower-cased directives.
+   */
+  private def cacheControl(response: WSResponse): Seq[String] = {
+    response.headers.collectFirst {
+      case (name, values) if name.equalsIgnoreCase("Cache-Control") => values
+    }.getOrElse(Nil).flatMap(_.split(',')).map(_.trim.toLowerCase)
+  }
+
+  /**
+   * Gets the `max-age` directive of a response in nanoseconds.
+   *
+   * @param response The response.
+   * @return The `max-age` directive in nanoseconds, if it exists.
+   */
+  private def maxAge(response: WSResponse): Option[Long] = {
+    cacheControl(response).collectFirst {
+      case directive if directive.startsWith("max-age=") =>
+        Try(TimeUnit.SECONDS.toNanos(directive.substring("max-age=".length).trim.toLong)).toOption
+    }.flatten
+  }
+}
@@ -0,0 +1,414 @@
+/**
+ * Original work: Swagger Codegen (https://github.com/swagger-api/swagger-codegen)
+ * Copyright 2016 Swagger (http://swagger.io)
+ *
+ * Derivative work: Swagger Codegen - Play Scala (https://github.com/mohiva/swagger-codegen-play-scala)
+ * Modifications Copyright 2016 Mohiva Organisation (license at mohiva dot com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mohiva.swagger.codegen.core
+
+import java.util.concurrent.atomic.AtomicBoolean
+
+import scala.concurrent.Future
+import scala.concurrent.duration._
+
+/**
+ * The settings of a circuit breaker.
+ *
+ * The breaker records the outcomes of the last `windowSize` calls. It opens if at least `minCalls` were recorded
+ * and the rate of the failed or of the slow calls reaches its threshold. An open breaker rejects all calls for
+ * `openDuration` and then lets `halfOpenCalls` probe calls through, whose outcomes decide if it closes or opens
+ * again.
+ *
+ * @param windowSize            The number of calls in the sliding window.
+ * @param minCalls              The minimum number of calls which must be recorded before the rates will be checked.
+ * @param failureRateThreshold  The rate of the failed calls at which the breaker opens.
+ * @param slowCallRateThreshold The rate of the slow calls at which the breaker opens.
+ * @param slowCallDuration      The duration above which a call counts as slow.
+ * @param openDuration          The time an open breaker rejects all calls before it probes the API.
+ * @param halfOpenCalls         The number of probe calls in the half-open state.
+ * @param failureStatusCodes    The status codes of responses which count as failed calls. Calls which failed
+ *                              before a response was received always count as failed.
+ */
+case class CircuitBreakerSettings(
+  windowSize: Int = 100,
+  minCalls: Int = 20,
+  failureRateThreshold: Double = 0.5,
+  slowCallRateThreshold: Double = 1.0,
+  slowCallDuration: FiniteDuration = 5.seconds,
+  openDuration: FiniteDuration = 30.seconds,
+  halfOpenCalls: Int = 5,
+  failureStatusCodes: Set[Int] = Set(500, 502, 503, 504)) {
+  require(windowSize > 0, "The window size of a circuit breaker must be positive")
+  require(halfOpenCalls > 0, "The number of half-open calls of a circuit breaker must be positive")
+}
+
+/**
+ * The circuit breakers of the generated client.
+ *
+ * Every base URL gets its own breaker, so that a failing upstream doesn't affect the calls to other upstreams.
+ *
+ * @param settings     The settings of the breakers.
+ * @param perOperation Indicates if every operation of a base URL should get its own breaker.
+ * @param operations   The settings of individual operations, by operation ID. These operations always get their own
+ *                     breaker.
+ */
+case class CircuitBreakers(
+  settings: CircuitBreakerSettings = CircuitBreakerSettings(),
+  perOperation: Boolean = false,
+  operations: Map[String, CircuitBreakerSettings] = Map.empty)
+
+/**
+ * The state of a circuit breaker.
+ */
+sealed trait CircuitState
+object CircuitState {
+
+  /**
+   * The breaker lets all calls through and records their outcomes.
+   */
+  case object Closed extends CircuitState
+
+  /**
+   * The breaker rejects all calls.
+   */
+  case object Open extends CircuitState
+
+  /**
+   * The breaker lets a limited number of probe calls through.
+   */
+  case object HalfOpen extends CircuitState
+}
+
+/**
+ * The transition of a circuit breaker from one state to another.
+ *
+ * @param name         The name of the circuit breaker.
+ * @param from         The previous state.
+ * @param to           The new state.
+ * @param failureRate  The rate of the failed calls which caused the transition.
+ * @param slowCallRate The rate of the slow calls which caused the transition.
+ */
+case class CircuitBreakerEvent(
+  name: String,
+  from: CircuitState,
+  to: CircuitState,
+  failureRate: Double,
+  slowCallRate: Double)
+
+/**
+ * A snapshot of a circuit breaker.
+ *
+ * @param name         The name of the circuit breaker.
+ * @param state        The current state.
+ * @param calls        The number of calls in the sliding window.
+ * @param failureRate  The rate of the failed calls in the sliding window.
+ * @param slowCallRate The rate of the slow calls in the sliding window.
+ * @param rejected     The number of calls which were rejected since the breaker was created.
+ * @param transitions  The number of transitions into each state since the breaker was created.
+ */
+case class CircuitBreakerSnapshot(
+  name: String,
+  state: CircuitState,
+  calls: Int,
+  failureRate: Double,
+  slowCallRate: Double,
+  rejected: Long,
+  transitions: Map[CircuitState, Long])
+
+/**
+ * An error which indicates that a request was rejected by an open circuit breaker.
+ *
+ * The error has the code 0, because no request was sent.
+ *
+ * @param circuitBreaker The name of the circuit breaker which rejected the request.
+ * @param retryAfter     The time after which the breaker will let probe calls through, or zero if the breaker is
+ *                       half-open and all its probe calls are in flight.
+ */
+class ApiCircuitOpenError(val circuitBreaker: String, val retryAfter: FiniteDuration)
+  extends ApiError[Nothing](0, ApiCircuitOpenError.Message.format(circuitBreaker), None)
+
+/**
+ * The companion object of the [[ApiCircuitOpenError]].
+ */
+object ApiCircuitOpenError {
+  val Message = "Circuit breaker of `%s` is open"
+}
+
+/**
+ * A circuit breaker with a count based sliding window.
+ *
+ * The outcomes of the calls are stored in a ring buffer, so that the rates can be updated in constant time.
+ * Outcomes of calls which were permitted before the last transition will be ignored, because they don't describe
+ * the current state of the API.
+ *
+ * @param name     The name of the circuit breaker.
+ * @param settings The circuit breaker settings.
+ * @param listener The listener which gets notified about the state transitions.
+ */
+class CircuitBreaker(val name: String, settings: CircuitBreakerSettings, listener: ApiInvokerListener) {
+
+  /**
+   * The flag of a failed call.
+   */
+  private val Failed = 1
+
+  /**
+   * The flag of a slow call.
+   */
+  private val Slow = 2
+
+  /**
+   * The current state.
+   */
+  private var state: CircuitState = CircuitState.Closed
+
+  /**
+   * Incremented on every transition, to detect outcomes of calls which were permitted in an earlier state.
+   */
+  private var generation = 0L
+
+  /**
+   * The outcomes of the calls in the window as bit flags.
+   */
+  private var window = new Array[Byte](settings.windowSize)
+
+  /**
+   * The index of the next outcome in the window.
+   */
+  private var index = 0
+
+  /**
+   * The number of recorded calls in the window.
+   */
+  private var calls = 0
+
+  /**
+   * The number of failed calls in the window.
+   */
+  private var failures = 0
+
+  /**
+   * The number of slow calls in the window.
+   */
+  private var slowCalls = 0
+
+  /**
+   * The time at which the breaker was opened.
+   */
+  private var openedAt = 0L
+
+  /**
+   * The number of probe calls which were let through in the half-open state.
+   */
+  private var probes = 0
+
+  /**
+   * The number of rejected calls.
+   */
+  private var rejected = 0L
+
+  /**
+   * The number of transitions into each state.
+   */
+  private var transitions = Map[CircuitState, Long]()
+
+  /**
+   * Gets the current state.
+   *
+   * @return The current state.
+   */
+  def currentState: CircuitState = synchronized(state)
+
+  /**
+   * Creates a snapshot of the circuit breaker.
+   *
+   * @return The snapshot.
+   */
+  def snapshot(): CircuitBreakerSnapshot = synchronized {
+    CircuitBreakerSnapshot(name, state, calls, failureRate, slowCallRate, rejected, transitions)
+  }
+
+  /**
+   * Acquires the permission to execute a call.
+   *
+   * An open breaker will be switched to half-open once its open duration has expired.
+   *
+   * @return A permit, or a failed future with an [[ApiCircuitOpenError]] if the breaker rejects the call.
+   */
+  def acquire(): Future[Permit] = {
+    val now = System.nanoTime()
+    val (result, event) = synchronized {
+      val halfOpened =
+        if (state == CircuitState.Open && now - openedAt >= settings.openDuration.toNanos) {
+          Some(transition(CircuitState.HalfOpen, windowSize = settings.halfOpenCalls))
+        } else {
+          None
+        }
+
+      val result = state match {
+        case CircuitState.Closed => Right(new Permit(generation))
+        case CircuitState.HalfOpen if probes < settings.halfOpenCalls =>
+          probes += 1
+          Right(new Permit(generation))
+        case CircuitState.HalfOpen =>
+          rejected += 1
+          Left(Duration.Zero)
+        case CircuitState.Open =>
+          rejected += 1
+          Left(math.max(0L, settings.openDuration.toNanos - (now - openedAt)).nanos)
+      }
+      (result, halfOpened)
+    }
+
+    event.foreach(listener.onCircuitBreakerEvent)
+    result match {
+      case Right(permit)    => Future.successful(permit)
+      case Left(retryAfter) => Future.failed(new ApiCircuitOpenError(name, retryAfter))
+    }
+  }
+
+  /**
+   * Records the outcome of a call.
+   *
+   * @param permitGeneration The generation in which the call was permitted.
+   * @param failed           Indicates if the call failed.
+   * @param slow             Indicates if the call was slow.
+   */
+  private def record(permitGeneration: Long, failed: Boolean, slow: Boolean): Unit = {
+    val event = synchronized {
+      if (permitGeneration != generation) {
+        None
+      } else {
+        val outcome = (if (failed) Failed else 0) | (if (slow) Slow else 0)
+        if (calls == window.length) {
+          val evicted = window(index)
+          if ((evicted & Failed) != 0) failures -= 1
+          if ((evicted & Slow) != 0) slowCalls -= 1
+        } else {
+          calls += 1
+        }
+        window(index) = outcome.toByte
+        index = (index + 1) % window.length
+        if (failed) failures += 1
+        if (slow) slowCalls += 1
+
+        state match {
+          case CircuitState.Closed if calls >= settings.minCalls && exceedsThresholds =>
+            Some(transition(CircuitState.Open, settings.windowSize))
+          case CircuitState.HalfOpen if calls >= settings.halfOpenCalls =>
+            if (exceedsThresholds) Some(transition(CircuitState.Open, settings.windowSize))
+            else Some(transition(CircuitState.Closed, settings.windowSize))
+          case _ => None
+        }
+      }
+    }
+    event.foreach(listener.onCircuitBreakerEvent)
+  }
+
+  /**
+   * Gives a probe permit back, because its call wasn't executed.
+   *
+   * @param permitGeneration The generation in which the call was permitted.
+   */
+  private def cancel(permitGeneration: Long): Unit = synchronized {
+    if (permitGeneration == generation && state == CircuitState.HalfOpen) {
+      probes -= 1
+    }
+  }
+
+  /**
+   * Indicates if the rate of the failed or of the slow calls reaches its threshold.
+   *
+   * @return True if a threshold is reached, false otherwise.
+   */
+  private def exceedsThresholds: Boolean = {
+    failureRate >= settings.failureRateThreshold || slowCallRate >= settings.slowCallRateThreshold
+  }
+
+  /**
+   * Gets the rate of the failed calls in the window.
+   *
+   * @return The rate of the failed calls.
+   */
+  private def failureRate: Double = if (calls == 0) 0.0 else failures.toDouble / calls.toDouble
+
+  /**
+   * Gets the rate of the slow calls in the window.
+   *
+   * @return The rate of the slow calls.
+   */
+  private def slowCallRate: Double = if (calls == 0) 0.0 else slowCalls.toDouble / calls.toDouble
+
+  /**
+   * Switches to another state and resets the window.
+   *
+   * Must be called while holding the lock of the breaker.
+   *
+   * @param to         The new state.
+   * @param windowSize The size of the window in the new state.
+   * @return The event which describes the transition.
+   */
+  private def transition(to: CircuitState, windowSize: Int): CircuitBreakerEvent = {
+    val event = CircuitBreakerEvent(name, state, to, failureRate, slowCallRate)
+    state = to
+    generation += 1
+    window = new Array[Byte](windowSize)
+    index = 0
+    calls = 0
+    failures = 0
+    slowCalls = 0
+    probes = 0
+    if (to == CircuitState.Open) openedAt = System.nanoTime()
+    transitions = transitions.updated(to, transitions.getOrElse(to, 0L) + 1)
+    event
+  }
+
+  /**
+   * A permit to execute a call.
+   *
+   * @param permitGeneration The generation in which the call was permitted.
+   */
+  class Permit private[CircuitBreaker] (permitGeneration: Long) {
+
+    /**
+     * Indicates if the permit was released.
+     */
+    private val released = new AtomicBoolean(false)
+
+    /**
+     * Records the outcome of the call.
+     *
+     * @param status  The status code of the response, or None if the call failed before a response was received.
+     * @param latency The latency of the call in nanoseconds.
+     */
+    def release(status: Option[Int], latency: Long): Unit = {
+      if (released.compareAndSet(false, true)) {
+        val failed = status.forall(settings.failureStatusCodes.contains)
+        val slow = latency > settings.slowCallDuration.toNanos
+        CircuitBreaker.this.record(permitGeneration, failed, slow)
+      }
+    }
+
+    /**
+     * Releases the permit without recording an outcome, because the call wasn't executed.
+     */
+    def cancel(): Unit = {
+      if (released.compareAndSet(false, true)) {
+        CircuitBreaker.this.cancel(permitGeneration)
+      }
+    }
+  }
+}
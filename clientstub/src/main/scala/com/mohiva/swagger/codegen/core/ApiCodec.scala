@@ -0,0 +1,314 @@
+/**
+ * Original work: Swagger Codegen (https://github.com/swagger-api/swagger-codegen)
+ * Copyright 2016 Swagger (http://swagger.io)
+ *
+ * Derivative work: Swagger Codegen - Play Scala (https://github.com/mohiva/swagger-codegen-play-scala)
+ * Modifications Copyright 2016 Mohiva Organisation (license at mohiva dot com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mohiva.swagger.codegen.core
+
+import java.io.ByteArrayOutputStream
+import java.util.{ Base64, Locale }
+
+import akka.util.ByteString
+import com.fasterxml.jackson.core.{ JsonGenerator, JsonParser, JsonToken }
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory
+import com.mohiva.swagger.codegen.core.ApiRequest.{ ResponseState, Template }
+import com.mohiva.swagger.codegen.core.ResponseDecoder.JsonDecoder
+import play.api.libs.json._
+import play.api.libs.ws.WSResponse
+
+import scala.reflect.ClassTag
+
+/**
+ * A codec which converts values from and to a binary wire format, like Protocol Buffers.
+ *
+ * The Swagger spec only describes the Json representation of the models, so the codecs of schema based formats
+ * must be registered in the [[ApiConfig]]. A codec will be used for the responses of all operations which declare
+ * its media type in `produces` and whose success response has the runtime class of the codec.
+ *
+ * @tparam T The type of the values.
+ */
+trait BinaryCodec[T] {
+
+  /**
+   * The media type of the wire format.
+   *
+   * @return The media type of the wire format.
+   */
+  def mediaType: String
+
+  /**
+   * The runtime class of the values.
+   *
+   * @return The runtime class of the values.
+   */
+  def runtimeClass: Class[_]
+
+  /**
+   * Encodes a value.
+   *
+   * @param value The value to encode.
+   * @return The encoded value.
+   */
+  def encode(value: T): ByteString
+
+  /**
+   * Decodes a value.
+   *
+   * @param bytes The bytes to decode.
+   * @return The decoded value.
+   */
+  def decode(bytes: ByteString): T
+}
+
+/**
+ * The companion object of the [[BinaryCodec]].
+ */
+object BinaryCodec {
+
+  /**
+   * Creates a codec from functions.
+   *
+   * @param mediaType The media type of the wire format.
+   * @param encoder   The function which encodes a value.
+   * @param decoder   The function which decodes a value.
+   * @param tag       The class tag of the values.
+   * @tparam T The type of the values.
+   * @return A codec.
+   */
+  def apply[T](mediaType: String)(encoder: T => ByteString, decoder: ByteString => T)(
+    implicit
+    tag: ClassTag[T]
+  ): BinaryCodec[T] = {
+    val normalizedMediaType = MediaTypes.normalize(mediaType)
+    new BinaryCodec[T] {
+      val mediaType: String = normalizedMediaType
+      val runtimeClass: Class[_] = tag.runtimeClass
+      def encode(value: T): ByteString = encoder(value)
+      def decode(bytes: ByteString): T = decoder(bytes)
+    }
+  }
+}
+
+/**
+ * The media types the client knows.
+ */
+object MediaTypes {
+  val Json = "application/json"
+  val Cbor = "application/cbor"
+  val Protobuf = "application/x-protobuf"
+
+  /**
+   * Gets the media type of a content type, without its parameters.
+   *
+   * @param contentType The content type.
+   * @return The media type in lower case.
+   */
+  def normalize(contentType: String): String = {
+    val end = contentType.indexOf(';')
+    (if (end < 0) contentType else contentType.substring(0, end)).trim.toLowerCase(Locale.ROOT)
+  }
+
+  /**
+   * Indicates if a media type is a Json media type.
+   *
+   * @param mediaType The normalized media type.
+   * @return True if the media type is a Json media type, false otherwise.
+   */
+  def isJson(mediaType: String): Boolean = mediaType == Json || mediaType.endsWith("+json")
+}
+
+/**
+ * Negotiates the wire format of the operations which declare binary media types.
+ *
+ * The Json representation stays the fallback: the binary media types will be preferred in the `Accept` header of a
+ * request, but Json responses will still be decoded with the Json decoders. CBOR is a binary representation of
+ * Json, so it can be read and written for all models with the Json formats. All other binary formats need a
+ * [[BinaryCodec]] for the model.
+ */
+object ApiCodecs {
+
+  /**
+   * Gets the `Accept` header of a request.
+   *
+   * @param template The request template.
+   * @param codecs   The registered binary codecs.
+   * @return The `Accept` header or None if the operation doesn't produce a binary media type the client can decode.
+   */
+  def accept(template: Template, codecs: Seq[BinaryCodec[_]]): Option[String] = {
+    val success = template.responses.toSeq.sortBy(_._1).collectFirst {
+      case (_, (ResponseState.Success, decoder)) => decoder
+    }
+    val binary = template.produces.filter {
+      case MediaTypes.Cbor => success.exists(_.isInstanceOf[JsonDecoder[_]])
+      case mediaType       => success.exists(decoder => codec(codecs, mediaType, decoder.runtimeClass).isDefined)
+    }
+
+    if (binary.isEmpty) {
+      None
+    } else {
+      Some((binary ++ template.produces.filter(MediaTypes.isJson).map(_ + ";q=0.5")).mkString(", "))
+    }
+  }
+
+  /**
+   * Decodes a response with the codec of its media type.
+   *
+   * Responses which are neither CBOR nor have a registered codec will be decoded with the given decoder.
+   *
+   * @param response The response to decode.
+   * @param decoder  The decoder of the response.
+   * @param codecs   The registered binary codecs.
+   * @return The decoded content.
+   */
+  def decode(response: WSResponse, decoder: ResponseDecoder[_], codecs: Seq[BinaryCodec[_]]): Any = {
+    response.header("Content-Type").map(MediaTypes.normalize) match {
+      case Some(MediaTypes.Cbor) => decoder match {
+        case json: JsonDecoder[_] => Cbor.parse(response.bodyAsBytes).as(json.reads)
+        case _                    => decoder.decode(response)
+      }
+      case Some(mediaType) if !MediaTypes.isJson(mediaType) =>
+        codec(codecs, mediaType, decoder.runtimeClass) match {
+          case Some(c) => c.decode(response.bodyAsBytes)
+          case None    => decoder.decode(response)
+        }
+      case _ => decoder.decode(response)
+    }
+  }
+
+  /**
+   * Finds the codec for a media type and a runtime class.
+   *
+   * @param codecs       The registered binary codecs.
+   * @param mediaType    The normalized media type.
+   * @param runtimeClass The runtime class of the values.
+   * @return The codec if one is registered.
+   */
+  private def codec(codecs: Seq[BinaryCodec[_]], mediaType: String, runtimeClass: Class[_]): Option[BinaryCodec[_]] = {
+    codecs.find(c => c.mediaType == mediaType && c.runtimeClass == runtimeClass)
+  }
+}
+
+/**
+ * Converts Json values from and to CBOR.
+ *
+ * Byte strings, which have no Json representation, will be read as Base64 encoded strings. Half, single and double
+ * precision floats which are NaN or infinite have no Json representation either, so they fail the parsing with an
+ * `IllegalArgumentException`, which the invoker reports as an [[ApiError]].
+ */
+object Cbor {
+
+  /**
+   * The thread-safe factory of the CBOR parsers and generators.
+   */
+  private val factory = new CBORFactory()
+
+  /**
+   * Parses a CBOR encoded Json value.
+   *
+   * @param bytes The CBOR encoded value.
+   * @return The Json value.
+   */
+  def parse(bytes: ByteString): JsValue = {
+    val parser = factory.createParser(bytes.toArray)
+    try {
+      parser.nextToken()
+      read(parser)
+    } finally {
+      parser.close()
+    }
+  }
+
+  /**
+   * Encodes a Json value as CBOR.
+   *
+   * @param json The Json value.
+   * @return The CBOR encoded value.
+   */
+  def toBytes(json: JsValue): ByteString = {
+    val out = new ByteArrayOutputStream()
+    val generator = factory.createGenerator(out)
+    try {
+      write(json, generator)
+    } finally {
+      generator.close()
+    }
+    ByteString.fromArrayUnsafe(out.toByteArray)
+  }
+
+  /**
+   * Reads the value at the current token.
+   *
+   * @param parser The CBOR parser.
+   * @return The Json value.
+   */
+  private def read(parser: JsonParser): JsValue = parser.getCurrentToken match {
+    case JsonToken.START_OBJECT =>
+      val fields = Vector.newBuilder[(String, JsValue)]
+      while (parser.nextToken() != JsonToken.END_OBJECT) {
+        val name = parser.getCurrentName
+        parser.nextToken()
+        fields += name -> read(parser)
+      }
+      JsObject(fields.result())
+    case JsonToken.START_ARRAY =>
+      val values = Vector.newBuilder[JsValue]
+      while (parser.nextToken() != JsonToken.END_ARRAY) {
+        values += read(parser)
+      }
+      JsArray(values.result())
+    case JsonToken.VALUE_STRING => JsString(parser.getText)
+    case JsonToken.VALUE_NUMBER_FLOAT if parser.getNumberType != JsonParser.NumberType.BIG_DECIMAL =>
+      val value = parser.getDoubleValue
+      if (value.isNaN || value.isInfinite) {
+        throw new IllegalArgumentException(s"Non-finite CBOR number $value has no Json representation")
+      }
+      JsNumber(BigDecimal(parser.getDecimalValue))
+    case JsonToken.VALUE_NUMBER_INT | JsonToken.VALUE_NUMBER_FLOAT =>
+      JsNumber(BigDecimal(parser.getDecimalValue))
+    case JsonToken.VALUE_TRUE            => JsBoolean(true)
+    case JsonToken.VALUE_FALSE           => JsBoolean(false)
+    case JsonToken.VALUE_NULL            => JsNull
+    case JsonToken.VALUE_EMBEDDED_OBJECT => JsString(Base64.getEncoder.encodeToString(parser.getBinaryValue))
+    case token                           => throw new IllegalArgumentException(s"Unexpected CBOR token: $token")
+  }
+
+  /**
+   * Writes a Json value.
+   *
+   * @param json      The Json value.
+   * @param generator The CBOR generator.
+   */
+  private def write(json: JsValue, generator: JsonGenerator): Unit = json match {
+    case obj: JsObject =>
+      generator.writeStartObject()
+      obj.fields.foreach {
+        case (name, value) =>
+          generator.writeFieldName(name)
+          write(value, generator)
+      }
+      generator.writeEndObject()
+    case arr: JsArray =>
+      generator.writeStartArray()
+      arr.value.foreach(value => write(value, generator))
+      generator.writeEndArray()
+    case JsString(value) => generator.writeString(value)
+    case JsNumber(value) =>
+      if (value.isValidLong) generator.writeNumber(value.toLong) else generator.writeNumber(value.bigDecimal)
+    case bool: JsBoolean => generator.writeBoolean(bool.value)
+    case JsNull          => generator.writeNull()
+  }
+}
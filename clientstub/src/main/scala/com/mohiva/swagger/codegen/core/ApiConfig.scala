@@ -19,13 +19,192 @@
  */
 package com.mohiva.swagger.codegen.core
 
+import com.typesafe.config.Config
+
+import scala.collection.JavaConverters._
 import scala.concurrent.duration._
 
 /**
  * The API configuration.
  *
- * @param url            The optional API URL. If this URL is defined then it has precedence over the URL defined
- *                       in the Swagger spec.
- * @param requestTimeout The request timeout. Defaults to 20 seconds.
+ * @param url                     The optional API URL. If this URL is defined then it has precedence over the URL
+ *                                defined in the Swagger spec.
+ * @param requestTimeout          The request timeout. Defaults to 20 seconds.
+ * @param maximumJsonObjectLength The maximum length of a single element in a streamed Json array. Defaults to 1MB.
+ * @param listener                The listener which gets notified about the metrics of every request. Defaults to a
+ *                                listener which does nothing.
+ * @param cache                   The optional response cache. Defaults to None, which means that no responses will
+ *                                be cached.
+ * @param limits                  The optional concurrency limits. Defaults to None, which means that the concurrency
+ *                                isn't limited.
+ * @param retry                   The optional retry policy of all operations. Defaults to None, which means that
+ *                                requests will only be retried if their operation or their request config defines a
+ *                                policy.
+ * @param retryBudget             The retry budget, which is shared by all operations.
+ * @param transport               The optional transport settings of a dedicated WS client for the API. Defaults to
+ *                                None, which means that the API uses the shared WS client. The [[ApiInvoker]]
+ *                                creates the dedicated client and closes it with [[ApiInvoker#close]].
+ * @param executors               The optional executors to which the invoker offloads the decoding of responses and
+ *                                blocking I/O. Defaults to None, which means that all work runs on the execution
+ *                                context of the caller.
+ * @param codecs                  The codecs of binary wire formats like Protocol Buffers, which will be negotiated
+ *                                for the operations which produce their media types. Defaults to no codecs, which
+ *                                means that only Json and CBOR will be negotiated.
+ * @param circuitBreakers         The optional circuit breakers per base URL. Defaults to None, which means that
+ *                                requests to a failing API wait for their timeout.
+ */
+case class ApiConfig(
+  url: Option[String] = None,
+  requestTimeout: FiniteDuration = 20.seconds,
+  maximumJsonObjectLength: Int = 1024 * 1024,
+  listener: ApiInvokerListener = ApiInvokerListener.Noop,
+  cache: Option[ApiCache] = None,
+  limits: Option[ConcurrencyLimits] = None,
+  retry: Option[RetryPolicy] = None,
+  retryBudget: RetryBudget = RetryBudget(),
+  transport: Option[TransportConfig] = None,
+  executors: Option[ApiExecutors] = None,
+  codecs: Seq[BinaryCodec[_]] = Nil,
+  circuitBreakers: Option[CircuitBreakers] = None)
+
+/**
+ * The companion object of the [[ApiConfig]].
  */
-case class ApiConfig(url: Option[String] = None, requestTimeout: FiniteDuration = 20.seconds)
+object ApiConfig {
+
+  /**
+   * Creates the API config from a Typesafe config.
+   *
+   * The defaults for all settings are defined in the `reference.conf` of the client.
+   *
+   * @param config The Typesafe config.
+   * @param path   The path under which the API config is defined.
+   * @return The API config.
+   */
+  def fromConfig(config: Config, path: String): ApiConfig = {
+    val c = config.getConfig(path)
+    ApiConfig(
+      url = if (c.hasPath("url")) Some(c.getString("url")) else None,
+      requestTimeout = c.getDuration("requestTimeout").toNanos.nanos,
+      maximumJsonObjectLength = c.getBytes("maximumJsonObjectLength").toInt,
+      cache =
+        if (c.getBoolean("cache.enabled")) {
+          Some(new ApiCache(c.getBytes("cache.maximumSize"), c.getStringList("cache.operations").asScala.toSet))
+        } else {
+          None
+        },
+      limits =
+        if (c.getBoolean("limits.enabled")) {
+          val operation = c.getConfig("limits.operation")
+          Some(ConcurrencyLimits(
+            api = limiterSettings(c.getConfig("limits.api")),
+            operation = limiterSettings(operation),
+            operations = c.getObject("limits.operations").keySet.asScala.map { operationId =>
+              operationId -> limiterSettings(c.getConfig("limits.operations").getConfig(operationId).withFallback(operation))
+            }.toMap
+          ))
+        } else {
+          None
+        },
+      retry =
+        if (c.getBoolean("retry.enabled")) {
+          Some(RetryPolicy(
+            maxAttempts = c.getInt("retry.maxAttempts"),
+            initialBackoff = c.getDuration("retry.initialBackoff").toNanos.nanos,
+            maxBackoff = c.getDuration("retry.maxBackoff").toNanos.nanos,
+            backoffMultiplier = c.getDouble("retry.backoffMultiplier"),
+            retryStatusCodes = c.getIntList("retry.statusCodes").asScala.map(_.intValue).toSet,
+            hedge = c.getBoolean("retry.hedge"),
+            hedgePercentile = c.getDouble("retry.hedgePercentile")
+          ))
+        } else {
+          None
+        },
+      retryBudget = RetryBudget(
+        ratio = c.getDouble("retry.budget.ratio"),
+        minRetriesPerSecond = c.getInt("retry.budget.minRetriesPerSecond"),
+        maxBalance = c.getInt("retry.budget.maxBalance")
+      ),
+      transport =
+        if (c.getBoolean("transport.enabled")) {
+          Some(TransportConfig(
+            maxConnectionsTotal = c.getInt("transport.maxConnectionsTotal"),
+            maxConnectionsPerHost = c.getInt("transport.maxConnectionsPerHost"),
+            connectTimeout = c.getDuration("transport.connectTimeout").toNanos.nanos,
+            idleTimeout = c.getDuration("transport.idleTimeout").toNanos.nanos,
+            pooledIdleTimeout = c.getDuration("transport.pooledIdleTimeout").toNanos.nanos,
+            maxConnectionLifetime =
+              if (c.hasPath("transport.maxConnectionLifetime")) {
+                Some(c.getDuration("transport.maxConnectionLifetime").toNanos.nanos)
+              } else {
+                None
+              },
+            keepAlive = c.getBoolean("transport.keepAlive"),
+            compression = c.getBoolean("transport.compression"),
+            userAgent = if (c.hasPath("transport.userAgent")) Some(c.getString("transport.userAgent")) else None
+          ))
+        } else {
+          None
+        },
+      executors =
+        if (c.getBoolean("executors.enabled")) {
+          Some(ApiExecutors(ExecutorConfig(
+            decodeName = c.getString("executors.decode.name"),
+            decodeParallelism = c.getInt("executors.decode.parallelism"),
+            decodeMinSize = c.getBytes("executors.decode.minSize"),
+            blockingName = c.getString("executors.blocking.name"),
+            blockingThreads = c.getInt("executors.blocking.maxThreads"),
+            virtualThreads = c.getBoolean("executors.blocking.virtualThreads")
+          )))
+        } else {
+          None
+        },
+      circuitBreakers =
+        if (c.getBoolean("circuitBreaker.enabled")) {
+          val breaker = c.getConfig("circuitBreaker")
+          Some(CircuitBreakers(
+            settings = circuitBreakerSettings(breaker),
+            perOperation = breaker.getBoolean("perOperation"),
+            operations = breaker.getObject("operations").keySet.asScala.map { operationId =>
+              operationId -> circuitBreakerSettings(breaker.getConfig("operations").getConfig(operationId).withFallback(breaker))
+            }.toMap
+          ))
+        } else {
+          None
+        }
+    )
+  }
+
+  /**
+   * Creates the limiter settings from a Typesafe config.
+   *
+   * @param c The Typesafe config of the limiter.
+   * @return The limiter settings.
+   */
+  private def limiterSettings(c: Config): LimiterSettings = LimiterSettings(
+    initialLimit = c.getInt("initialLimit"),
+    minLimit = c.getInt("minLimit"),
+    maxLimit = c.getInt("maxLimit"),
+    backoffRatio = c.getDouble("backoffRatio"),
+    latencyThreshold = c.getDuration("latencyThreshold").toNanos.nanos,
+    maxQueueSize = c.getInt("maxQueueSize"),
+    maxWait = c.getDuration("maxWait").toNanos.nanos
+  )
+
+  /**
+   * Creates the circuit breaker settings from a Typesafe config.
+   *
+   * @param c The Typesafe config of the circuit breaker.
+   * @return The circuit breaker settings.
+   */
+  private def circuitBreakerSettings(c: Config): CircuitBreakerSettings = CircuitBreakerSettings(
+    windowSize = c.getInt("windowSize"),
+    minCalls = c.getInt("minCalls"),
+    failureRateThreshold = c.getDouble("failureRateThreshold"),
+    slowCallRateThreshold = c.getDouble("slowCallRateThreshold"),
+    slowCallDuration = c.getDuration("slowCallDuration").toNanos.nanos,
+    openDuration = c.getDuration("openDuration").toNanos.nanos,
+    halfOpenCalls = c.getInt("halfOpenCalls"),
+    failureStatusCodes = c.getIntList("failureStatusCodes").asScala.map(_.intValue).toSet
+  )
+}
@@ -0,0 +1,159 @@
+/**
+ * Original work: Swagger Codegen (https://github.com/swagger-api/swagger-codegen)
+ * Copyright 2016 Swagger (http://swagger.io)
+ *
+ * Derivative work: Swagger Codegen - Play Scala (https://github.com/mohiva/swagger-codegen-play-scala)
+ * Modifications Copyright 2016 Mohiva Organisation (license at mohiva dot com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mohiva.swagger.codegen.core
+
+import java.util.concurrent._
+import java.util.concurrent.atomic.AtomicInteger
+
+import scala.concurrent.{ ExecutionContext, ExecutionContextExecutorService }
+import scala.util.Try
+
+/**
+ * The settings of the executors to which the invoker offloads work which shouldn't run on the execution context of
+ * the caller.
+ *
+ * The execution context passed to the generated methods is often the default dispatcher of the application, which
+ * also handles its incoming requests. Decoding large response bodies on it delays unrelated requests, and blocking
+ * I/O on it can starve it completely.
+ *
+ * @param decodeName        The name of the decode pool, which prefixes the names of its threads.
+ * @param decodeParallelism The number of threads which decode response bodies, 0 means the number of processors.
+ * @param decodeMinSize     The minimum size in bytes of a response body which will be decoded on the decode pool.
+ *                          Smaller bodies will be decoded on the execution context of the caller, because handing
+ *                          them over would cost more than decoding them. Bodies of unknown size will always be
+ *                          decoded on the decode pool.
+ * @param blockingName      The name of the blocking executor, which prefixes the names of its threads.
+ * @param blockingThreads   The maximum number of threads which run blocking I/O.
+ * @param virtualThreads    Indicates if blocking I/O should run on virtual threads instead, if the JVM supports them.
+ *                          The number of virtual threads isn't bounded.
+ */
+case class ExecutorConfig(
+  decodeName: String = "api-decode",
+  decodeParallelism: Int = 0,
+  decodeMinSize: Long = 16 * 1024,
+  blockingName: String = "api-blocking",
+  blockingThreads: Int = 64,
+  virtualThreads: Boolean = false)
+
+/**
+ * The executors of an API.
+ *
+ * The threads of the executors are daemon threads which terminate after they were idle for a minute, so that the
+ * executors don't hold any threads if the API isn't used. They can be shut down explicitly if the API gets stopped.
+ *
+ * @param config The executor settings.
+ */
+class ApiExecutors(val config: ExecutorConfig) {
+  import ApiExecutors._
+
+  /**
+   * The bounded pool on which response bodies will be decoded.
+   */
+  val decode: ExecutionContextExecutorService = ExecutionContext.fromExecutorService(pool(
+    config.decodeName,
+    if (config.decodeParallelism > 0) config.decodeParallelism else Runtime.getRuntime.availableProcessors
+  ))
+
+  /**
+   * The executor on which blocking I/O runs.
+   */
+  val blocking: ExecutionContextExecutorService = ExecutionContext.fromExecutorService(
+    (if (config.virtualThreads) virtualThreadExecutor(config.blockingName) else None)
+      .getOrElse(pool(config.blockingName, config.blockingThreads))
+  )
+
+  /**
+   * Indicates if a response body should be decoded on the decode pool.
+   *
+   * @param size The size of the body in bytes, if known.
+   * @return True if the body should be decoded on the decode pool, false otherwise.
+   */
+  def decodes(size: Option[Long]): Boolean = size.forall(_ >= config.decodeMinSize)
+
+  /**
+   * Shuts the executors down.
+   */
+  def shutdown(): Unit = {
+    decode.shutdown()
+    blocking.shutdown()
+  }
+}
+
+/**
+ * The companion object of the [[ApiExecutors]].
+ */
+object ApiExecutors {
+
+  /**
+   * Creates the executors of an API.
+   *
+   * @param config The executor settings.
+   * @return The executors.
+   */
+  def apply(config: ExecutorConfig = ExecutorConfig()): ApiExecutors = new ApiExecutors(config)
+
+  /**
+   * Creates a pool with a fixed maximum number of daemon threads.
+   *
+   * @param name    The name of the pool, which prefixes the names of its threads.
+   * @param threads The maximum number of threads.
+   * @return The pool.
+   */
+  private def pool(name: String, threads: Int): ExecutorService = {
+    val executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue[Runnable](),
+      threadFactory(name))
+    executor.allowCoreThreadTimeOut(true)
+    executor
+  }
+
+  /**
+   * Creates a factory for named daemon threads.
+   *
+   * @param name The prefix of the thread names.
+   * @return The thread factory.
+   */
+  private def threadFactory(name: String): ThreadFactory = new ThreadFactory {
+    private val count = new AtomicInteger()
+
+    override def newThread(runnable: Runnable): Thread = {
+      val thread = new Thread(runnable, name + "-" + count.incrementAndGet())
+      thread.setDaemon(true)
+      thread
+    }
+  }
+
+  /**
+   * Creates an executor which starts a named virtual thread per task.
+   *
+   * The client is compiled for Java 8, so the executor will be created by reflection.
+   *
+   * @param name The prefix of the thread names.
+   * @return The executor or None if the JVM doesn't support virtual threads.
+   */
+  private def virtualThreadExecutor(name: String): Option[ExecutorService] = Try {
+    val builderClass = Class.forName("java.lang.Thread$Builder")
+    val builder = classOf[Thread].getMethod("ofVirtual").invoke(null)
+    val named = builderClass.getMethod("name", classOf[String], java.lang.Long.TYPE)
+      .invoke(builder, name + "-", java.lang.Long.valueOf(0L))
+    val factory = builderClass.getMethod("factory").invoke(named).asInstanceOf[ThreadFactory]
+    classOf[Executors].getMethod("newThreadPerTaskExecutor", classOf[ThreadFactory])
+      .invoke(null, factory).asInstanceOf[ExecutorService]
+  }.toOption
+}
@@ -20,11 +20,115 @@
 package com.mohiva.swagger.codegen.core
 
 import java.io.InputStream
+import java.nio.file.{ Files, Path }
+
+import akka.stream.Materializer
+import akka.stream.scaladsl.{ FileIO, Source, StreamConverters }
+import akka.util.ByteString
 
 /**
  * A file instance an API can handle.
  *
- * @param name    The name of the file.
- * @param content The file content.
+ * A file can be backed by an input stream, a path, a byte string or an Akka source. Files which are backed by a
+ * path, a byte string or a source will be uploaded without bridging through a blocking input stream.
+ */
+sealed trait ApiFile {
+
+  /**
+   * The name of the file.
+   */
+  def name: String
+
+  /**
+   * Gets the file content as source.
+   *
+   * @return The file content as source.
+   */
+  def source: Source[ByteString, Any]
+
+  /**
+   * Gets the file content as input stream.
+   *
+   * Reading from the returned stream blocks for files which are backed by a source.
+   *
+   * @return The file content as input stream.
+   */
+  def content: InputStream
+}
+
+/**
+ * The companion object of the [[ApiFile]].
  */
-case class ApiFile(name: String, content: InputStream)
+object ApiFile {
+
+  /**
+   * Creates a file which is backed by an input stream.
+   *
+   * @param name    The name of the file.
+   * @param content The file content.
+   * @return The file.
+   */
+  def apply(name: String, content: InputStream): ApiFile = InputStreamFile(name, content)
+
+  /**
+   * Creates a file which is backed by a path.
+   *
+   * @param path The path of the file.
+   * @return The file.
+   */
+  def apply(path: Path): ApiFile = PathFile(path.getFileName.toString, path)
+
+  /**
+   * Creates a file which is backed by a byte string.
+   *
+   * @param name  The name of the file.
+   * @param bytes The file content.
+   * @return The file.
+   */
+  def apply(name: String, bytes: ByteString): ApiFile = ByteStringFile(name, bytes)
+
+  /**
+   * A file which is backed by an input stream.
+   *
+   * @param name    The name of the file.
+   * @param content The file content.
+   */
+  case class InputStreamFile(name: String, content: InputStream) extends ApiFile {
+    def source: Source[ByteString, Any] = StreamConverters.fromInputStream(() => content)
+  }
+
+  /**
+   * A file which is backed by a path.
+   *
+   * The file will be read with NIO channels when it gets uploaded.
+   *
+   * @param name The name of the file.
+   * @param path The path of the file.
+   */
+  case class PathFile(name: String, path: Path) extends ApiFile {
+    def source: Source[ByteString, Any] = FileIO.fromPath(path)
+    def content: InputStream = Files.newInputStream(path)
+  }
+
+  /**
+   * A file which is backed by a byte string.
+   *
+   * @param name  The name of the file.
+   * @param bytes The file content.
+   */
+  case class ByteStringFile(name: String, bytes: ByteString) extends ApiFile {
+    def source: Source[ByteString, Any] = Source.single(bytes)
+    def content: InputStream = bytes.iterator.asInputStream
+  }
+
+  /**
+   * A file which is backed by an Akka source.
+   *
+   * @param name   The name of the file.
+   * @param source The file content.
+   * @param mat    The materializer used to convert the source into an input stream.
+   */
+  case class SourceFile(name: String, source: Source[ByteString, Any])(implicit mat: Materializer) extends ApiFile {
+    def content: InputStream = source.runWith(StreamConverters.asInputStream())
+  }
+}
@@ -19,10 +19,9 @@
  */
 package com.mohiva.swagger.codegen.core
 
-import akka.stream.scaladsl.{ Source, StreamConverters }
+import akka.stream.scaladsl.Source
 import akka.util.ByteString
 import com.mohiva.swagger.codegen.core.ApiRequest._
-import play.api.http.MediaType
 import play.api.libs.json._
 import play.api.libs.ws._
 import play.api.mvc.MultipartFormData.{ DataPart, FilePart, Part }
@@ -36,21 +35,38 @@ import scala.reflect.ClassTag
 object ApiJsonFormats {
 
   /**
-   * Converts an enum value to Json and vice versa.
+   * Converts the values of an enum to Json and vice versa.
+   *
+   * The values are looked up in an index which is built once per enum, so that reading a value neither needs
+   * reflection nor a scan over all values of the enum.
+   *
+   * @param enum The enum to convert.
+   * @return The Json format for the values of the enum.
    */
-  implicit def enumValueFormat[T <: Enumeration: ClassTag]: Format[T#Value] = new Format[T#Value] {
-    def reads(json: JsValue): JsResult[T#Value] = {
-      val c = implicitly[ClassTag[T]].runtimeClass
-      val enum = c.getField("MODULE$").get(null).asInstanceOf[T]
-      json.asOpt[String].map { value =>
-        enum.values.find(_.toString == value) match {
-          case Some(v) => JsSuccess(v)
-          case _       => JsError("invalid")
-        }
-      } getOrElse JsError("string")
+  def enumFormat(enum: Enumeration): Format[enum.Value] = new Format[enum.Value] {
+    private val index: Map[String, enum.Value] = enum.values.iterator.map(v => v.toString -> v).toMap
+    private lazy val expected: String = enum.values.mkString(", ")
+
+    def reads(json: JsValue): JsResult[enum.Value] = json match {
+      case JsString(value) => index.get(value) match {
+        case Some(v) => JsSuccess(v)
+        case None    => JsError(s"Invalid value `$value` for enum `$enum`; expected one of: $expected")
+      }
+      case _ => JsError(s"Expected a Json string for enum `$enum`, got: $json")
     }
 
-    def writes(value: T#Value): JsValue = JsString(value.toString)
+    def writes(value: enum.Value): JsValue = JsString(value.toString)
+  }
+
+  /**
+   * Converts an enum value to Json and vice versa.
+   *
+   * The enum is resolved by reflection each time the format gets created. The generated models use the format
+   * created by [[enumFormat]] in the enum object instead.
+   */
+  implicit def enumValueFormat[T <: Enumeration: ClassTag]: Format[T#Value] = {
+    val enum = implicitly[ClassTag[T]].runtimeClass.getField("MODULE$").get(null).asInstanceOf[T]
+    enumFormat(enum).asInstanceOf[Format[T#Value]]
   }
 }
 
@@ -105,6 +121,163 @@ object ApiParams {
     case object SSV extends MergedArrayFormat { override val separator = " " }
     case object PIPES extends MergedArrayFormat { override val separator = "|" }
     case object MULTI extends CollectionFormat
+
+    val values: Seq[CollectionFormat] = List(CSV, TSV, SSV, PIPES, MULTI)
+  }
+
+  /**
+   * Params which are already encoded into their string representation.
+   */
+  type EncodedParams = Vector[(String, String)]
+
+  /**
+   * Encodes typed param values into their string representation.
+   *
+   * The generated operations choose the encoder of a param at generation time, so that its value doesn't need to be
+   * matched against all known types on every request. The encoded values will be appended to the already encoded
+   * params, which will then be passed as they are to the Play request.
+   */
+  trait ParamEncoder[-T] {
+
+    /**
+     * Encodes a param value.
+     *
+     * @param name   The param name.
+     * @param value  The param value.
+     * @param params The already encoded params.
+     * @return The encoded params with the encoded value appended.
+     */
+    def encode(name: String, value: T, params: EncodedParams): EncodedParams
+  }
+
+  /**
+   * Encodes a single value into one string.
+   *
+   * The encoders for optional values and arrays will be created once per value encoder and collection format.
+   */
+  abstract class ValueEncoder[-T] extends ParamEncoder[T] {
+
+    /**
+     * Converts a value into its string representation.
+     *
+     * @param value The value to convert.
+     * @return The string representation of the value.
+     */
+    def asString(value: T): String
+
+    /**
+     * Encodes a param value.
+     *
+     * @param name   The param name.
+     * @param value  The param value.
+     * @param params The already encoded params.
+     * @return The encoded params with the encoded value appended.
+     */
+    def encode(name: String, value: T, params: EncodedParams): EncodedParams = params :+ (name -> asString(value))
+
+    /**
+     * The encoder for optional values, which omits the param if no value is given.
+     */
+    lazy val optional: ParamEncoder[Option[T]] = new OptionEncoder(this)
+
+    /**
+     * The encoders for arrays by collection format.
+     */
+    private[this] lazy val arrays: Map[CollectionFormat, ParamEncoder[Iterable[T]]] =
+      CollectionFormats.values.map(format => format -> new ArrayEncoder(this, format)).toMap
+
+    /**
+     * Gets the encoder for arrays, which omits the param if the array is empty.
+     *
+     * @param format The collection format of the array.
+     * @return The encoder for arrays.
+     */
+    def array(format: CollectionFormat): ParamEncoder[Iterable[T]] = arrays(format)
+  }
+
+  /**
+   * The encoders of the types which can be used as params.
+   */
+  object ParamEncoder {
+    val String: ValueEncoder[String] = new ValueEncoder[String] {
+      def asString(value: String): String = value
+      override def encode(name: String, value: String, params: EncodedParams): EncodedParams =
+        if (value.isEmpty) params else params :+ (name -> value)
+    }
+    val Int: ValueEncoder[Int] = new ValueEncoder[Int] {
+      def asString(value: Int): String = java.lang.Integer.toString(value)
+    }
+    val Long: ValueEncoder[Long] = new ValueEncoder[Long] {
+      def asString(value: Long): String = java.lang.Long.toString(value)
+    }
+    val Float: ValueEncoder[Float] = new ValueEncoder[Float] {
+      def asString(value: Float): String = java.lang.Float.toString(value)
+    }
+    val Double: ValueEncoder[Double] = new ValueEncoder[Double] {
+      def asString(value: Double): String = java.lang.Double.toString(value)
+    }
+    val Boolean: ValueEncoder[Boolean] = new ValueEncoder[Boolean] {
+      def asString(value: Boolean): String = java.lang.Boolean.toString(value)
+    }
+    val Byte: ValueEncoder[Byte] = new ValueEncoder[Byte] {
+      def asString(value: Byte): String = java.lang.Byte.toString(value)
+    }
+    val Short: ValueEncoder[Short] = new ValueEncoder[Short] {
+      def asString(value: Short): String = java.lang.Short.toString(value)
+    }
+    val Any: ValueEncoder[Any] = new ValueEncoder[Any] {
+      def asString(value: Any): String = java.lang.String.valueOf(value)
+    }
+  }
+
+  /**
+   * Encodes optional values.
+   *
+   * @param encoder The encoder of the value.
+   */
+  private class OptionEncoder[-T](encoder: ParamEncoder[T]) extends ParamEncoder[Option[T]] {
+    def encode(name: String, value: Option[T], params: EncodedParams): EncodedParams = value match {
+      case Some(v) => encoder.encode(name, v, params)
+      case None    => params
+    }
+  }
+
+  /**
+   * Encodes arrays.
+   *
+   * Arrays with a merged format will be encoded into one value, `MULTI` arrays into one value per element.
+   *
+   * @param encoder The encoder of the elements.
+   * @param format  The collection format of the array.
+   */
+  private class ArrayEncoder[-T](encoder: ValueEncoder[T], format: CollectionFormat) extends ParamEncoder[Iterable[T]] {
+    def encode(name: String, values: Iterable[T], params: EncodedParams): EncodedParams = {
+      val it = values.iterator
+      if (!it.hasNext) {
+        params
+      } else format match {
+        case merged: CollectionFormats.MergedArrayFormat =>
+          val builder = new StringBuilder(encoder.asString(it.next()))
+          while (it.hasNext) {
+            builder.append(merged.separator).append(encoder.asString(it.next()))
+          }
+          params :+ (name -> builder.toString)
+        case _ =>
+          var encoded = params
+          while (it.hasNext) {
+            encoded = encoded :+ (name -> encoder.asString(it.next()))
+          }
+          encoded
+      }
+    }
+  }
+
+  /**
+   * Indicates if a param value is a file.
+   */
+  private val isFile: Any => Boolean = {
+    case _: ApiFile => true
+    case _          => false
   }
 
   /**
@@ -113,21 +286,18 @@ object ApiParams {
    * None values will be filtered out.
    */
   implicit class AnyMapNormalizers(val m: Map[String, Any]) {
-    def normalize: Seq[(String, Any)] = m.mapValues(_.normalize).toSeq.flatMap {
-      case (_, EmptyValue(_)) => Seq()
-      case (name, ArrayValues(values, format)) if format == CollectionFormats.MULTI =>
-        val containsFile = (value: Any) => value match {
-          case _: ApiFile => true
-          case _          => false
-        }
-
-        if (values.exists(containsFile)) {
-          values.zipWithIndex.map { case (v, i) => name + i.toString -> v }
-        } else {
-          values.map { v => name -> v }
-        }
-      case (k, v) => Seq(k -> v)
-    }
+    def normalize: Seq[(String, Any)] = if (m.isEmpty) Nil else m.iterator.flatMap {
+      case (name, value) => value.normalize match {
+        case EmptyValue(_) => Nil
+        case ArrayValues(values, CollectionFormats.MULTI) =>
+          if (values.exists(isFile)) {
+            values.zipWithIndex.map { case (v, i) => name + i.toString -> v }
+          } else {
+            values.map { v => name -> v }
+          }
+        case v => List(name -> v)
+      }
+    }.toList
   }
 
   /**
@@ -142,7 +312,7 @@ object ApiParams {
         case arr @ ArrayValues(values, CollectionFormats.MULTI) => arr.copy(values.map(n))
         case ArrayValues(values, format: MergedArrayFormat) => values.mkString(format.separator)
         case sequence: Seq[Any] => n(ArrayValues(sequence))
-        case NumericValue(numeric) => numeric.value
+        case numeric @ (_: Int | _: Long | _: Float | _: Double | _: Boolean | _: Byte) => String.valueOf(numeric)
         case v => v
       }
 
@@ -162,6 +332,38 @@ trait PlayRequest {
    * @return A response.
    */
   def execute(): Future[WSResponse]
+
+  /**
+   * Executes the request with additional headers.
+   *
+   * @param headers The headers to add, e.g. the validators of a conditional request.
+   * @return A response.
+   */
+  def executeConditional(headers: Seq[(String, String)]): Future[WSResponse]
+
+  /**
+   * Executes the request and streams the response body.
+   *
+   * The body of the returned response will not be buffered in memory and must be consumed with the
+   * `bodyAsSource` method.
+   *
+   * @return A response with a streamed body.
+   */
+  def stream(): Future[WSResponse]
+
+  /**
+   * Gets the size of the request body.
+   *
+   * @return The size of the request body or None if the body is streamed.
+   */
+  def bodySize: Option[Long]
+
+  /**
+   * Gets the key which identifies identical requests.
+   *
+   * @return The key which identifies identical requests.
+   */
+  def key: PlayRequest.Key
 }
 
 /**
@@ -170,6 +372,32 @@ trait PlayRequest {
 object PlayRequest {
   import ApiParams._
 
+  /**
+   * The key which identifies identical requests.
+   *
+   * @param method      The HTTP request method.
+   * @param url         The URL of the request.
+   * @param queryString The query string params.
+   * @param headers     The headers.
+   * @param auth        The authentication.
+   */
+  case class Key(
+    method: String,
+    url: String,
+    queryString: Map[String, Seq[String]],
+    headers: Map[String, Seq[String]],
+    auth: Option[(String, String, WSAuthScheme)])
+
+  /**
+   * Writes an already encoded Json body with the Json content type.
+   */
+  private val EncodedJsonWritable: BodyWritable[ByteString] = BodyWritable(InMemoryBody, "application/json")
+
+  /**
+   * Writes a CBOR encoded Json body with the CBOR content type.
+   */
+  private val CborWritable: BodyWritable[ByteString] = BodyWritable(InMemoryBody, MediaTypes.Cbor)
+
   /**
    * An implicits that allows to convert an API request into a Play request.
    *
@@ -180,31 +408,37 @@ object PlayRequest {
     /**
      * Converts an API request to a Play request.
      *
-     * @param config   The global API config.
-     * @param wsClient The Play WS client.
+     * @param config    The global API config.
+     * @param wsClient  The Play WS client.
+     * @param negotiate Indicates if binary media types should be negotiated for the response. Streamed responses
+     *                  must be Json, so they will not be negotiated.
      * @return A Play request.
      */
-    def toPlay(config: ApiConfig, wsClient: WSClient): PlayRequest = new PlayRequest {
+    def toPlay(config: ApiConfig, wsClient: WSClient, negotiate: Boolean = true): PlayRequest = new PlayRequest {
 
       /**
-       * A request pipeline.
+       * The request template.
        */
-      type Pipeline = PartialFunction[WSRequest, WSRequest]
-
-      /**
-       * The request pipeline.
-       */
-      private val requestPipeline =
-        requestTimeoutPipeline andThen
-          requestMethodPipeline andThen
-          authenticationPipeline andThen
-          headerPipeline andThen
-          queryPipeline
+      private val template = apiRequest.template
 
       /**
        * The complete configured request to execute.
+       *
+       * The request passes through all pipeline steps in order. The steps are plain methods, so that no function
+       * objects must be composed for every request.
        */
-      private val request = requestPipeline(wsClient.url(url))
+      private val request =
+        queryPipeline(
+          headerPipeline(
+            acceptPipeline(
+              authenticationPipeline(
+                requestMethodPipeline(
+                  requestTimeoutPipeline(wsClient.url(url))
+                )
+              )
+            )
+          )
+        )
 
       /**
        * Executes the request.
@@ -213,6 +447,41 @@ object PlayRequest {
        */
       def execute(): Future[WSResponse] = request.execute()
 
+      /**
+       * Executes the request with additional headers.
+       *
+       * @param headers The headers to add, e.g. the validators of a conditional request.
+       * @return A response.
+       */
+      def executeConditional(headers: Seq[(String, String)]): Future[WSResponse] = {
+        request.addHttpHeaders(headers: _*).execute()
+      }
+
+      /**
+       * Executes the request and streams the response body.
+       *
+       * @return A response with a streamed body.
+       */
+      def stream(): Future[WSResponse] = request.stream()
+
+      /**
+       * Gets the size of the request body.
+       *
+       * @return The size of the request body or None if the body is streamed.
+       */
+      def bodySize: Option[Long] = request.body match {
+        case InMemoryBody(bytes) => Some(bytes.size.toLong)
+        case EmptyBody           => Some(0L)
+        case _                   => None
+      }
+
+      /**
+       * Gets the key which identifies identical requests.
+       *
+       * @return The key which identifies identical requests.
+       */
+      def key: Key = Key(request.method, request.url, request.queryString, request.headers, request.auth)
+
       /**
        * Builds the URL to which the request should be sent.
        *
@@ -224,14 +493,12 @@ object PlayRequest {
        * @return The URL to which the request should be sent.
        */
       private def url: String = {
-        val base = apiRequest.config.url.getOrElse(config.url.getOrElse(apiRequest.basePath))
-        val path = apiRequest.operationPath.replaceAll("\\{format\\}", "json")
-        val pathParams = apiRequest.pathParams.normalize
-          .foldLeft(path) {
-            case (p, (name, value)) => p.replaceAll(s"\\{$name\\}", String.valueOf(value))
-          }
+        val base = apiRequest.config.url.getOrElse(config.url.getOrElse(template.basePath))
+        val pathParams = apiRequest.pathParams.normalize.map {
+          case (name, value) => name -> String.valueOf(value)
+        }
 
-        base.stripSuffix("/") + pathParams
+        template.operationPath.render(base.stripSuffix("/"), (pathParams ++ apiRequest.encodedPathParams).toMap)
       }
 
       /**
@@ -243,92 +510,140 @@ object PlayRequest {
        * - PATCH
        * - DELETE
        */
-      private def requestMethodPipeline: Pipeline = {
-        case wsRequest =>
-          apiRequest.method match {
-            case RequestMethod.POST | RequestMethod.PUT | RequestMethod.PATCH | RequestMethod.DELETE =>
-              bodyPipeline(wsRequest.withMethod(apiRequest.method.name))
-            case _ => wsRequest.withMethod(apiRequest.method.name)
-          }
+      private def requestMethodPipeline(wsRequest: WSRequest): WSRequest = {
+        template.method match {
+          case RequestMethod.POST | RequestMethod.PUT | RequestMethod.PATCH | RequestMethod.DELETE =>
+            compressionPipeline(bodyPipeline(wsRequest.withMethod(template.method.name)))
+          case _ => wsRequest.withMethod(template.method.name)
+        }
       }
 
       /**
        * Adds the request timeout.
        */
-      private def requestTimeoutPipeline: Pipeline = {
-        case wsRequest =>
-          wsRequest.withRequestTimeout(apiRequest.config.timeout.getOrElse(config.requestTimeout))
+      private def requestTimeoutPipeline(wsRequest: WSRequest): WSRequest = {
+        wsRequest.withRequestTimeout(apiRequest.config.timeout.getOrElse(config.requestTimeout))
       }
 
       /**
        * Ads the body.
        *
-       * First it checks the `bodyParam` of the API request and then it checks the form part of the request.
+       * First it checks the `bodyParam` of the API request and then it checks the form part of the request. Json
+       * bodies will be sent as CBOR if the operation consumes it.
        */
-      private def bodyPipeline: Pipeline = {
-        case wsRequest =>
-          apiRequest.bodyParam.normalize match {
-            case file: ApiFile         => wsRequest.withBody(StreamConverters.fromInputStream(() => file.content))
-            case NumericValue(numeric) => wsRequest.withBody(numeric.value)
-            case string: String        => wsRequest.withBody(String.valueOf(string))
-            case json: JsValue         => wsRequest.withBody(json)
-            case _ =>
-              val contentType = apiRequest.contentType.flatMap(MediaType.parse.apply).map(mt => mt.mediaType + "/" + mt.mediaSubType)
-              apiRequest.formParams.normalize match {
-                case p if p.isEmpty => wsRequest
-                case p if contentType.contains("multipart/form-data") =>
-                  val body = p.foldLeft(List[Part[Source[ByteString, Any]]]()) {
-                    case (parts, (key, value)) =>
-                      value match {
-                        case f: ApiFile => parts :+ FilePart(key, f.name, None, StreamConverters.fromInputStream(() => f.content))
-                        case _          => parts :+ DataPart(key, String.valueOf(value))
-                      }
-                  }
-
-                  wsRequest.withBody(Source(body))(WSBodyWritables.bodyWritableOf_Multipart)
-                case p => // default: application/x-www-form-urlencoded
-                  wsRequest.withBody(p.toMap.mapValues(v => Seq(String.valueOf(v))))
-              }
+      private def bodyPipeline(wsRequest: WSRequest): WSRequest = {
+        apiRequest.bodyParam.normalize match {
+          case file: ApiFile         => wsRequest.withBody(file.source)
+          case NumericValue(numeric) => wsRequest.withBody(numeric.value)
+          case string: String        => wsRequest.withBody(String.valueOf(string))
+          case json: JsValue if template.consumes.contains(MediaTypes.Cbor) =>
+            wsRequest.withBody(Cbor.toBytes(json))(CborWritable)
+          case json: JsValue         => wsRequest.withBody(json)
+          case EncodedJsonBody(json) => wsRequest.withBody(json)(EncodedJsonWritable)
+          case _ =>
+            apiRequest.formParams.normalize match {
+              case p if p.isEmpty => wsRequest
+              case p if template.mediaType.contains("multipart/form-data") =>
+                val body: Seq[Part[Source[ByteString, Any]]] = p.map {
+                  case (key, f: ApiFile) => FilePart(key, f.name, None, f.source)
+                  case (key, value)      => DataPart(key, String.valueOf(value))
+                }
+
+                wsRequest.withBody(Source(body))(WSBodyWritables.bodyWritableOf_Multipart)
+              case p => // default: application/x-www-form-urlencoded
+                wsRequest.withBody(p.toMap.mapValues(v => Seq(String.valueOf(v))))
+            }
+        }
+      }
+
+      /**
+       * Compresses the body.
+       *
+       * The compression of the request config has precedence over the compression of the operation. Only bodies
+       * which are held in memory and which aren't smaller than the minimum size will be compressed.
+       */
+      private def compressionPipeline(wsRequest: WSRequest): WSRequest = {
+        apiRequest.config.compression.orElse(template.compression) match {
+          case Some(compression) => wsRequest.body match {
+            case InMemoryBody(bytes) if bytes.size >= compression.minSize =>
+              val writable = BodyWritable[ByteString](InMemoryBody, wsRequest.contentType.getOrElse("application/octet-stream"))
+              wsRequest
+                .withBody(compression.encoding.encode(bytes))(writable)
+                .addHttpHeaders("Content-Encoding" -> compression.encoding.name)
+            case _ => wsRequest
           }
+          case None => wsRequest
+        }
       }
 
       /**
        * Adds the authentication.
        */
-      private def authenticationPipeline: Pipeline = {
-        case wsRequest =>
-          apiRequest.credentials.foldLeft(wsRequest) {
-            case (req, BasicCredentials(username, password)) =>
-              req.withAuth(username, password, WSAuthScheme.BASIC)
-            case (req, ApiKeyCredentials(keyValue, keyName, ApiKeyLocations.HEADER)) =>
-              req.addHttpHeaders(keyName -> keyValue.value)
-            case (req, _) => req
+      private def authenticationPipeline(wsRequest: WSRequest): WSRequest = {
+        apiRequest.credentials.foldLeft(wsRequest) {
+          case (req, BasicCredentials(username, password)) =>
+            req.withAuth(username, password, WSAuthScheme.BASIC)
+          case (req, ApiKeyCredentials(keyValue, keyName, ApiKeyLocations.HEADER)) =>
+            req.addHttpHeaders(keyName -> keyValue.value)
+          case (req, _) => req
+        }
+      }
+
+      /**
+       * Adds the `Accept` header, which prefers the binary media types the operation produces and the client can
+       * decode.
+       */
+      private def acceptPipeline(wsRequest: WSRequest): WSRequest = {
+        if (!negotiate || template.produces.isEmpty) {
+          wsRequest
+        } else {
+          ApiCodecs.accept(template, config.codecs) match {
+            case Some(accept) => wsRequest.addHttpHeaders("Accept" -> accept)
+            case None         => wsRequest
           }
+        }
       }
 
       /**
        * Adds the headers.
+       *
+       * The typed header params are already encoded, so that they will be added as they are.
        */
-      private def headerPipeline: Pipeline = {
-        case wsRequest =>
-          wsRequest.addHttpHeaders(apiRequest.headerParams.normalize.map {
-            case (k, v) =>
-              k -> String.valueOf(v)
-          }: _*)
+      private def headerPipeline(wsRequest: WSRequest): WSRequest = {
+        val headerParams = apiRequest.headerParams.normalize.map {
+          case (k, v) =>
+            k -> String.valueOf(v)
+        }
+
+        wsRequest.addHttpHeaders(concat(headerParams, apiRequest.encodedHeaderParams): _*)
       }
 
       /**
        * Adds the query params.
+       *
+       * The typed query params are already encoded, so that they will be added as they are.
+       */
+      private def queryPipeline(wsRequest: WSRequest): WSRequest = {
+        val queryParams = apiRequest.credentials.foldLeft(apiRequest.queryParams) {
+          case (params, ApiKeyCredentials(key, keyName, ApiKeyLocations.QUERY)) =>
+            params + (keyName -> key.value)
+          case (params, _) => params
+        }.normalize.map { case (k, v) => k -> String.valueOf(v) }
+
+        wsRequest.addQueryStringParameters(concat(queryParams, apiRequest.encodedQueryParams): _*)
+      }
+
+      /**
+       * Concatenates the normalized params with the encoded params.
+       *
+       * Most requests of generated operations only have encoded params, which will be used without copying them.
+       *
+       * @param normalized The normalized params.
+       * @param encoded    The encoded params.
+       * @return All params.
        */
-      private def queryPipeline: Pipeline = {
-        case wsRequest =>
-          val queryParams = apiRequest.credentials.foldLeft(apiRequest.queryParams) {
-            case (params, ApiKeyCredentials(key, keyName, ApiKeyLocations.QUERY)) =>
-              params + (keyName -> key.value)
-            case (params, _) => params
-          }.normalize.map { case (k, v) => k -> String.valueOf(v) }
-
-          wsRequest.addQueryStringParameters(queryParams.toList: _*)
+      private def concat(normalized: Seq[(String, String)], encoded: EncodedParams): Seq[(String, String)] = {
+        if (normalized.isEmpty) encoded else normalized ++ encoded
       }
     }
   }
@@ -19,30 +19,118 @@
  */
 package com.mohiva.swagger.codegen.core
 
-import java.io.ByteArrayInputStream
-import java.util.UUID
-import javax.inject.Inject
+import java.util.Locale
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.{ ConcurrentHashMap, TimeUnit, TimeoutException }
+import javax.inject.{ Inject, Singleton }
 
+import akka.NotUsed
+import akka.stream.Materializer
+import akka.stream.scaladsl.{ Compression, JsonFraming, Source }
+import akka.util.ByteString
 import com.mohiva.swagger.codegen.core.ApiInvoker._
 import com.mohiva.swagger.codegen.core.ApiRequest._
 import com.mohiva.swagger.codegen.core.PlayRequest._
+import play.api.libs.json.{ JsError, JsResultException, JsSuccess, Json, Reads }
+import org.HdrHistogram.ConcurrentHistogram
+import play.api.inject.ApplicationLifecycle
 import play.api.libs.ws._
 
-import scala.concurrent.{ ExecutionContext, Future }
-import scala.reflect.runtime.universe.{ Type, TypeTag, typeOf }
+import scala.collection.JavaConverters._
+import scala.concurrent.duration._
+import scala.concurrent.{ ExecutionContext, Future, Promise, blocking }
+import scala.reflect.ClassTag
+import scala.util.control.NonFatal
 import scala.util.{ Failure, Success, Try }
 
 /**
  * The API invoker.
  *
- * @param config   The API config.
- * @param wsClient The Play WS client.
+ * If the transport settings of the API are configured, the invoker sends its requests over a dedicated WS client,
+ * which it creates with [[ApiTransport.client]]. Otherwise it sends its requests over the shared WS client.
+ *
+ * The invoker is a singleton, so that all injected APIs share its limiters, its retry budget, its circuit breakers
+ * and its dedicated WS client. An injected invoker closes the dedicated WS client when the application stops, an
+ * invoker which was created by hand must be closed with [[ApiInvoker#close]] on shutdown.
+ *
+ * @param config         The API config.
+ * @param sharedWsClient The shared Play WS client.
+ * @param materializer   The materializer used to stream the bodies of a dedicated WS client.
  */
-class ApiInvoker @Inject() (config: ApiConfig, wsClient: WSClient) {
+@Singleton
+class ApiInvoker(config: ApiConfig, sharedWsClient: WSClient)(implicit materializer: Materializer) {
+
+  /**
+   * Creates the invoker with dependency injection and closes it when the application stops.
+   *
+   * @param config         The API config.
+   * @param sharedWsClient The shared Play WS client.
+   * @param materializer   The materializer used to stream the bodies of a dedicated WS client.
+   * @param lifecycle      The lifecycle of the application.
+   */
+  @Inject() def this(config: ApiConfig, sharedWsClient: WSClient, materializer: Materializer, lifecycle: ApplicationLifecycle) = {
+    this(config, sharedWsClient)(materializer)
+    lifecycle.addStopHook(() => Future.successful(close()))
+  }
+
+  /**
+   * The dedicated WS client of the API, if its transport settings are configured.
+   */
+  private val dedicatedWsClient: Option[WSClient] = config.transport.map(ApiTransport.client)
+
+  /**
+   * The WS client over which the requests will be sent, which is either the dedicated or the shared WS client.
+   */
+  val wsClient: WSClient = dedicatedWsClient.getOrElse(sharedWsClient)
+
+  /**
+   * The concurrency limiters per API and per operation.
+   */
+  private val limiters = new ConcurrentHashMap[String, AdaptiveLimiter]()
+
+  /**
+   * The in-flight responses of coalesced requests.
+   */
+  private val inFlight = new ConcurrentHashMap[PlayRequest.Key, Future[WSResponse]]()
+
+  /**
+   * The balance of the retry budget, which is shared by all operations.
+   */
+  private val retryBudget = new RetryBudgetBalance(config.retryBudget)
+
+  /**
+   * The observed latencies per operation, used to calculate the delay of hedged requests.
+   */
+  private val latencies = new ConcurrentHashMap[String, ConcurrentHistogram]()
+
+  /**
+   * The circuit breakers per base URL or per operation.
+   */
+  private val circuitBreakers = new ConcurrentHashMap[String, CircuitBreaker]()
+
+  /**
+   * Closes the dedicated WS client of the API, if any.
+   *
+   * The shared WS client will not be closed, because it's owned by the application.
+   */
+  def close(): Unit = dedicatedWsClient.foreach(_.close())
+
+  /**
+   * Creates snapshots of the circuit breakers.
+   *
+   * @return The snapshots per circuit breaker name.
+   */
+  def circuitBreakerSnapshot(): Map[String, CircuitBreakerSnapshot] = {
+    circuitBreakers.asScala.map { case (name, breaker) => name -> breaker.snapshot() }.toMap
+  }
 
   /**
    * Executes the request and returns a response.
    *
+   * If the executors of the API are configured, large response bodies will be decoded on their decode pool instead
+   * of the given execution context. If the circuit breaker of the request is open, the request fails immediately
+   * with an [[ApiCircuitOpenError]].
+   *
    * @param apiRequest The request to send.
    * @param ec         The execution context.
    * @tparam C The type of the response content.
@@ -53,12 +141,610 @@ class ApiInvoker @Inject() (config: ApiConfig, wsClient: WSClient) {
     ec: ExecutionContext
   ): Future[ApiResponse[C]] = {
 
-    val playRequest = apiRequest.toPlay(config, wsClient)
-    playRequest.execute().flatMap { response =>
-      Future.fromTry(parseResponse(apiRequest, response))
+    protect(apiRequest) { guard =>
+      limit(apiRequest) {
+        val startTime = System.nanoTime()
+        val playRequest = apiRequest.toPlay(config, wsClient)
+        val sendTime = System.nanoTime()
+        observe(apiRequest, playRequest, guard(retry(apiRequest, playRequest)), startTime, sendTime) { response =>
+          config.executors match {
+            case Some(executors) if executors.decodes(contentLength(response)) =>
+              Future(parseResponse[C](apiRequest, response))(executors.decode).flatMap(Future.fromTry)
+            case _ =>
+              Future.fromTry(parseResponse(apiRequest, response))
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Executes the request and returns a response whose content streams the response body.
+   *
+   * The body of a success response will not be buffered, so that large payloads can be consumed incrementally
+   * with back-pressure. A gzip or deflate encoded body will be decompressed while it's streamed. Error responses
+   * will be parsed with their registered decoders, as with the `execute` method, which buffers their body. This
+   * blocks, so it runs on the blocking executor of the API if it's configured. If the concurrency is limited, the
+   * permit will be released as soon as the response headers were received.
+   *
+   * @param apiRequest The request to send.
+   * @param ec         The execution context.
+   * @return The response.
+   */
+  def stream(apiRequest: ApiRequest)(
+    implicit
+    ec: ExecutionContext
+  ): Future[ApiResponse[Source[ByteString, Any]]] = {
+
+    protect(apiRequest) { guard =>
+      limit(apiRequest) {
+        val startTime = System.nanoTime()
+        val playRequest = apiRequest.toPlay(config, wsClient, negotiate = false)
+        val sendTime = System.nanoTime()
+        observe(apiRequest, playRequest, guard(playRequest.stream()), startTime, sendTime) { response =>
+          registeredResponse(apiRequest, response) match {
+            case Some((ResponseState.Success, _)) =>
+              Future.successful(ApiResponse(response.status, decompressedBody(response), response.headers))
+            case _ =>
+              val blockingContext = config.executors.map(_.blocking).getOrElse(ec)
+              Future(blocking(parseResponse[Source[ByteString, Any]](apiRequest, response)))(blockingContext)
+                .flatMap(Future.fromTry)
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Executes a request which responds with a Json array and returns a response whose content decodes the
+   * array elements one at a time.
+   *
+   * The elements will be framed from the streamed response body and decoded with the given `Reads`, so that
+   * neither the whole body nor the whole array must be held in memory. An element which cannot be decoded fails
+   * the source with an [[ApiError]].
+   *
+   * @param apiRequest The request to send.
+   * @param ec         The execution context.
+   * @tparam T The type of the array elements.
+   * @return The response.
+   */
+  def streamJson[T: Reads: ClassTag](apiRequest: ApiRequest)(
+    implicit
+    ec: ExecutionContext
+  ): Future[ApiResponse[Source[T, Any]]] = {
+
+    stream(apiRequest).map { response =>
+      response.copy(content = response.content
+        .via(JsonFraming.objectScanner(config.maximumJsonObjectLength))
+        .map { bytes =>
+          Json.parse(bytes.iterator.asInputStream).validate[T] match {
+            case JsSuccess(value, _) => value
+            case JsError(errors) =>
+              val message = ResponseSerializationError.format(bytes.utf8String, implicitly[ClassTag[T]].runtimeClass)
+              throw ApiError(response.code, message, None, JsResultException(errors), response.headers)
+          }
+        }
+      )
+    }
+  }
+
+  /**
+   * Executes a batch of requests and streams their results.
+   *
+   * At most `parallelism` requests of the batch will be in flight at the same time, all of them sharing the
+   * connection pool of the WS client. The results will be emitted in the order of the requests, as soon as a
+   * result and all results before it are available, so that neither the requests nor the results of a large
+   * batch must be held in memory at once. A request which fails doesn't fail the batch, instead its result is a
+   * `Failure`. If a deadline is given, the requests which didn't complete within the deadline fail with a
+   * `TimeoutException` and the requests which weren't sent before the deadline will not be sent at all.
+   *
+   * The requests will be sent when the returned source gets materialized, which also starts the deadline. The
+   * timeout of a request will be cancelled as soon as it completes, so that it doesn't keep the result reachable.
+   *
+   * @param apiRequests The requests to send.
+   * @param parallelism The maximum number of requests in flight.
+   * @param deadline    The optional deadline of the whole batch.
+   * @param ec          The execution context.
+   * @tparam C The type of the response content.
+   * @return A source which emits the results in the order of the requests.
+   */
+  def executeBatch[C](
+    apiRequests: Iterable[ApiRequest],
+    parallelism: Int = DefaultBatchParallelism,
+    deadline: Option[FiniteDuration] = None
+  )(
+    implicit
+    ec: ExecutionContext
+  ): Source[Try[ApiResponse[C]], NotUsed] = {
+    require(parallelism > 0, "The parallelism of a batch must be positive")
+
+    Source.single(()).flatMapConcat { _ =>
+      val deadlineNanos = deadline.map(System.nanoTime() + _.toNanos)
+      def timeout = new TimeoutException(BatchDeadlineError.format(deadline.getOrElse(Duration.Zero)))
+      Source.fromIterator(() => apiRequests.iterator).mapAsync(parallelism) { apiRequest =>
+        val result = deadlineNanos.map(_ - System.nanoTime()) match {
+          case None                              => execute[C](apiRequest)
+          case Some(remaining) if remaining <= 0 => Future.failed(timeout)
+          case Some(remaining) =>
+            val promise = Promise[ApiResponse[C]]()
+            val timer = ApiScheduler.executor.schedule(new Runnable {
+              override def run(): Unit = promise.tryFailure(timeout)
+            }, remaining, TimeUnit.NANOSECONDS)
+            execute[C](apiRequest).onComplete { result =>
+              timer.cancel(false)
+              promise.tryComplete(result)
+            }
+            promise.future
+        }
+        result.map[Try[ApiResponse[C]]](Success(_)).recover { case NonFatal(e) => Failure(e) }
+      }
+    }
+  }
+
+  /**
+   * Gets the streamed body of a response, which will be decompressed on the fly if it's gzip or deflate encoded.
+   *
+   * The WS client decompresses the body itself if its compression is enabled, in which case the response has no
+   * `Content-Encoding` header anymore.
+   *
+   * @param response The streamed response.
+   * @return The decompressed body.
+   */
+  private def decompressedBody(response: WSResponse): Source[ByteString, Any] = {
+    response.header("Content-Encoding").map(_.trim.toLowerCase(Locale.ROOT)) match {
+      case Some("gzip")    => response.bodyAsSource.via(Compression.gunzip())
+      case Some("deflate") => response.bodyAsSource.via(Compression.inflate())
+      case _               => response.bodyAsSource
+    }
+  }
+
+  /**
+   * Executes a request within the circuit breaker of its base URL or its operation.
+   *
+   * The breaker will be asked for permission before the request acquires its concurrency permits, so that an open
+   * breaker rejects the request without waiting. The given function must pass the response of the request through
+   * the guard, which records its outcome in the breaker. Requests which weren't sent don't count.
+   *
+   * @param apiRequest The API request.
+   * @param f          Executes the request with the guard.
+   * @param ec         The execution context.
+   * @tparam T The type of the result.
+   * @return The result, or a failed future with an [[ApiCircuitOpenError]] if the breaker is open.
+   */
+  private def protect[T](apiRequest: ApiRequest)(f: (Future[WSResponse] => Future[WSResponse]) => Future[T])(
+    implicit
+    ec: ExecutionContext
+  ): Future[T] = {
+    config.circuitBreakers match {
+      case None => f(identity)
+      case Some(breakers) =>
+        circuitBreaker(apiRequest, breakers).acquire().flatMap { permit =>
+          val sent = new AtomicBoolean(false)
+          val guard = (response: Future[WSResponse]) => {
+            val start = System.nanoTime()
+            sent.set(true)
+            response.andThen {
+              case r => permit.release(r.toOption.map(_.status), System.nanoTime() - start)
+            }
+          }
+          val result = try f(guard) catch { case NonFatal(e) => Future.failed(e) }
+          result.onComplete(_ => if (!sent.get) permit.cancel())
+          result
+        }
+    }
+  }
+
+  /**
+   * Gets the circuit breaker of a request or creates it.
+   *
+   * Every base URL has its own breaker. Operations get their own breaker if the breakers are configured per
+   * operation or if the operation has its own settings.
+   *
+   * @param apiRequest The API request.
+   * @param breakers   The circuit breaker config.
+   * @return The circuit breaker.
+   */
+  private def circuitBreaker(apiRequest: ApiRequest, breakers: CircuitBreakers): CircuitBreaker = {
+    val template = apiRequest.template
+    val baseUrl = apiRequest.config.url.getOrElse(config.url.getOrElse(template.basePath)).stripSuffix("/")
+    val operation = baseUrl + "#" + template.api + "." + template.operationId
+    val (name, settings) = breakers.operations.get(template.operationId) match {
+      case Some(settings)                => (operation, settings)
+      case None if breakers.perOperation => (operation, breakers.settings)
+      case None                          => (baseUrl, breakers.settings)
+    }
+
+    Option(circuitBreakers.get(name)).getOrElse {
+      val breaker = new CircuitBreaker(name, settings, config.listener)
+      Option(circuitBreakers.putIfAbsent(name, breaker)).getOrElse(breaker)
+    }
+  }
+
+  /**
+   * Executes a request within the concurrency limits of its API and its operation.
+   *
+   * @param apiRequest The API request.
+   * @param f          Executes the request.
+   * @param ec         The execution context.
+   * @tparam T The type of the result.
+   * @return The result, or a failed future with an [[ApiLimitExceededError]] if a limiter is saturated.
+   */
+  private def limit[T](apiRequest: ApiRequest)(f: => Future[T])(
+    implicit
+    ec: ExecutionContext
+  ): Future[T] = {
+    config.limits match {
+      case None => f
+      case Some(limits) =>
+        val (apiLimiter, operationLimiter) = limiters(apiRequest, limits)
+        operationLimiter.acquire().flatMap { operationPermit =>
+          apiLimiter.acquire().recoverWith {
+            case e =>
+              operationPermit.cancel()
+              Future.failed(e)
+          }.flatMap { apiPermit =>
+            val result = try f catch { case NonFatal(e) => Future.failed(e) }
+            result.onComplete { r =>
+              val dropped = r match {
+                case Success(_)              => false
+                case Failure(e: ApiError[_]) => e.code == 429 || e.code == 503
+                case Failure(_)              => true
+              }
+              apiPermit.release(dropped)
+              operationPermit.release(dropped)
+            }
+            result
+          }
+        }
+    }
+  }
+
+  /**
+   * Acquires the permits for a hedged request if they are available without waiting.
+   *
+   * A hedged request is an additional request, so it must be covered by the concurrency limits like the first
+   * request. It won't be sent if it would have to wait for a permit.
+   *
+   * @param apiRequest The API request.
+   * @return The permits of the API and the operation, or None if a limiter is saturated.
+   */
+  private def hedgePermits(apiRequest: ApiRequest): Option[Seq[AdaptiveLimiter#Permit]] = {
+    config.limits match {
+      case None => Some(Nil)
+      case Some(limits) =>
+        val (apiLimiter, operationLimiter) = limiters(apiRequest, limits)
+        operationLimiter.tryAcquire().flatMap { operationPermit =>
+          apiLimiter.tryAcquire().map(apiPermit => Seq(apiPermit, operationPermit)).orElse {
+            operationPermit.cancel()
+            None
+          }
+        }
+    }
+  }
+
+  /**
+   * Gets the limiters of the API and the operation of a request.
+   *
+   * @param apiRequest The API request.
+   * @param limits     The concurrency limits.
+   * @return The limiters of the API and the operation.
+   */
+  private def limiters(apiRequest: ApiRequest, limits: ConcurrencyLimits): (AdaptiveLimiter, AdaptiveLimiter) = {
+    val template = apiRequest.template
+    val apiLimiter = limiter(template.api, limits.api)
+    val operationLimiter = limiter(template.api + "." + template.operationId, limits.operations.getOrElse(template.operationId, limits.operation))
+    (apiLimiter, operationLimiter)
+  }
+
+  /**
+   * Gets the limiter with the given name or creates it.
+   *
+   * @param name     The name of the limiter.
+   * @param settings The settings of the limiter.
+   * @return The limiter.
+   */
+  private def limiter(name: String, settings: LimiterSettings): AdaptiveLimiter = {
+    Option(limiters.get(name)).getOrElse {
+      val limiter = new AdaptiveLimiter(name, settings)
+      Option(limiters.putIfAbsent(name, limiter)).getOrElse(limiter)
+    }
+  }
+
+  /**
+   * Sends the request with the retry policy of the request.
+   *
+   * The request config has precedence over the policy of the operation, which has precedence over the global
+   * policy. Only requests with an idempotent method and a body which can be sent again will be retried, and
+   * every retry or hedged request must be covered by the retry budget.
+   *
+   * @param apiRequest  The API request.
+   * @param playRequest The Play request.
+   * @param ec          The execution context.
+   * @return The response.
+   */
+  private def retry(apiRequest: ApiRequest, playRequest: PlayRequest)(
+    implicit
+    ec: ExecutionContext
+  ): Future[WSResponse] = {
+    apiRequest.config.retry.orElse(apiRequest.template.retry).orElse(config.retry) match {
+      case Some(policy) if policy.retryMethods.contains(apiRequest.template.method) && playRequest.bodySize.isDefined =>
+        retryBudget.deposit()
+        def attempt(n: Int): Future[WSResponse] = {
+          hedge(apiRequest, playRequest, policy)
+            .map(response => Success(response): Try[WSResponse])
+            .recover { case NonFatal(e) => Failure(e) }
+            .flatMap {
+              case Success(r) if n < policy.maxAttempts && policy.retryStatusCodes.contains(r.status) && retryBudget.tryWithdraw() =>
+                ApiScheduler.after(policy.backoff(n)).flatMap(_ => attempt(n + 1))
+              case Failure(_) if n < policy.maxAttempts && retryBudget.tryWithdraw() =>
+                ApiScheduler.after(policy.backoff(n)).flatMap(_ => attempt(n + 1))
+              case result =>
+                Future.fromTry(result)
+            }
+        }
+        attempt(1)
+      case _ =>
+        send(apiRequest, playRequest)
+    }
+  }
+
+  /**
+   * Sends the request and hedges it if the policy allows it.
+   *
+   * A GET request will be sent a second time, if no response was received after the configured percentile of the
+   * observed latencies of the operation. The first successful response wins. A failure, or a response with a retry
+   * status code, completes the result only if all sent requests have failed, so that a fast failure of the first
+   * request doesn't discard a hedged request which is still in flight. The latencies will be observed only after a
+   * minimum number of responses was received. The hedged request holds its own permits of the concurrency limits
+   * and won't be sent if they aren't available.
+   *
+   * @param apiRequest  The API request.
+   * @param playRequest The Play request.
+   * @param policy      The retry policy.
+   * @param ec          The execution context.
+   * @return The response.
+   */
+  private def hedge(apiRequest: ApiRequest, playRequest: PlayRequest, policy: RetryPolicy)(
+    implicit
+    ec: ExecutionContext
+  ): Future[WSResponse] = {
+    if (policy.hedge && apiRequest.template.method == RequestMethod.GET) {
+      val template = apiRequest.template
+      val histogram = latency(template.api + "." + template.operationId)
+      def timed(): Future[WSResponse] = {
+        val start = System.nanoTime()
+        val response = try send(apiRequest, playRequest) catch { case NonFatal(e) => Future.failed(e) }
+        response.foreach(_ => histogram.recordValue(math.max(1L, System.nanoTime() - start)))
+        response
+      }
+
+      val first = timed()
+      if (histogram.getTotalCount < MinHedgeSamples) {
+        first
+      } else {
+        val delay = histogram.getValueAtPercentile(policy.hedgePercentile).nanos
+        val promise = Promise[WSResponse]()
+        var inFlight = 1
+        def complete(result: Try[WSResponse]): Unit = {
+          val last = promise.synchronized {
+            inFlight -= 1
+            inFlight == 0
+          }
+          val failed = result match {
+            case Success(response) => policy.retryStatusCodes.contains(response.status)
+            case Failure(_)        => true
+          }
+          if (!failed || last) {
+            promise.tryComplete(result)
+          }
+        }
+
+        val task = ApiScheduler.executor.schedule(new Runnable {
+          override def run(): Unit = {
+            val permits = promise.synchronized {
+              if (inFlight == 0) None else hedgePermits(apiRequest).filter { permits =>
+                retryBudget.tryWithdraw() || { permits.foreach(_.cancel()); false }
+              }.map { permits =>
+                inFlight += 1
+                permits
+              }
+            }
+            permits.foreach { permits =>
+              timed().onComplete { result =>
+                val dropped = result match {
+                  case Success(response) => response.status == 429 || response.status == 503
+                  case Failure(_)        => true
+                }
+                permits.foreach(_.release(dropped))
+                complete(result)
+              }
+            }
+          }
+        }, delay.toNanos, TimeUnit.NANOSECONDS)
+        first.onComplete { result =>
+          task.cancel(false)
+          complete(result)
+        }
+        promise.future
+      }
+    } else {
+      send(apiRequest, playRequest)
+    }
+  }
+
+  /**
+   * Gets the latency histogram of an operation or creates it.
+   *
+   * @param name The name of the operation.
+   * @return The latency histogram.
+   */
+  private def latency(name: String): ConcurrentHistogram = {
+    Option(latencies.get(name)).getOrElse {
+      val histogram = new ConcurrentHistogram(2)
+      Option(latencies.putIfAbsent(name, histogram)).getOrElse(histogram)
+    }
+  }
+
+  /**
+   * Sends the request.
+   *
+   * The request passes through the response cache, if it's enabled for the request, and through the request
+   * coalescing.
+   *
+   * @param apiRequest  The API request.
+   * @param playRequest The Play request.
+   * @param ec          The execution context.
+   * @return The response.
+   */
+  private def send(apiRequest: ApiRequest, playRequest: PlayRequest)(
+    implicit
+    ec: ExecutionContext
+  ): Future[WSResponse] = {
+    config.cache.filter(cache => useCache(apiRequest, cache)) match {
+      case Some(cache) => cache.execute(playRequest)(coalesce(apiRequest, playRequest))
+      case None        => coalesce(apiRequest, playRequest)
+    }
+  }
+
+  /**
+   * Indicates if the response cache should be used for a request.
+   *
+   * Only GET requests will be cached. The request config has precedence over the global cache config.
+   *
+   * @param apiRequest The API request.
+   * @param cache      The response cache.
+   * @return True if the response cache should be used for the request, false otherwise.
+   */
+  private def useCache(apiRequest: ApiRequest, cache: ApiCache): Boolean = {
+    apiRequest.template.method == RequestMethod.GET &&
+      apiRequest.config.cache.getOrElse(cache.isEnabledFor(apiRequest.template.operationId))
+  }
+
+  /**
+   * Executes the request.
+   *
+   * If the operation coalesces requests, then a request without a body shares the response of an identical
+   * request which is already in flight.
+   *
+   * @param apiRequest  The API request.
+   * @param playRequest The Play request.
+   * @param ec          The execution context.
+   * @return The response.
+   */
+  private def coalesce(apiRequest: ApiRequest, playRequest: PlayRequest)(
+    implicit
+    ec: ExecutionContext
+  ): Future[WSResponse] = {
+    if (apiRequest.template.coalesce && playRequest.bodySize.contains(0L)) {
+      val key = playRequest.key
+      val promise = Promise[WSResponse]()
+      val response = promise.future
+      Option(inFlight.putIfAbsent(key, response)).getOrElse {
+        response.onComplete(_ => inFlight.remove(key, response))
+        val execution = try playRequest.execute() catch { case NonFatal(e) => Future.failed(e) }
+        promise.completeWith(execution).future
+      }
+    } else {
+      playRequest.execute()
+    }
+  }
+
+  /**
+   * Parses the response and notifies the listener about the metrics of the request.
+   *
+   * @param apiRequest  The API request.
+   * @param playRequest The Play request.
+   * @param response    The response of the Play request.
+   * @param startTime   The time at which the building of the request started.
+   * @param sendTime    The time at which the request was sent.
+   * @param parse       Parses the received response.
+   * @param ec          The execution context.
+   * @tparam C The type of the response content.
+   * @return The parsed response.
+   */
+  private def observe[C](
+    apiRequest: ApiRequest,
+    playRequest: PlayRequest,
+    response: Future[WSResponse],
+    startTime: Long,
+    sendTime: Long
+  )(
+    parse: WSResponse => Future[ApiResponse[C]]
+  )(
+    implicit
+    ec: ExecutionContext
+  ): Future[ApiResponse[C]] = {
+
+    if (config.listener eq ApiInvokerListener.Noop) {
+      response.flatMap(parse)
+    } else {
+      val buildTime = sendTime - startTime
+      response.andThen {
+        case Failure(e) =>
+          config.listener.onComplete(metrics(apiRequest, playRequest, None, RequestOutcome.Failure, Some(e),
+            buildTime, System.nanoTime() - sendTime, 0L))
+      }.flatMap { wsResponse =>
+        val receiveTime = System.nanoTime()
+        parse(wsResponse).andThen {
+          case result =>
+            val (outcome, error) = result match {
+              case Success(_) => (RequestOutcome.Success, None)
+              case Failure(e) => (RequestOutcome.Error, Some(e))
+            }
+            config.listener.onComplete(metrics(apiRequest, playRequest, Some(wsResponse), outcome, error,
+              buildTime, receiveTime - sendTime, System.nanoTime() - receiveTime))
+        }
+      }
     }
   }
 
+  /**
+   * Creates the metrics of a request.
+   *
+   * @param apiRequest  The API request.
+   * @param playRequest The Play request.
+   * @param response    The response, if one was received.
+   * @param outcome     The outcome of the request.
+   * @param error       The error if the request wasn't successful.
+   * @param buildTime   The time needed to build the request.
+   * @param networkTime The time from sending the request until the response was received.
+   * @param decodeTime  The time needed to decode the response.
+   * @return The request metrics.
+   */
+  private def metrics(
+    apiRequest: ApiRequest,
+    playRequest: PlayRequest,
+    response: Option[WSResponse],
+    outcome: RequestOutcome,
+    error: Option[Throwable],
+    buildTime: Long,
+    networkTime: Long,
+    decodeTime: Long): RequestMetrics = {
+
+    RequestMetrics(
+      operationId = apiRequest.template.operationId,
+      method = apiRequest.template.method.name,
+      status = response.map(_.status),
+      outcome = outcome,
+      buildTime = buildTime,
+      networkTime = networkTime,
+      decodeTime = decodeTime,
+      requestSize = playRequest.bodySize,
+      responseSize = response.flatMap(contentLength),
+      error = error
+    )
+  }
+
+  /**
+   * Gets the content length of a response.
+   *
+   * @param response The response.
+   * @return The content length or None if the response has no valid `Content-Length` header.
+   */
+  private def contentLength(response: WSResponse): Option[Long] = {
+    response.header("Content-Length").flatMap(length => Try(length.trim.toLong).toOption)
+  }
+
   /**
    * Tries to parses the response.
    *
@@ -68,48 +754,24 @@ class ApiInvoker @Inject() (config: ApiConfig, wsClient: WSClient) {
    * @return The parsed response on success or an error on failure.
    */
   private def parseResponse[C](apiRequest: ApiRequest, response: WSResponse): Try[ApiResponse[C]] = {
-    apiRequest.responses.get(response.status).orElse(apiRequest.responses.get(0)) match {
+    registeredResponse(apiRequest, response) match {
       // Parse success response as Unit
-      case Some((ResponseState.Success, TypeTag.Unit, _)) =>
+      case Some((ResponseState.Success, ResponseDecoder.UnitDecoder)) =>
         Success(ApiResponse[C](response.status, ().asInstanceOf[C], response.headers))
 
-      // Parse success response as Json
-      case Some((ResponseState.Success, tag, Some(reads))) =>
-        serialize(response, tag)(response.json.as(reads)) { result =>
-          Success(ApiResponse(response.status, result.asInstanceOf[C], response.headers))
-        }
-
-      // Parse success response as File
-      case Some((ResponseState.Success, tag, None)) if tag.tpe <:< typeOf[ApiFile] =>
-        serialize(response, tag)(ApiFile(UUID.randomUUID.toString, new ByteArrayInputStream(response.bodyAsBytes.toArray))) { result =>
-          Success(ApiResponse(response.status, result.asInstanceOf[C], response.headers))
-        }
-
-      // Parse success response as primitive type
-      case Some((ResponseState.Success, tag, None)) =>
-        serialize(response, tag)(castValue(response.body, tag.tpe)) { result =>
+      // Parse success response with the registered decoder
+      case Some((ResponseState.Success, decoder)) =>
+        decode(apiRequest, response, decoder) { result =>
           Success(ApiResponse(response.status, result.asInstanceOf[C], response.headers))
         }
 
       // Parse error response as Unit
-      case Some((ResponseState.Error, TypeTag.Unit, _)) =>
+      case Some((ResponseState.Error, ResponseDecoder.UnitDecoder)) =>
         Failure(ApiError(response.status, ApiResponseError, None, headers = response.headers))
 
-      // Parse error response as Json
-      case Some((ResponseState.Error, tag, Some(reads))) =>
-        serialize(response, tag)(response.json.as(reads)) { result =>
-          Failure(ApiError(response.status, ApiResponseError, Some(result), headers = response.headers))
-        }
-
-      // Parse error response as File
-      case Some((ResponseState.Error, tag, None)) if tag.tpe <:< typeOf[ApiFile] =>
-        serialize(response, tag)(ApiFile(UUID.randomUUID.toString, new ByteArrayInputStream(response.bodyAsBytes.toArray))) { result =>
-          Failure(ApiError(response.status, ApiResponseError, Some(result), headers = response.headers))
-        }
-
-      // Parse error response as primitive type
-      case Some((ResponseState.Error, tag, None)) =>
-        serialize(response, tag)(castValue(response.body, tag.tpe)) { result =>
+      // Parse error response with the registered decoder
+      case Some((ResponseState.Error, decoder)) =>
+        decode(apiRequest, response, decoder) { result =>
           Failure(ApiError(response.status, ApiResponseError, Some(result), headers = response.headers))
         }
 
@@ -121,62 +783,43 @@ class ApiInvoker @Inject() (config: ApiConfig, wsClient: WSClient) {
   }
 
   /**
-   * Serialize a response.
+   * Gets the registered response for the status of the response.
+   *
+   * @param apiRequest The API request.
+   * @param response   The response to get the registration for.
+   * @return The registered response state and decoder, or the default registration if no one exists for the status.
+   */
+  private def registeredResponse(apiRequest: ApiRequest, response: WSResponse): Option[(ResponseState, ResponseDecoder[_])] = {
+    val responses = apiRequest.template.responses
+    responses.get(response.status).orElse(responses.get(0))
+  }
+
+  /**
+   * Decodes a response.
+   *
+   * The responses of operations which produce binary media types will be decoded with the codec of their media type.
    *
-   * @param response The WS response.
-   * @param tag The type tag of the response value.
-   * @param op The serialization operation.
-   * @param r The success response.
+   * @param apiRequest The API request.
+   * @param response   The WS response.
+   * @param decoder    The decoder for the response value.
+   * @param r          The success response.
    * @tparam T The type of the result.
    * @return The parsed response on success or an error on failure.
    */
-  private def serialize[T](response: WSResponse, tag: TypeTag[_])(op: => Any)(
+  private def decode[T](apiRequest: ApiRequest, response: WSResponse, decoder: ResponseDecoder[_])(
     r: Any => Try[ApiResponse[T]]
   ): Try[ApiResponse[T]] = {
-    Try(op) match {
+    val result =
+      if (apiRequest.template.produces.isEmpty) Try(decoder.decode(response))
+      else Try(ApiCodecs.decode(response, decoder, config.codecs))
+
+    result match {
       case Success(result) => r(result)
       case Failure(e) =>
-        val runtimeClass = tag.mirror.runtimeClass(tag.tpe)
-        val message = ResponseSerializationError.format(response.body, runtimeClass)
+        val message = ResponseSerializationError.format(response.body, decoder.runtimeClass)
         Failure(ApiError(response.status, message, None, e, response.headers))
     }
   }
-
-  /**
-   * Casts a value to the expected type.
-   *
-   * @param expectedType The expected type.
-   * @param value        The value to cast.
-   * @return The value with casted to the expected type.
-   */
-  private def castValue(value: Any, expectedType: Type): Any = {
-    import scala.reflect.runtime.currentMirror
-    import scala.reflect.runtime.universe._
-    val valueType = if (value != null) currentMirror.classSymbol(value.getClass).toType else typeOf[Null]
-    try {
-      expectedType match {
-        case _ if valueType =:= typeOf[Null]      => value
-        case _ if valueType =:= typeOf[None.type] => value
-        case t: Type if t <:< typeOf[Option[Any]] => try {
-          val TypeRef(_, _, args) = t
-          Some(castValue(value, args.head))
-        } catch {
-          case _: Exception => None
-        }
-        case t: Type if t =:= typeOf[String]  => value.toString
-        case t: Type if t =:= typeOf[Long]    => value.toString.trim.toLong
-        case t: Type if t =:= typeOf[Int]     => value.toString.trim.toInt
-        case t: Type if t =:= typeOf[Double]  => value.toString.trim.toDouble
-        case t: Type if t =:= typeOf[Float]   => value.toString.trim.toFloat
-        case t: Type if t =:= typeOf[Boolean] => value.toString.trim.toBoolean
-        case t: Type if t =:= typeOf[Byte]    => value.toString.trim.toByte
-        case t: Type                          => throw new RuntimeException("Unexpected type: " + t)
-      }
-    } catch {
-      case e: Exception =>
-        throw new RuntimeException(s"Cannot cast type `$valueType` to expected type `$expectedType`", e)
-    }
-  }
 }
 
 /**
@@ -190,4 +833,15 @@ object ApiInvoker {
   val ApiResponseError = "Retrieved error from API"
   val ResponseSerializationError = "Couldn't serialize response: %s; to type: %s"
   val UnexpectedStatusCodeError = "API returns unexpected status: %s"
+  val BatchDeadlineError = "Batch deadline of %s exceeded"
+
+  /**
+   * The default number of requests of a batch which are in flight at the same time.
+   */
+  val DefaultBatchParallelism = 8
+
+  /**
+   * The number of responses which must be observed before a request will be hedged.
+   */
+  val MinHedgeSamples = 20L
 }
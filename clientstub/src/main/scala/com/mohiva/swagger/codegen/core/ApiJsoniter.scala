@@ -0,0 +1,118 @@
+/**
+ * Original work: Swagger Codegen (https://github.com/swagger-api/swagger-codegen)
+ * Copyright 2016 Swagger (http://swagger.io)
+ *
+ * Derivative work: Swagger Codegen - Play Scala (https://github.com/mohiva/swagger-codegen-play-scala)
+ * Modifications Copyright 2016 Mohiva Organisation (license at mohiva dot com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mohiva.swagger.codegen.core
+
+import akka.util.ByteString
+import com.github.plokhotnyuk.jsoniter_scala.core._
+import com.mohiva.swagger.codegen.core.ApiRequest._
+
+import scala.reflect.ClassTag
+
+/**
+ * Json support based on the compile-time codecs of jsoniter-scala.
+ *
+ * The codecs read the response body and write the request body straight from and to bytes, without building an
+ * intermediate Json AST. The generator uses this backend if the `jsonLibrary` option is set to `jsoniter-scala`.
+ */
+object ApiJsoniter {
+
+  /**
+   * Creates a decoder which reads the response body with a jsoniter-scala codec.
+   *
+   * @tparam T The type of the decoded content.
+   * @return A decoder.
+   */
+  def decoder[T: JsonValueCodec: ClassTag]: ResponseDecoder[T] = ResponseDecoder[T] { response =>
+    readFromArray[T](response.bodyAsBytes.toArray)
+  }
+
+  /**
+   * Adds the jsoniter-scala responses to a request template.
+   *
+   * @param template The request template.
+   */
+  implicit class JsoniterTemplate(template: Template) {
+
+    /**
+     * Adds a Json success response to the template.
+     *
+     * @param code The HTTP status code.
+     * @tparam T The type of the response.
+     * @return The template to provide a fluent interface.
+     */
+    def withJsoniterSuccessResponse[T: JsonValueCodec: ClassTag](code: Int): Template = template.copy(
+      responses = template.responses + ((code, (ResponseState.Success, decoder[T])))
+    )
+
+    /**
+     * Adds a Json error response to the template.
+     *
+     * @param code The HTTP status code.
+     * @tparam T The type of the response.
+     * @return The template to provide a fluent interface.
+     */
+    def withJsoniterErrorResponse[T: JsonValueCodec: ClassTag](code: Int): Template = template.copy(
+      responses = template.responses + ((code, (ResponseState.Error, decoder[T])))
+    )
+
+    /**
+     * Adds a default Json success response to the template.
+     *
+     * @tparam T The type of the response.
+     * @return The template to provide a fluent interface.
+     */
+    def withDefaultJsoniterSuccessResponse[T: JsonValueCodec: ClassTag]: Template = withJsoniterSuccessResponse[T](0)
+
+    /**
+     * Adds a default Json error response to the template.
+     *
+     * @tparam T The type of the response.
+     * @return The template to provide a fluent interface.
+     */
+    def withDefaultJsoniterErrorResponse[T: JsonValueCodec: ClassTag]: Template = withJsoniterErrorResponse[T](0)
+  }
+
+  /**
+   * Adds the jsoniter-scala bodies to an API request.
+   *
+   * @param request The API request.
+   */
+  implicit class JsoniterRequest(request: ApiRequest) {
+
+    /**
+     * Adds a Json body to the request.
+     *
+     * @param body The Json body to add.
+     * @return The request to provide a fluent interface.
+     */
+    def withJsoniterBody[B: JsonValueCodec](body: B): ApiRequest = request.withEncodedJsonBody(ByteString.fromArrayUnsafe(writeToArray(body)))
+
+    /**
+     * Adds an optional Json body to the request.
+     *
+     * @param body The Json body to add.
+     * @return The request to provide a fluent interface.
+     */
+    def withJsoniterBody[B: JsonValueCodec](body: Option[B]): ApiRequest = body match {
+      case Some(b) => withJsoniterBody[B](b)
+      case None    => request
+    }
+  }
+}
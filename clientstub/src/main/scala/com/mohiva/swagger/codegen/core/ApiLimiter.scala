@@ -0,0 +1,234 @@
+/**
+ * Original work: Swagger Codegen (https://github.com/swagger-api/swagger-codegen)
+ * Copyright 2016 Swagger (http://swagger.io)
+ *
+ * Derivative work: Swagger Codegen - Play Scala (https://github.com/mohiva/swagger-codegen-play-scala)
+ * Modifications Copyright 2016 Mohiva Organisation (license at mohiva dot com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mohiva.swagger.codegen.core
+
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.{ ScheduledFuture, TimeUnit }
+
+import scala.concurrent.duration._
+import scala.concurrent.{ Future, Promise }
+
+/**
+ * The settings of a concurrency limiter.
+ *
+ * @param initialLimit     The initial concurrency limit.
+ * @param minLimit         The lower bound of the concurrency limit.
+ * @param maxLimit         The upper bound of the concurrency limit.
+ * @param backoffRatio     The ratio by which the limit will be decreased if a request was dropped or was too slow.
+ * @param latencyThreshold The latency above which a request counts as too slow.
+ * @param maxQueueSize     The maximum number of requests which wait for a permit.
+ * @param maxWait          The maximum time a request waits for a permit.
+ */
+case class LimiterSettings(
+  initialLimit: Int = 20,
+  minLimit: Int = 1,
+  maxLimit: Int = 200,
+  backoffRatio: Double = 0.9,
+  latencyThreshold: FiniteDuration = 5.seconds,
+  maxQueueSize: Int = 100,
+  maxWait: FiniteDuration = 1.second)
+
+/**
+ * The concurrency limits of the generated client.
+ *
+ * Every request must acquire a permit from the limiter of its API and from the limiter of its operation.
+ *
+ * @param api        The settings of the limiter per API.
+ * @param operation  The settings of the limiter per operation.
+ * @param operations The settings of the limiters of individual operations, by operation ID.
+ */
+case class ConcurrencyLimits(
+  api: LimiterSettings = LimiterSettings(),
+  operation: LimiterSettings = LimiterSettings(),
+  operations: Map[String, LimiterSettings] = Map.empty)
+
+/**
+ * An error which indicates that a request was rejected by a concurrency limiter, because the limiter was saturated.
+ *
+ * The error has the code 0, because no response was received.
+ *
+ * @param limiter The name of the limiter which rejected the request.
+ */
+class ApiLimitExceededError(val limiter: String)
+  extends ApiError[Nothing](0, ApiLimitExceededError.Message.format(limiter), None)
+
+/**
+ * The companion object of the [[ApiLimitExceededError]].
+ */
+object ApiLimitExceededError {
+  val Message = "Concurrency limit of `%s` exceeded"
+}
+
+/**
+ * A concurrency limiter which adapts its limit with the AIMD algorithm.
+ *
+ * The limit will be increased additively while the in-flight requests use at least half of the limit and
+ * decreased multiplicatively if a request was dropped or its latency exceeds the threshold. Requests which
+ * cannot acquire a permit wait in a bounded queue for a bounded time and will be rejected with an
+ * [[ApiLimitExceededError]] once the limiter is saturated.
+ *
+ * @param name     The name of the limiter.
+ * @param settings The limiter settings.
+ */
+class AdaptiveLimiter(val name: String, settings: LimiterSettings) {
+
+  /**
+   * The current limit.
+   */
+  private var limit: Double = settings.initialLimit.toDouble
+
+  /**
+   * The number of in-flight requests.
+   */
+  private var inFlight = 0
+
+  /**
+   * The requests waiting for a permit.
+   */
+  private val waiters = new java.util.ArrayDeque[Waiter]()
+
+  /**
+   * Gets the current limit.
+   *
+   * @return The current limit.
+   */
+  def currentLimit: Int = synchronized(limit.toInt)
+
+  /**
+   * Gets the number of in-flight requests.
+   *
+   * @return The number of in-flight requests.
+   */
+  def inFlightRequests: Int = synchronized(inFlight)
+
+  /**
+   * Acquires a permit.
+   *
+   * @return A permit, or a failed future with an [[ApiLimitExceededError]] if the limiter is saturated.
+   */
+  def acquire(): Future[Permit] = synchronized {
+    if (inFlight < limit.toInt && waiters.isEmpty) {
+      inFlight += 1
+      Future.successful(new Permit)
+    } else if (waiters.size >= settings.maxQueueSize) {
+      Future.failed(new ApiLimitExceededError(name))
+    } else {
+      val waiter = new Waiter
+      waiters.add(waiter)
+      waiter.timeout = ApiScheduler.executor.schedule(new Runnable {
+        override def run(): Unit = expire(waiter)
+      }, settings.maxWait.toNanos, TimeUnit.NANOSECONDS)
+      waiter.promise.future
+    }
+  }
+
+  /**
+   * Acquires a permit only if it's available without waiting.
+   *
+   * @return A permit, or None if all permits are in use or other requests are waiting.
+   */
+  def tryAcquire(): Option[Permit] = synchronized {
+    if (inFlight < limit.toInt && waiters.isEmpty) {
+      inFlight += 1
+      Some(new Permit)
+    } else {
+      None
+    }
+  }
+
+  /**
+   * Rejects a waiting request whose wait time has expired.
+   *
+   * @param waiter The waiting request.
+   */
+  private def expire(waiter: Waiter): Unit = synchronized {
+    if (waiters.remove(waiter)) {
+      waiter.promise.failure(new ApiLimitExceededError(name))
+    }
+  }
+
+  /**
+   * Releases a permit and adapts the limit.
+   *
+   * @param sample  The latency of the request if it should be used to adapt the limit.
+   * @param dropped Indicates if the request was dropped.
+   */
+  private def release(sample: Option[Long], dropped: Boolean): Unit = synchronized {
+    sample.foreach { latency =>
+      if (dropped || latency > settings.latencyThreshold.toNanos) {
+        limit = math.max(settings.minLimit.toDouble, limit * settings.backoffRatio)
+      } else if (inFlight * 2 >= limit) {
+        limit = math.min(settings.maxLimit.toDouble, limit + 1)
+      }
+    }
+    inFlight -= 1
+    while (inFlight < limit.toInt && !waiters.isEmpty) {
+      val waiter = waiters.poll()
+      waiter.timeout.cancel(false)
+      inFlight += 1
+      waiter.promise.success(new Permit)
+    }
+  }
+
+  /**
+   * A permit to execute a request.
+   */
+  class Permit {
+
+    /**
+     * The time at which the permit was acquired.
+     */
+    private val start = System.nanoTime()
+
+    /**
+     * Indicates if the permit was released.
+     */
+    private val released = new AtomicBoolean(false)
+
+    /**
+     * Releases the permit after the request was completed.
+     *
+     * @param dropped Indicates if the request was dropped, which means that it failed or that the API was
+     *                overloaded.
+     */
+    def release(dropped: Boolean): Unit = {
+      if (released.compareAndSet(false, true)) {
+        AdaptiveLimiter.this.release(Some(System.nanoTime() - start), dropped)
+      }
+    }
+
+    /**
+     * Releases the permit without adapting the limit, because the request wasn't executed.
+     */
+    def cancel(): Unit = {
+      if (released.compareAndSet(false, true)) {
+        AdaptiveLimiter.this.release(None, dropped = false)
+      }
+    }
+  }
+
+  /**
+   * A request which waits for a permit.
+   */
+  private class Waiter {
+    val promise: Promise[Permit] = Promise[Permit]()
+    var timeout: ScheduledFuture[_] = _
+  }
+}
@@ -0,0 +1,302 @@
+/**
+ * Original work: Swagger Codegen (https://github.com/swagger-api/swagger-codegen)
+ * Copyright 2016 Swagger (http://swagger.io)
+ *
+ * Derivative work: Swagger Codegen - Play Scala (https://github.com/mohiva/swagger-codegen-play-scala)
+ * Modifications Copyright 2016 Mohiva Organisation (license at mohiva dot com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mohiva.swagger.codegen.core
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.atomic.LongAdder
+
+import org.HdrHistogram.{ ConcurrentHistogram, Histogram }
+
+import scala.collection.JavaConverters._
+
+/**
+ * A listener which gets notified about every request executed by the [[ApiInvoker]].
+ *
+ * Implementations must be thread-safe and should return fast, because they will be called on the thread which
+ * completes the request.
+ */
+trait ApiInvokerListener {
+
+  /**
+   * Called after a request was completed.
+   *
+   * @param metrics The metrics of the request.
+   */
+  def onComplete(metrics: RequestMetrics): Unit
+
+  /**
+   * Called after a circuit breaker has changed its state.
+   *
+   * @param event The state transition.
+   */
+  def onCircuitBreakerEvent(event: CircuitBreakerEvent): Unit = ()
+}
+
+/**
+ * The companion object of the [[ApiInvokerListener]].
+ */
+object ApiInvokerListener {
+
+  /**
+   * A listener which does nothing.
+   */
+  object Noop extends ApiInvokerListener {
+    def onComplete(metrics: RequestMetrics): Unit = ()
+  }
+}
+
+/**
+ * The outcome of a request.
+ */
+sealed trait RequestOutcome
+object RequestOutcome {
+
+  /**
+   * The API returned a response which was registered as success response.
+   */
+  case object Success extends RequestOutcome
+
+  /**
+   * The API returned an error response, an unexpected status code or a response which couldn't be decoded.
+   */
+  case object Error extends RequestOutcome
+
+  /**
+   * The request failed before a response was received.
+   */
+  case object Failure extends RequestOutcome
+}
+
+/**
+ * The metrics of a single request.
+ *
+ * All times are measured in nanoseconds.
+ *
+ * @param operationId  The ID of the API operation.
+ * @param method       The HTTP request method.
+ * @param status       The HTTP status code, if a response was received.
+ * @param outcome      The outcome of the request.
+ * @param buildTime    The time needed to build the request.
+ * @param networkTime  The time from sending the request until the response was received.
+ * @param decodeTime   The time needed to decode the response.
+ * @param requestSize  The size of the request body, if it's known.
+ * @param responseSize The size of the response body, if it's known.
+ * @param error        The error if the request wasn't successful.
+ */
+case class RequestMetrics(
+  operationId: String,
+  method: String,
+  status: Option[Int],
+  outcome: RequestOutcome,
+  buildTime: Long,
+  networkTime: Long,
+  decodeTime: Long,
+  requestSize: Option[Long],
+  responseSize: Option[Long],
+  error: Option[Throwable]) {
+
+  /**
+   * The total time of the request.
+   */
+  def totalTime: Long = buildTime + networkTime + decodeTime
+}
+
+/**
+ * A snapshot of a histogram.
+ *
+ * @param count The number of recorded values.
+ * @param min   The smallest recorded value.
+ * @param max   The largest recorded value.
+ * @param mean  The mean of the recorded values.
+ * @param p50   The 50th percentile.
+ * @param p90   The 90th percentile.
+ * @param p99   The 99th percentile.
+ * @param p999  The 99.9th percentile.
+ */
+case class HistogramSnapshot(
+  count: Long,
+  min: Long,
+  max: Long,
+  mean: Double,
+  p50: Long,
+  p90: Long,
+  p99: Long,
+  p999: Long)
+
+/**
+ * The companion object of the [[HistogramSnapshot]].
+ */
+object HistogramSnapshot {
+
+  /**
+   * Creates a snapshot from a histogram.
+   *
+   * @param histogram The histogram to create the snapshot from.
+   * @return The snapshot.
+   */
+  def apply(histogram: Histogram): HistogramSnapshot = {
+    val copy = histogram.copy()
+    if (copy.getTotalCount == 0) {
+      HistogramSnapshot(0L, 0L, 0L, 0.0, 0L, 0L, 0L, 0L)
+    } else {
+      HistogramSnapshot(
+        count = copy.getTotalCount,
+        min = copy.getMinValue,
+        max = copy.getMaxValue,
+        mean = copy.getMean,
+        p50 = copy.getValueAtPercentile(50.0),
+        p90 = copy.getValueAtPercentile(90.0),
+        p99 = copy.getValueAtPercentile(99.0),
+        p999 = copy.getValueAtPercentile(99.9)
+      )
+    }
+  }
+}
+
+/**
+ * A snapshot of the metrics of an API operation.
+ *
+ * @param operationId  The ID of the API operation.
+ * @param successes    The number of successful requests.
+ * @param errors       The number of requests which resulted in an error response.
+ * @param failures     The number of requests which failed before a response was received.
+ * @param statusCodes  The number of responses per HTTP status code.
+ * @param buildTime    The time needed to build the requests in nanoseconds.
+ * @param networkTime  The network time of the requests in nanoseconds.
+ * @param decodeTime   The time needed to decode the responses in nanoseconds.
+ * @param totalTime    The total time of the requests in nanoseconds.
+ * @param requestSize  The size of the request bodies in bytes.
+ * @param responseSize The size of the response bodies in bytes.
+ */
+case class OperationSnapshot(
+  operationId: String,
+  successes: Long,
+  errors: Long,
+  failures: Long,
+  statusCodes: Map[Int, Long],
+  buildTime: HistogramSnapshot,
+  networkTime: HistogramSnapshot,
+  decodeTime: HistogramSnapshot,
+  totalTime: HistogramSnapshot,
+  requestSize: HistogramSnapshot,
+  responseSize: HistogramSnapshot) {
+
+  /**
+   * The number of all requests.
+   */
+  def requests: Long = successes + errors + failures
+}
+
+/**
+ * A listener which records the metrics of all requests in in-memory HDR histograms per operation.
+ *
+ * The histograms can be snapshotted at any time, so that slow endpoints can be found without an external
+ * metrics service.
+ *
+ * @param significantDigits The number of significant decimal digits to which the histograms maintain value
+ *                          resolution and separation.
+ */
+class HdrHistogramListener(significantDigits: Int = 3) extends ApiInvokerListener {
+
+  /**
+   * The recorders per operation.
+   */
+  private val recorders = new ConcurrentHashMap[String, OperationRecorder]()
+
+  /**
+   * Creates a recorder for an operation.
+   */
+  private val newRecorder = new java.util.function.Function[String, OperationRecorder] {
+    override def apply(operationId: String): OperationRecorder = new OperationRecorder(operationId)
+  }
+
+  /**
+   * Records the metrics of a request.
+   *
+   * @param metrics The metrics of the request.
+   */
+  def onComplete(metrics: RequestMetrics): Unit = {
+    recorders.computeIfAbsent(metrics.operationId, newRecorder).record(metrics)
+  }
+
+  /**
+   * Creates a snapshot of the recorded metrics.
+   *
+   * @return The snapshots per operation ID.
+   */
+  def snapshot(): Map[String, OperationSnapshot] = {
+    recorders.asScala.map { case (operationId, recorder) => operationId -> recorder.snapshot() }.toMap
+  }
+
+  /**
+   * Resets all recorded metrics.
+   */
+  def reset(): Unit = recorders.clear()
+
+  /**
+   * Records the metrics of a single operation.
+   *
+   * @param operationId The ID of the API operation.
+   */
+  private class OperationRecorder(operationId: String) {
+    private val successes = new LongAdder
+    private val errors = new LongAdder
+    private val failures = new LongAdder
+    private val statusCodes = new ConcurrentHashMap[Int, LongAdder]()
+    private val buildTime = new ConcurrentHistogram(significantDigits)
+    private val networkTime = new ConcurrentHistogram(significantDigits)
+    private val decodeTime = new ConcurrentHistogram(significantDigits)
+    private val totalTime = new ConcurrentHistogram(significantDigits)
+    private val requestSize = new ConcurrentHistogram(significantDigits)
+    private val responseSize = new ConcurrentHistogram(significantDigits)
+    private val newCounter = new java.util.function.Function[Int, LongAdder] {
+      override def apply(status: Int): LongAdder = new LongAdder
+    }
+
+    def record(metrics: RequestMetrics): Unit = {
+      metrics.outcome match {
+        case RequestOutcome.Success => successes.increment()
+        case RequestOutcome.Error   => errors.increment()
+        case RequestOutcome.Failure => failures.increment()
+      }
+      metrics.status.foreach(status => statusCodes.computeIfAbsent(status, newCounter).increment())
+      buildTime.recordValue(metrics.buildTime)
+      networkTime.recordValue(metrics.networkTime)
+      decodeTime.recordValue(metrics.decodeTime)
+      totalTime.recordValue(metrics.totalTime)
+      metrics.requestSize.foreach(size => requestSize.recordValue(size))
+      metrics.responseSize.foreach(size => responseSize.recordValue(size))
+    }
+
+    def snapshot(): OperationSnapshot = OperationSnapshot(
+      operationId = operationId,
+      successes = successes.sum(),
+      errors = errors.sum(),
+      failures = failures.sum(),
+      statusCodes = statusCodes.asScala.map { case (status, counter) => status -> counter.sum() }.toMap,
+      buildTime = HistogramSnapshot(buildTime),
+      networkTime = HistogramSnapshot(networkTime),
+      decodeTime = HistogramSnapshot(decodeTime),
+      totalTime = HistogramSnapshot(totalTime),
+      requestSize = HistogramSnapshot(requestSize),
+      responseSize = HistogramSnapshot(responseSize)
+    )
+  }
+}
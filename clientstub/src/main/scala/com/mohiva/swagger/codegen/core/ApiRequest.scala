@@ -19,202 +19,586 @@
  */
 package com.mohiva.swagger.codegen.core
 
+import java.io.{ ByteArrayOutputStream, OutputStream }
+import java.nio.charset.StandardCharsets
+import java.util.zip.{ DeflaterOutputStream, GZIPOutputStream }
+
+import akka.util.ByteString
 import com.mohiva.swagger.codegen.core.ApiRequest._
+import play.api.http.MediaType
 import play.api.libs.json.{ Json, Reads, Writes }
 
 import scala.concurrent.duration._
-import scala.reflect.runtime.universe._
+import scala.reflect.ClassTag
 
 /**
  * The API request.
  *
- * @param method        The HTTP request method.
- * @param basePath      The API base path.
- * @param operationPath The API operation path.
- * @param contentType   The content type.
- * @param config        The request specific config.
- * @param responses     The list of responses.
- * @param bodyParam     The body param.
- * @param formParams    The form params.
- * @param pathParams    The path params.
- * @param queryParams   The query params.
- * @param headerParams  The header params.
- * @param credentials   The credentials.
+ * The static parts of an API operation are defined in a [[ApiRequest.Template]] which will be created only once
+ * per operation. The request itself only binds the values which differ between calls.
+ *
+ * @param template            The request template of the operation.
+ * @param config              The request specific config.
+ * @param bodyParam           The body param.
+ * @param formParams          The form params.
+ * @param pathParams          The path params.
+ * @param queryParams         The query params.
+ * @param headerParams        The header params.
+ * @param credentials         The credentials.
+ * @param encodedPathParams   The already encoded typed path params.
+ * @param encodedQueryParams  The already encoded typed query params.
+ * @param encodedHeaderParams The already encoded typed header params.
  */
 case class ApiRequest(
-  method: RequestMethod,
-  basePath: String,
-  operationPath: String,
-  contentType: Option[String],
+  template: Template,
   config: Config,
-  responses: Map[Int, (ResponseState, TypeTag[_], Option[Reads[_]])] = Map.empty,
   bodyParam: Option[Any] = None,
   formParams: Map[String, Any] = Map.empty,
   pathParams: Map[String, Any] = Map.empty,
   queryParams: Map[String, Any] = Map.empty,
   headerParams: Map[String, Any] = Map.empty,
-  credentials: Seq[Credentials] = List.empty) {
+  credentials: Seq[Credentials] = List.empty,
+  encodedPathParams: ApiParams.EncodedParams = Vector.empty,
+  encodedQueryParams: ApiParams.EncodedParams = Vector.empty,
+  encodedHeaderParams: ApiParams.EncodedParams = Vector.empty) {
 
   /**
-   * Adds a Json success response to the request.
+   * Adds a Json body to the request.
    *
-   * @param code The HTTP status code.
-   * @tparam T The type of the response.
+   * @param body The Json body to add.
    * @return The request to provide a fluent interface.
    */
-  def withJsonSuccessResponse[T: TypeTag: Reads](code: Int): ApiRequest = copy(responses = responses +
-    ((code, (ResponseState.Success, implicitly[TypeTag[T]], Some(implicitly[Reads[T]]))))
-  )
+  def withJsonBody[B: Writes](body: B): ApiRequest = copy(bodyParam = Some(Json.toJson(body)))
 
   /**
-   * Adds a Json error response to the request.
+   * Adds an optional Json body to the request.
    *
-   * @param code The HTTP status code.
-   * @tparam T The type of the response.
+   * @param body The Json body to add.
    * @return The request to provide a fluent interface.
    */
-  def withJsonErrorResponse[T: TypeTag: Reads](code: Int): ApiRequest = copy(responses = responses +
-    ((code, (ResponseState.Error, implicitly[TypeTag[T]], Some(implicitly[Reads[T]]))))
-  )
+  def withJsonBody[B: Writes](body: Option[B]): ApiRequest = copy(bodyParam = body.map(j => Json.toJson(j)))
 
   /**
-   * Adds a primitive success response to the request.
+   * Adds an already encoded Json body to the request.
    *
-   * @param code The HTTP status code.
-   * @tparam T The type of the response.
+   * @param body The encoded Json body to add.
    * @return The request to provide a fluent interface.
    */
-  def withPrimitiveSuccessResponse[T: TypeTag](code: Int): ApiRequest = copy(responses = responses +
-    ((code, (ResponseState.Success, implicitly[TypeTag[T]], None)))
-  )
+  def withEncodedJsonBody(body: ByteString): ApiRequest = copy(bodyParam = Some(EncodedJsonBody(body)))
 
   /**
-   * Adds a primitive error response to the request.
+   * Adds a primitive body to the request.
    *
-   * @param code The HTTP status code.
-   * @tparam T The type of the response.
+   * @param body The primitive body to add.
    * @return The request to provide a fluent interface.
    */
-  def withPrimitiveErrorResponse[T: TypeTag](code: Int): ApiRequest = copy(responses = responses +
-    ((code, (ResponseState.Error, implicitly[TypeTag[T]], None)))
-  )
+  def withPrimitiveBody(body: Any): ApiRequest = copy(bodyParam = Some(body))
 
   /**
-   * Adds a default Json success response to the request.
+   * Adds a form param to the request.
    *
-   * @tparam T The type of the response.
+   * @param name  The param name.
+   * @param value The param value.
    * @return The request to provide a fluent interface.
    */
-  def withDefaultJsonSuccessResponse[T: TypeTag: Reads]: ApiRequest = withJsonSuccessResponse[T](0)
+  def withFormParam(name: String, value: Any): ApiRequest = copy(formParams = formParams + (name -> value))
 
   /**
-   * Adds a default Json error response to the request.
+   * Adds a path param to the request.
    *
-   * @tparam T The type of the response.
+   * @param name  The param name.
+   * @param value The param value.
    * @return The request to provide a fluent interface.
    */
-  def withDefaultJsonErrorResponse[T: TypeTag: Reads]: ApiRequest = withJsonErrorResponse[T](0)
+  def withPathParam(name: String, value: Any): ApiRequest = copy(pathParams = pathParams + (name -> value))
 
   /**
-   * Adds a default primitive success response to the request.
+   * Adds a typed path param to the request.
    *
-   * @tparam T The type of the response.
+   * @param name    The param name.
+   * @param value   The param value.
+   * @param encoder The encoder of the value.
    * @return The request to provide a fluent interface.
    */
-  def withDefaultPrimitiveSuccessResponse[T: TypeTag]: ApiRequest = withPrimitiveSuccessResponse[T](0)
+  def withPathParam[T](name: String, value: T, encoder: ApiParams.ParamEncoder[T]): ApiRequest =
+    copy(encodedPathParams = encoder.encode(name, value, encodedPathParams))
 
   /**
-   * Adds a default primitive error response to the request.
+   * Adds a query param to the request.
    *
-   * @tparam T The type of the response.
+   * @param name  The param name.
+   * @param value The param value.
    * @return The request to provide a fluent interface.
    */
-  def withDefaultPrimitiveErrorResponse[T: TypeTag]: ApiRequest = withPrimitiveErrorResponse[T](0)
+  def withQueryParam(name: String, value: Any): ApiRequest = copy(queryParams = queryParams + (name -> value))
 
   /**
-   * Adds a Json body to the request.
+   * Adds a typed query param to the request.
    *
-   * @param body The Json body to add.
+   * @param name    The param name.
+   * @param value   The param value.
+   * @param encoder The encoder of the value.
    * @return The request to provide a fluent interface.
    */
-  def withJsonBody[B: Writes](body: B): ApiRequest = copy(bodyParam = Some(Json.toJson(body)))
+  def withQueryParam[T](name: String, value: T, encoder: ApiParams.ParamEncoder[T]): ApiRequest =
+    copy(encodedQueryParams = encoder.encode(name, value, encodedQueryParams))
 
   /**
-   * Adds an optional Json body to the request.
+   * Adds a header param to the request.
    *
-   * @param body The Json body to add.
+   * @param name  The param name.
+   * @param value The param value.
    * @return The request to provide a fluent interface.
    */
-  def withJsonBody[B: Writes](body: Option[B]): ApiRequest = copy(bodyParam = body.map(j => Json.toJson(j)))
+  def withHeaderParam(name: String, value: Any): ApiRequest = copy(headerParams = headerParams + (name -> value))
 
   /**
-   * Adds a primitive body to the request.
+   * Adds a typed header param to the request.
    *
-   * @param body The primitive body to add.
+   * @param name    The param name.
+   * @param value   The param value.
+   * @param encoder The encoder of the value.
    * @return The request to provide a fluent interface.
    */
-  def withPrimitiveBody(body: Any): ApiRequest = copy(bodyParam = Some(body))
+  def withHeaderParam[T](name: String, value: T, encoder: ApiParams.ParamEncoder[T]): ApiRequest =
+    copy(encodedHeaderParams = encoder.encode(name, value, encodedHeaderParams))
 
   /**
-   * Adds a form param to the request.
+   * Adds credentials to the request.
    *
-   * @param name  The param name.
-   * @param value The param value.
+   * @param credentials The credentials to add.
    * @return The request to provide a fluent interface.
    */
-  def withFormParam(name: String, value: Any): ApiRequest = copy(formParams = formParams + (name -> value))
+  def withCredentials(credentials: Credentials): ApiRequest = copy(credentials = this.credentials :+ credentials)
+}
+
+/**
+ * The `APIRequest` companion object.
+ */
+object ApiRequest {
 
   /**
-   * Adds a path param to the request.
+   * The request template of an API operation.
    *
-   * @param name  The param name.
-   * @param value The param value.
-   * @return The request to provide a fluent interface.
+   * A template holds the static parts of an operation and the table of the expected responses. It will be created
+   * only once per operation, so that the response decoders and the parsed content type can be shared between all
+   * requests of the operation.
+   *
+   * @param api           The name of the API the operation belongs to.
+   * @param operationId   The ID of the operation, which will be passed to the [[ApiInvokerListener]].
+   * @param method        The HTTP request method.
+   * @param basePath      The API base path.
+   * @param operationPath The API operation path.
+   * @param contentType   The content type.
+   * @param responses     The list of responses.
+   * @param coalesce      Indicates if identical in-flight requests of the operation should share one response.
+   * @param retry         The optional retry policy of the operation, which has precedence over the global policy.
+   * @param compression   The optional compression of the request body.
+   * @param produces      The media types of the responses, if the operation also produces binary media types.
+   * @param consumes      The media types of the request body, if the operation also consumes binary media types.
    */
-  def withPathParam(name: String, value: Any): ApiRequest = copy(pathParams = pathParams + (name -> value))
+  case class Template(
+    api: String,
+    operationId: String,
+    method: RequestMethod,
+    basePath: String,
+    operationPath: PathTemplate,
+    contentType: Option[String],
+    responses: Map[Int, (ResponseState, ResponseDecoder[_])] = Map.empty,
+    coalesce: Boolean = false,
+    retry: Option[RetryPolicy] = None,
+    compression: Option[RequestCompression] = None,
+    produces: Seq[String] = Nil,
+    consumes: Seq[String] = Nil) {
+
+    /**
+     * The media type of the content type without any parameters.
+     */
+    val mediaType: Option[String] = contentType.flatMap(MediaType.parse.apply).map(mt => mt.mediaType + "/" + mt.mediaSubType)
+
+    /**
+     * Adds a Json success response to the template.
+     *
+     * @param code The HTTP status code.
+     * @tparam T The type of the response.
+     * @return The template to provide a fluent interface.
+     */
+    def withJsonSuccessResponse[T: Reads: ClassTag](code: Int): Template = copy(responses = responses +
+      ((code, (ResponseState.Success, ResponseDecoder.json[T])))
+    )
+
+    /**
+     * Adds a Json error response to the template.
+     *
+     * @param code The HTTP status code.
+     * @tparam T The type of the response.
+     * @return The template to provide a fluent interface.
+     */
+    def withJsonErrorResponse[T: Reads: ClassTag](code: Int): Template = copy(responses = responses +
+      ((code, (ResponseState.Error, ResponseDecoder.json[T])))
+    )
+
+    /**
+     * Adds a primitive success response to the template.
+     *
+     * @param code The HTTP status code.
+     * @tparam T The type of the response.
+     * @return The template to provide a fluent interface.
+     */
+    def withPrimitiveSuccessResponse[T: ResponseDecoder](code: Int): Template = copy(responses = responses +
+      ((code, (ResponseState.Success, implicitly[ResponseDecoder[T]])))
+    )
+
+    /**
+     * Adds a primitive error response to the template.
+     *
+     * @param code The HTTP status code.
+     * @tparam T The type of the response.
+     * @return The template to provide a fluent interface.
+     */
+    def withPrimitiveErrorResponse[T: ResponseDecoder](code: Int): Template = copy(responses = responses +
+      ((code, (ResponseState.Error, implicitly[ResponseDecoder[T]])))
+    )
+
+    /**
+     * Adds a default Json success response to the template.
+     *
+     * @tparam T The type of the response.
+     * @return The template to provide a fluent interface.
+     */
+    def withDefaultJsonSuccessResponse[T: Reads: ClassTag]: Template = withJsonSuccessResponse[T](0)
+
+    /**
+     * Adds a default Json error response to the template.
+     *
+     * @tparam T The type of the response.
+     * @return The template to provide a fluent interface.
+     */
+    def withDefaultJsonErrorResponse[T: Reads: ClassTag]: Template = withJsonErrorResponse[T](0)
+
+    /**
+     * Adds a default primitive success response to the template.
+     *
+     * @tparam T The type of the response.
+     * @return The template to provide a fluent interface.
+     */
+    def withDefaultPrimitiveSuccessResponse[T: ResponseDecoder]: Template = withPrimitiveSuccessResponse[T](0)
+
+    /**
+     * Adds a default primitive error response to the template.
+     *
+     * @tparam T The type of the response.
+     * @return The template to provide a fluent interface.
+     */
+    def withDefaultPrimitiveErrorResponse[T: ResponseDecoder]: Template = withPrimitiveErrorResponse[T](0)
+
+    /**
+     * Enables the coalescing of identical in-flight requests.
+     *
+     * Requests without a body, which have the same method, URL, query string, headers and authentication, will
+     * share one underlying response while one of them is in flight. Every caller decodes its own API response.
+     * This should only be enabled for safe operations.
+     *
+     * @return The template to provide a fluent interface.
+     */
+    def withCoalescing: Template = copy(coalesce = true)
+
+    /**
+     * Sets the retry policy of the operation.
+     *
+     * @param policy The retry policy.
+     * @return The template to provide a fluent interface.
+     */
+    def withRetryPolicy(policy: RetryPolicy): Template = copy(retry = Some(policy))
+
+    /**
+     * Sets the compression of the request body.
+     *
+     * @param compression The compression of the request body.
+     * @return The template to provide a fluent interface.
+     */
+    def withRequestCompression(compression: RequestCompression): Template = copy(compression = Some(compression))
+
+    /**
+     * Sets the media types of an operation which also produces or consumes binary media types.
+     *
+     * The binary media types will be negotiated by the [[ApiCodecs]], with Json as fallback.
+     *
+     * @param produces The media types of the responses.
+     * @param consumes The media types of the request body.
+     * @return The template to provide a fluent interface.
+     */
+    def withMediaTypes(produces: Seq[String], consumes: Seq[String]): Template = copy(
+      produces = produces.map(MediaTypes.normalize),
+      consumes = consumes.map(MediaTypes.normalize)
+    )
+  }
 
   /**
-   * Adds a query param to the request.
+   * A Json body which was already encoded, e.g. by a compile-time codec, and which will be sent as is.
    *
-   * @param name  The param name.
-   * @param value The param value.
-   * @return The request to provide a fluent interface.
+   * @param bytes The encoded Json.
    */
-  def withQueryParam(name: String, value: Any): ApiRequest = copy(queryParams = queryParams + (name -> value))
+  case class EncodedJsonBody(bytes: ByteString)
 
   /**
-   * Adds a header param to the request.
+   * The compression of a request body.
    *
-   * @param name  The param name.
-   * @param value The param value.
-   * @return The request to provide a fluent interface.
+   * Only bodies which are held in memory, like Json, text or url encoded form bodies, will be compressed. Files and
+   * multipart bodies will be streamed as is, because they are often compressed already.
+   *
+   * @param encoding The content encoding of the compressed body.
+   * @param minSize  The minimum size of a body in bytes. Smaller bodies will be sent uncompressed, because the
+   *                 compression would cost more than it saves.
    */
-  def withHeaderParam(name: String, value: Any): ApiRequest = copy(headerParams = headerParams + (name -> value))
+  case class RequestCompression(encoding: ContentEncoding = ContentEncoding.Gzip, minSize: Int = 1024)
 
   /**
-   * Adds credentials to the request.
+   * The companion object of the [[RequestCompression]].
+   */
+  object RequestCompression {
+
+    /**
+     * Disables the compression, e.g. for a single request of an operation whose bodies are compressed.
+     */
+    val Disabled = RequestCompression(minSize = Int.MaxValue)
+  }
+
+  /**
+   * The content encodings of compressed request bodies.
+   */
+  sealed trait ContentEncoding {
+
+    /**
+     * The name of the encoding in the `Content-Encoding` header.
+     */
+    def name: String
+
+    /**
+     * Creates the stream which compresses the bytes written to it.
+     *
+     * @param out The stream to write the compressed bytes to.
+     * @return The compressing stream.
+     */
+    protected def compressor(out: OutputStream): OutputStream
+
+    /**
+     * Compresses the given bytes.
+     *
+     * @param bytes The bytes to compress.
+     * @return The compressed bytes.
+     */
+    def encode(bytes: ByteString): ByteString = {
+      val out = new ByteArrayOutputStream(math.max(bytes.size / 4, 64))
+      val compressor = this.compressor(out)
+      compressor.write(bytes.toArray)
+      compressor.close()
+      ByteString.fromArrayUnsafe(out.toByteArray)
+    }
+  }
+  object ContentEncoding {
+    case object Gzip extends ContentEncoding {
+      val name = "gzip"
+      protected def compressor(out: OutputStream): OutputStream = new GZIPOutputStream(out)
+    }
+    case object Deflate extends ContentEncoding {
+      val name = "deflate"
+      protected def compressor(out: OutputStream): OutputStream = new DeflaterOutputStream(out)
+    }
+  }
+
+  /**
+   * A segment of an operation path.
+   */
+  sealed trait PathSegment
+  object PathSegment {
+
+    /**
+     * A literal part of the path which will be rendered as is.
+     *
+     * @param value The literal value.
+     */
+    case class Literal(value: String) extends PathSegment
+
+    /**
+     * A path param which will be replaced with the percent-encoded param value.
+     *
+     * @param name The name of the param.
+     */
+    case class Param(name: String) extends PathSegment
+  }
+
+  /**
+   * An operation path which is already split into its segments.
    *
-   * @param credentials The credentials to add.
-   * @return The request to provide a fluent interface.
+   * The generator splits the path of an operation at generation time, so that building the URL of a request doesn't
+   * need to search and replace the param placeholders.
+   *
+   * @param segments The path segments.
    */
-  def withCredentials(credentials: Credentials): ApiRequest = copy(credentials = this.credentials :+ credentials)
-}
+  case class PathTemplate(segments: PathSegment*) {
 
-/**
- * The `APIRequest` companion object.
- */
-object ApiRequest {
+    /**
+     * The segments as array, to iterate over them without allocating an iterator.
+     */
+    private val segmentArray: Array[PathSegment] = segments.toArray
+
+    /**
+     * The length of all literal segments, used to pre-size the URL builder.
+     */
+    private val literalLength: Int = segments.foldLeft(0) {
+      case (length, PathSegment.Literal(value)) => length + value.length
+      case (length, _)                          => length
+    }
+
+    /**
+     * Renders the URL for the path.
+     *
+     * Params for which no value exists will be rendered as placeholder.
+     *
+     * @param base   The base URL without a trailing slash.
+     * @param params The unencoded param values.
+     * @return The URL.
+     */
+    def render(base: String, params: Map[String, String]): String = {
+      val builder = new java.lang.StringBuilder(base.length + literalLength + params.size * PathTemplate.ParamSizeHint)
+      builder.append(base)
+      var i = 0
+      while (i < segmentArray.length) {
+        segmentArray(i) match {
+          case PathSegment.Literal(value) => builder.append(value)
+          case PathSegment.Param(name) => params.get(name) match {
+            case Some(value) => PathTemplate.encode(value, builder)
+            case None        => builder.append('{').append(name).append('}')
+          }
+        }
+        i += 1
+      }
+
+      builder.toString
+    }
+
+    /**
+     * Returns the path in its Swagger notation.
+     *
+     * @return The path in its Swagger notation.
+     */
+    override def toString: String = segments.map {
+      case PathSegment.Literal(value) => value
+      case PathSegment.Param(name)    => "{" + name + "}"
+    }.mkString
+  }
+
+  /**
+   * The companion object of the [[PathTemplate]].
+   */
+  object PathTemplate {
+
+    /**
+     * The expected average size of a param value.
+     */
+    private val ParamSizeHint = 16
+
+    /**
+     * The hex digits used for the percent-encoding.
+     */
+    private val HexDigits = "0123456789ABCDEF".toCharArray
+
+    /**
+     * Parses a path in its Swagger notation.
+     *
+     * The `{format}` placeholder will be replaced with `json`.
+     *
+     * @param path The path to parse.
+     * @return The path template.
+     */
+    def parse(path: String): PathTemplate = {
+      val segments = Seq.newBuilder[PathSegment]
+      val literal = new StringBuilder
+      var i = 0
+      while (i < path.length) {
+        val end = if (path.charAt(i) == '{') path.indexOf('}', i) else -1
+        if (end > i) {
+          path.substring(i + 1, end) match {
+            case "format" => literal.append("json")
+            case name =>
+              if (literal.nonEmpty) segments += PathSegment.Literal(literal.toString)
+              literal.clear()
+              segments += PathSegment.Param(name)
+          }
+          i = end + 1
+        } else {
+          literal.append(path.charAt(i))
+          i += 1
+        }
+      }
+      if (literal.nonEmpty) segments += PathSegment.Literal(literal.toString)
+
+      PathTemplate(segments.result(): _*)
+    }
+
+    /**
+     * Percent-encodes a path segment value as defined in RFC 3986.
+     *
+     * Unreserved characters, sub-delimiters, `:` and `@` will be kept, all other characters will be encoded as
+     * UTF-8 bytes.
+     *
+     * @param value   The value to encode.
+     * @param builder The builder to append the encoded value to.
+     */
+    def encode(value: String, builder: java.lang.StringBuilder): Unit = {
+      var i = 0
+      while (i < value.length && isAllowed(value.charAt(i))) i += 1
+      if (i == value.length) {
+        builder.append(value)
+      } else {
+        builder.append(value, 0, i)
+        val bytes = value.substring(i).getBytes(StandardCharsets.UTF_8)
+        var j = 0
+        while (j < bytes.length) {
+          val b = bytes(j) & 0xFF
+          if (b < 0x80 && isAllowed(b.toChar)) {
+            builder.append(b.toChar)
+          } else {
+            builder.append('%').append(HexDigits(b >> 4)).append(HexDigits(b & 0x0F))
+          }
+          j += 1
+        }
+      }
+    }
+
+    /**
+     * Indicates if a character can be used unencoded in a path segment.
+     *
+     * @param c The character to check.
+     * @return True if the character can be used unencoded, false otherwise.
+     */
+    private def isAllowed(c: Char): Boolean = {
+      (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || "-._~!$&'()*+,;=:@".indexOf(c.toInt) >= 0
+    }
+  }
 
   /**
    * A request specific config.
    *
    * Use this to override the global config.
    *
-   * @param url     The optional API URL. If this URL is defined then it has precedence over the URL defined in the
-   *                Swagger spec and the global config.
-   * @param timeout The request timeout. Defaults to None, which means the global config has precedence.
+   * @param url         The optional API URL. If this URL is defined then it has precedence over the URL defined in
+   *                    the Swagger spec and the global config.
+   * @param timeout     The request timeout. Defaults to None, which means the global config has precedence.
+   * @param cache       Indicates if the response cache should be used for the request. Defaults to None, which
+   *                    means the global config has precedence.
+   * @param retry       The retry policy of the request. Defaults to None, which means the policy of the operation
+   *                    or the global config has precedence.
+   * @param compression The compression of the request body. Defaults to None, which means the compression of the
+   *                    operation has precedence.
    */
-  case class Config(url: Option[String] = None, timeout: Option[FiniteDuration] = None)
+  case class Config(
+    url: Option[String] = None,
+    timeout: Option[FiniteDuration] = None,
+    cache: Option[Boolean] = None,
+    retry: Option[RetryPolicy] = None,
+    compression: Option[RequestCompression] = None)
 
   /**
    * The response state.
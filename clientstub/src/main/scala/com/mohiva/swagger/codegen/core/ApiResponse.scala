@@ -19,6 +19,13 @@
  */
 package com.mohiva.swagger.codegen.core
 
+import java.time.{ LocalDate, OffsetDateTime }
+import java.util.UUID
+
+import play.api.libs.json.Reads
+import play.api.libs.ws.WSResponse
+
+import scala.reflect.ClassTag
 import scala.util.Try
 
 /**
@@ -126,3 +133,112 @@ case class ApiHeaderExtractor(headers: Map[String, Seq[String]]) {
     }.get
   }
 }
+
+/**
+ * Decodes the body of a response into the expected type.
+ *
+ * A decoder will be resolved at compile time for every response registered on a request, so that parsing a
+ * response doesn't need to inspect the expected type at runtime.
+ *
+ * @tparam T The type of the decoded content.
+ */
+trait ResponseDecoder[T] {
+
+  /**
+   * The runtime class of the decoded content, used in error messages.
+   *
+   * @return The runtime class of the decoded content.
+   */
+  def runtimeClass: Class[_]
+
+  /**
+   * Decodes the response.
+   *
+   * @param response The response to decode.
+   * @return The decoded content.
+   */
+  def decode(response: WSResponse): T
+}
+
+/**
+ * The companion object of the [[ResponseDecoder]].
+ */
+object ResponseDecoder {
+
+  /**
+   * Creates a decoder from a function.
+   *
+   * @param f   The function which decodes the response.
+   * @param tag The class tag of the decoded content.
+   * @tparam T The type of the decoded content.
+   * @return A decoder.
+   */
+  def apply[T](f: WSResponse => T)(implicit tag: ClassTag[T]): ResponseDecoder[T] = new ResponseDecoder[T] {
+    val runtimeClass: Class[_] = tag.runtimeClass
+    def decode(response: WSResponse): T = f(response)
+  }
+
+  /**
+   * Creates a decoder which parses the response as Json.
+   *
+   * @tparam T The type of the decoded content.
+   * @return A decoder.
+   */
+  def json[T: Reads: ClassTag]: ResponseDecoder[T] = new JsonDecoder[T](implicitly[Reads[T]], implicitly[ClassTag[T]].runtimeClass)
+
+  /**
+   * A decoder which parses the response as Json.
+   *
+   * The `Reads` are exposed, so that Json values which were sent in a binary representation like CBOR can be
+   * decoded with them too.
+   *
+   * @param reads        The `Reads` of the decoded content.
+   * @param runtimeClass The runtime class of the decoded content.
+   * @tparam T The type of the decoded content.
+   */
+  final class JsonDecoder[T](val reads: Reads[T], val runtimeClass: Class[_]) extends ResponseDecoder[T] {
+    def decode(response: WSResponse): T = response.json.as[T](reads)
+  }
+
+  /**
+   * The decoder for responses without content.
+   */
+  case object UnitDecoder extends ResponseDecoder[Unit] {
+    val runtimeClass: Class[_] = classOf[Unit]
+    def decode(response: WSResponse): Unit = ()
+  }
+
+  /**
+   * Some default decoders for primitive types.
+   */
+  implicit val unitDecoder: ResponseDecoder[Unit] = UnitDecoder
+  implicit val stringDecoder: ResponseDecoder[String] = ResponseDecoder[String](_.body)
+  implicit val longDecoder: ResponseDecoder[Long] = ResponseDecoder[Long](_.body.trim.toLong)
+  implicit val intDecoder: ResponseDecoder[Int] = ResponseDecoder[Int](_.body.trim.toInt)
+  implicit val doubleDecoder: ResponseDecoder[Double] = ResponseDecoder[Double](_.body.trim.toDouble)
+  implicit val floatDecoder: ResponseDecoder[Float] = ResponseDecoder[Float](_.body.trim.toFloat)
+  implicit val booleanDecoder: ResponseDecoder[Boolean] = ResponseDecoder[Boolean](_.body.trim.toBoolean)
+  implicit val byteDecoder: ResponseDecoder[Byte] = ResponseDecoder[Byte](_.body.trim.toByte)
+  implicit val shortDecoder: ResponseDecoder[Short] = ResponseDecoder[Short](_.body.trim.toShort)
+  implicit val localDateDecoder: ResponseDecoder[LocalDate] = ResponseDecoder[LocalDate](r => LocalDate.parse(r.body.trim))
+  implicit val offsetDateTimeDecoder: ResponseDecoder[OffsetDateTime] = ResponseDecoder[OffsetDateTime] { r =>
+    OffsetDateTime.parse(r.body.trim)
+  }
+  implicit val anyDecoder: ResponseDecoder[Any] = ResponseDecoder[Any](_.body)
+  implicit val fileDecoder: ResponseDecoder[ApiFile] = ResponseDecoder[ApiFile] { response =>
+    ApiFile(UUID.randomUUID.toString, response.bodyAsBytes)
+  }
+
+  /**
+   * A decoder for optional values, which returns None if the value couldn't be decoded.
+   *
+   * @param decoder The decoder for the value.
+   * @tparam T The type of the value.
+   * @return A decoder.
+   */
+  implicit def optionDecoder[T](implicit decoder: ResponseDecoder[T]): ResponseDecoder[Option[T]] =
+    new ResponseDecoder[Option[T]] {
+      val runtimeClass: Class[_] = classOf[Option[_]]
+      def decode(response: WSResponse): Option[T] = Try(decoder.decode(response)).toOption
+    }
+}
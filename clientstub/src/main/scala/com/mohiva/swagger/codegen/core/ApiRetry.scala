@@ -0,0 +1,189 @@
+/**
+ * Original work: Swagger Codegen (https://github.com/swagger-api/swagger-codegen)
+ * Copyright 2016 Swagger (http://swagger.io)
+ *
+ * Derivative work: Swagger Codegen - Play Scala (https://github.com/mohiva/swagger-codegen-play-scala)
+ * Modifications Copyright 2016 Mohiva Organisation (license at mohiva dot com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mohiva.swagger.codegen.core
+
+import java.util.concurrent.{ ScheduledExecutorService, ScheduledThreadPoolExecutor, ThreadFactory, ThreadLocalRandom, TimeUnit }
+
+import com.mohiva.swagger.codegen.core.ApiRequest.RequestMethod
+
+import scala.concurrent.duration._
+import scala.concurrent.{ Future, Promise }
+
+/**
+ * The retry policy of a request.
+ *
+ * Failed requests will be retried with an exponential backoff and full jitter. Only requests with an idempotent
+ * method and a body which can be sent again will be retried. A request will be retried if it failed before a
+ * response was received or if the API responded with one of the retry status codes.
+ *
+ * GET requests can additionally be hedged: if no response was received after the configured percentile of the
+ * observed latencies of the operation, a second request will be sent and the first response wins.
+ *
+ * @param maxAttempts       The maximum number of attempts, including the first one.
+ * @param initialBackoff    The backoff before the first retry.
+ * @param maxBackoff        The upper bound of the backoff.
+ * @param backoffMultiplier The multiplier by which the backoff grows with every retry.
+ * @param retryStatusCodes  The status codes of responses which should be retried.
+ * @param retryMethods      The methods of requests which should be retried.
+ * @param hedge             Indicates if GET requests should be hedged.
+ * @param hedgePercentile   The percentile of the observed latencies after which a GET request will be hedged.
+ */
+case class RetryPolicy(
+  maxAttempts: Int = 3,
+  initialBackoff: FiniteDuration = 100.millis,
+  maxBackoff: FiniteDuration = 5.seconds,
+  backoffMultiplier: Double = 2.0,
+  retryStatusCodes: Set[Int] = Set(502, 503, 504),
+  retryMethods: Set[RequestMethod] = RetryPolicy.IdempotentMethods,
+  hedge: Boolean = false,
+  hedgePercentile: Double = 95.0) {
+
+  /**
+   * Gets the backoff before a retry.
+   *
+   * The backoff is a random duration between zero and the exponential backoff of the attempt (full jitter), so
+   * that the retries of concurrent requests don't synchronize.
+   *
+   * @param attempt The number of the failed attempt, starting with 1.
+   * @return The backoff.
+   */
+  def backoff(attempt: Int): FiniteDuration = {
+    val exponential = initialBackoff.toNanos * math.pow(backoffMultiplier, (attempt - 1).toDouble)
+    val bound = math.min(maxBackoff.toNanos.toDouble, exponential).toLong
+    if (bound <= 0) Duration.Zero else ThreadLocalRandom.current().nextLong(bound + 1).nanos
+  }
+}
+
+/**
+ * The companion object of the [[RetryPolicy]].
+ */
+object RetryPolicy {
+
+  /**
+   * The idempotent request methods.
+   */
+  val IdempotentMethods: Set[RequestMethod] = Set(
+    RequestMethod.GET,
+    RequestMethod.HEAD,
+    RequestMethod.OPTIONS,
+    RequestMethod.PUT,
+    RequestMethod.DELETE,
+    RequestMethod.TRACE
+  )
+
+  /**
+   * A policy which neither retries nor hedges requests.
+   */
+  val Disabled = RetryPolicy(maxAttempts = 1)
+}
+
+/**
+ * The retry budget, which bounds the retries and hedged requests to a share of the traffic.
+ *
+ * Every request deposits `ratio` tokens and every retry or hedged request withdraws one token, so that a failing
+ * API cannot cause a retry storm. Additionally `minRetriesPerSecond` tokens will be deposited every second, so that
+ * requests can be retried if there is only little traffic.
+ *
+ * @param ratio               The share of the requests which can be retried.
+ * @param minRetriesPerSecond The number of retries per second which are always allowed.
+ * @param maxBalance          The maximum number of tokens which can be saved.
+ */
+case class RetryBudget(ratio: Double = 0.1, minRetriesPerSecond: Int = 10, maxBalance: Int = 100)
+
+/**
+ * The token balance of a retry budget.
+ *
+ * @param budget The retry budget.
+ */
+private[core] class RetryBudgetBalance(budget: RetryBudget) {
+
+  /**
+   * The available tokens.
+   */
+  private var balance: Double = budget.minRetriesPerSecond.toDouble
+
+  /**
+   * The time of the last refill.
+   */
+  private var lastRefill: Long = System.nanoTime()
+
+  /**
+   * Deposits the tokens of a request.
+   */
+  def deposit(): Unit = synchronized {
+    balance = math.min(budget.maxBalance.toDouble, balance + budget.ratio)
+  }
+
+  /**
+   * Tries to withdraw a token for a retry.
+   *
+   * @return True if a token could be withdrawn, false if the budget is exhausted.
+   */
+  def tryWithdraw(): Boolean = synchronized {
+    val now = System.nanoTime()
+    val refill = (now - lastRefill).toDouble / TimeUnit.SECONDS.toNanos(1L) * budget.minRetriesPerSecond
+    balance = math.min(budget.maxBalance.toDouble, balance + refill)
+    lastRefill = now
+    if (balance >= 1) {
+      balance -= 1
+      true
+    } else {
+      false
+    }
+  }
+}
+
+/**
+ * A scheduler which runs the delayed tasks of the client.
+ */
+private[core] object ApiScheduler {
+
+  /**
+   * The underlying executor with a single daemon thread.
+   *
+   * Cancelled tasks will be removed from the queue immediately, so that the timeouts of completed requests don't
+   * keep their state reachable until they would have expired.
+   */
+  lazy val executor: ScheduledExecutorService = {
+    val executor = new ScheduledThreadPoolExecutor(1, new ThreadFactory {
+      override def newThread(r: Runnable): Thread = {
+        val thread = new Thread(r, "api-scheduler")
+        thread.setDaemon(true)
+        thread
+      }
+    })
+    executor.setRemoveOnCancelPolicy(true)
+    executor
+  }
+
+  /**
+   * Returns a future which completes after a delay.
+   *
+   * @param delay The delay.
+   * @return A future which completes after the delay.
+   */
+  def after(delay: FiniteDuration): Future[Unit] = {
+    val promise = Promise[Unit]()
+    executor.schedule(new Runnable {
+      override def run(): Unit = promise.success(())
+    }, delay.toNanos, TimeUnit.NANOSECONDS)
+    promise.future
+  }
+}
@@ -0,0 +1,236 @@
+/**
+ * Original work: Swagger Codegen (https://github.com/swagger-api/swagger-codegen)
+ * Copyright 2016 Swagger (http://swagger.io)
+ *
+ * Derivative work: Swagger Codegen - Play Scala (https://github.com/mohiva/swagger-codegen-play-scala)
+ * Modifications Copyright 2016 Mohiva Organisation (license at mohiva dot com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mohiva.swagger.codegen.core
+
+import java.net.InetSocketAddress
+import java.nio.charset.StandardCharsets
+import java.util.concurrent.atomic.LongAdder
+import java.util.concurrent.{ ExecutorService, Executors, ScheduledExecutorService, ThreadLocalRandom, TimeUnit }
+
+import com.sun.net.httpserver.{ HttpExchange, HttpHandler, HttpServer }
+import play.api.libs.json.{ JsArray, Json }
+
+import scala.concurrent.duration._
+import scala.util.Try
+
+/**
+ * A route of the [[ApiStubServer]], which answers the requests of an API operation.
+ *
+ * @param method      The HTTP request method.
+ * @param path        The operation path, in which params like `{petId}` match any path segment.
+ * @param status      The status code of the responses.
+ * @param contentType The content type of the example payload.
+ * @param example     The optional example payload of the responses.
+ */
+case class StubRoute(
+  method: String,
+  path: String,
+  status: Int = 200,
+  contentType: String = "application/json",
+  example: Option[String] = None)
+
+/**
+ * The settings of the stub server.
+ *
+ * @param latency   The latency which will be added to every response.
+ * @param jitter    The upper bound of a random latency which will be added to the fixed latency.
+ * @param arraySize The number of elements of the Json array payloads, to scale the payload size. The first element of
+ *                  an example array will be repeated. 0 keeps the examples as they are.
+ * @param threads   The number of threads which handle the requests.
+ */
+case class StubSettings(
+  latency: FiniteDuration = Duration.Zero,
+  jitter: FiniteDuration = Duration.Zero,
+  arraySize: Int = 0,
+  threads: Int = 16)
+
+/**
+ * A lightweight in-process server which answers the operations of an API with example payloads.
+ *
+ * The server runs on the loopback interface with the HTTP server of the JDK, so that the throughput of a generated
+ * client can be measured end-to-end over real sockets without a remote API. The routes of all operations of a spec
+ * will be generated into the `StubRoutes` object if the `stubServer` option of the codegen is enabled. The payloads
+ * will be encoded once on startup and the latency will be added without blocking the request handlers, so that the
+ * server itself doesn't become the bottleneck.
+ *
+ * @param routes   The routes of the server.
+ * @param settings The settings of the server.
+ * @param port     The port of the server, 0 means a random free port.
+ */
+class ApiStubServer(routes: Seq[StubRoute], settings: StubSettings = StubSettings(), port: Int = 0) {
+  import ApiStubServer._
+
+  /**
+   * The routes by request method, with the routes without params first.
+   */
+  private val compiled: Map[String, Seq[CompiledRoute]] = routes.map { route =>
+    CompiledRoute(
+      route = route,
+      segments = segments(route.path).map(s => if (s.startsWith("{") && s.endsWith("}")) null else s),
+      payload = route.example.map(example => payload(example, settings.arraySize))
+    )
+  }.groupBy(_.route.method.toUpperCase).map {
+    case (method, methodRoutes) => method -> methodRoutes.sortBy(_.segments.count(_ == null))
+  }
+
+  /**
+   * The number of answered requests.
+   */
+  private val requests = new LongAdder
+
+  /**
+   * The executor of the request handlers.
+   */
+  private val executor: ExecutorService = Executors.newFixedThreadPool(settings.threads)
+
+  /**
+   * The scheduler which delays the responses.
+   */
+  private val scheduler: ScheduledExecutorService = Executors.newSingleThreadScheduledExecutor()
+
+  /**
+   * The underlying HTTP server.
+   */
+  private val server: HttpServer = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 1024)
+  server.setExecutor(executor)
+  server.createContext("/", new HttpHandler {
+    override def handle(exchange: HttpExchange): Unit = {
+      val in = exchange.getRequestBody
+      val buffer = new Array[Byte](8192)
+      while (in.read(buffer) >= 0) {}
+      in.close()
+
+      val respond = new Runnable {
+        override def run(): Unit = ApiStubServer.this.respond(exchange)
+      }
+      val delay = settings.latency.toNanos +
+        (if (settings.jitter > Duration.Zero) ThreadLocalRandom.current().nextLong(settings.jitter.toNanos + 1) else 0L)
+      if (delay > 0) {
+        scheduler.schedule(new Runnable {
+          override def run(): Unit = executor.execute(respond)
+        }, delay, TimeUnit.NANOSECONDS)
+      } else {
+        respond.run()
+      }
+    }
+  })
+  server.start()
+
+  /**
+   * The base URL of the server.
+   */
+  val url: String = s"http://127.0.0.1:${server.getAddress.getPort}"
+
+  /**
+   * Gets the number of answered requests.
+   *
+   * @return The number of answered requests.
+   */
+  def requestCount: Long = requests.sum()
+
+  /**
+   * Stops the server.
+   */
+  def stop(): Unit = {
+    server.stop(0)
+    scheduler.shutdownNow()
+    executor.shutdownNow()
+  }
+
+  /**
+   * Answers a request with the payload of its route, or with 404 if no route matches.
+   *
+   * @param exchange The HTTP exchange.
+   */
+  private def respond(exchange: HttpExchange): Unit = {
+    try {
+      val requestSegments = segments(exchange.getRequestURI.getRawPath)
+      compiled.getOrElse(exchange.getRequestMethod.toUpperCase, Nil).find(_.matches(requestSegments)) match {
+        case Some(CompiledRoute(route, _, Some(payload))) if route.status != 204 =>
+          exchange.getResponseHeaders.set("Content-Type", route.contentType)
+          exchange.sendResponseHeaders(route.status, payload.length.toLong)
+          exchange.getResponseBody.write(payload)
+        case Some(CompiledRoute(route, _, _)) =>
+          exchange.sendResponseHeaders(route.status, -1L)
+        case None =>
+          exchange.sendResponseHeaders(404, -1L)
+      }
+      requests.increment()
+    } finally {
+      exchange.close()
+    }
+  }
+}
+
+/**
+ * The companion object of the [[ApiStubServer]].
+ */
+object ApiStubServer {
+
+  /**
+   * A route with its parsed path and its encoded payload.
+   *
+   * @param route    The route.
+   * @param segments The path segments, with null for the params.
+   * @param payload  The encoded payload.
+   */
+  private case class CompiledRoute(route: StubRoute, segments: Array[String], payload: Option[Array[Byte]]) {
+
+    /**
+     * Indicates if the route matches the segments of a request path.
+     *
+     * @param requestSegments The segments of the request path.
+     * @return True if the route matches, false otherwise.
+     */
+    def matches(requestSegments: Array[String]): Boolean = {
+      segments.length == requestSegments.length && segments.indices.forall { i =>
+        segments(i) == null || segments(i) == requestSegments(i)
+      }
+    }
+  }
+
+  /**
+   * Splits a path into its segments.
+   *
+   * @param path The path.
+   * @return The non-empty segments of the path.
+   */
+  private def segments(path: String): Array[String] = path.split('/').filter(_.nonEmpty)
+
+  /**
+   * Encodes the payload of an example.
+   *
+   * @param example   The example.
+   * @param arraySize The number of elements of a Json array payload, or 0 to keep the example as it is.
+   * @return The encoded payload.
+   */
+  private def payload(example: String, arraySize: Int): Array[Byte] = {
+    val scaled =
+      if (arraySize <= 0) {
+        example
+      } else {
+        Try(Json.parse(example)).toOption match {
+          case Some(JsArray(values)) if values.nonEmpty => Json.stringify(JsArray(Vector.fill(arraySize)(values.head)))
+          case _                                        => example
+        }
+      }
+    scaled.getBytes(StandardCharsets.UTF_8)
+  }
+}
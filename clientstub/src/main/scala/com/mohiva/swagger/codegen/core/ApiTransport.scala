@@ -0,0 +1,98 @@
+/**
+ * Original work: Swagger Codegen (https://github.com/swagger-api/swagger-codegen)
+ * Copyright 2016 Swagger (http://swagger.io)
+ *
+ * Derivative work: Swagger Codegen - Play Scala (https://github.com/mohiva/swagger-codegen-play-scala)
+ * Modifications Copyright 2016 Mohiva Organisation (license at mohiva dot com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mohiva.swagger.codegen.core
+
+import akka.stream.Materializer
+import play.api.libs.ws.WSClientConfig
+import play.api.libs.ws.ahc.{ AhcWSClient, AhcWSClientConfig }
+
+import scala.concurrent.duration._
+
+/**
+ * The transport settings of a dedicated WS client for an API.
+ *
+ * By default all APIs share the WS client configured in `play.ws`. An API whose upstream needs other pool sizes or
+ * timeouts can send its requests over a dedicated client instead, which will be created with these settings by
+ * [[ApiTransport.client]].
+ *
+ * Requests which exceed the connection limits fail instead of waiting for a connection. To queue them, the
+ * concurrency limits of the [[ApiConfig]] must be lower than the connection limits.
+ *
+ * @param maxConnectionsTotal   The maximum number of open connections, -1 means unlimited.
+ * @param maxConnectionsPerHost The maximum number of open connections per host, -1 means unlimited.
+ * @param connectTimeout        The timeout to establish a connection.
+ * @param idleTimeout           The time after which a connection without traffic will be closed.
+ * @param pooledIdleTimeout     The time after which an idle connection will be removed from the pool.
+ * @param maxConnectionLifetime The optional maximum lifetime of a pooled connection. Defaults to None, which means
+ *                              that a connection can be reused as long as it's open.
+ * @param keepAlive             Indicates if connections should be kept alive and reused.
+ * @param compression           Indicates if gzip and deflate encoded responses should be requested and decompressed.
+ * @param userAgent             The optional user agent of the requests.
+ */
+case class TransportConfig(
+  maxConnectionsTotal: Int = -1,
+  maxConnectionsPerHost: Int = -1,
+  connectTimeout: FiniteDuration = 5.seconds,
+  idleTimeout: FiniteDuration = 60.seconds,
+  pooledIdleTimeout: FiniteDuration = 60.seconds,
+  maxConnectionLifetime: Option[FiniteDuration] = None,
+  keepAlive: Boolean = true,
+  compression: Boolean = false,
+  userAgent: Option[String] = None)
+
+/**
+ * Creates the dedicated WS clients of the APIs.
+ */
+object ApiTransport {
+
+  /**
+   * Creates a dedicated WS client with the given transport settings.
+   *
+   * The client holds its own connection pool and must be closed if it's no longer needed. The request timeout isn't
+   * part of the transport settings, because the invoker sets it on every request.
+   *
+   * @param config       The transport settings.
+   * @param materializer The materializer used to stream the bodies.
+   * @return The WS client.
+   */
+  def client(config: TransportConfig)(implicit materializer: Materializer): AhcWSClient = {
+    AhcWSClient(ahcConfig(config))
+  }
+
+  /**
+   * Translates the transport settings into the config of an AHC WS client.
+   *
+   * @param config The transport settings.
+   * @return The config of the AHC WS client.
+   */
+  def ahcConfig(config: TransportConfig): AhcWSClientConfig = AhcWSClientConfig(
+    wsClientConfig = WSClientConfig(
+      connectionTimeout = config.connectTimeout,
+      idleTimeout = config.idleTimeout,
+      userAgent = config.userAgent,
+      compressionEnabled = config.compression
+    ),
+    maxConnectionsPerHost = config.maxConnectionsPerHost,
+    maxConnectionsTotal = config.maxConnectionsTotal,
+    maxConnectionLifetime = config.maxConnectionLifetime.getOrElse(Duration.Inf),
+    idleConnectionInPoolTimeout = config.pooledIdleTimeout,
+    keepAlive = config.keepAlive
+  )
+}
@@ -38,7 +38,6 @@ case class User(
 object User {
   import ai.x.play.json.Jsonx
   import play.api.libs.json.OFormat
-  import com.mohiva.swagger.codegen.core.ApiJsonFormats.enumValueFormat
 
   /**
    * The `Gender` enum.
@@ -47,6 +46,11 @@ object User {
   object Gender extends Enumeration {
     val Male: Value = Value("Male")
     val Female: Value = Value("Female")
+
+    /**
+     * Converts a [[Gender]] value into a JSON string.
+     */
+    implicit val jsonFormat: play.api.libs.json.Format[Value] = com.mohiva.swagger.codegen.core.ApiJsonFormats.enumFormat(this)
   }
 
   /**
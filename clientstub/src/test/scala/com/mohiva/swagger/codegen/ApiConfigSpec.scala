@@ -0,0 +1,106 @@
+/**
+ * Copyright 2016 Mohiva Organisation (license at mohiva dot com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mohiva.swagger.codegen
+
+import java.nio.charset.StandardCharsets
+
+import com.mohiva.swagger.codegen.core._
+import com.typesafe.config.{ Config, ConfigFactory }
+import org.apache.commons.io.IOUtils
+import org.specs2.control.NoLanguageFeatures
+import org.specs2.mutable.Specification
+import org.specs2.specification.Scope
+
+import scala.concurrent.duration._
+
+/**
+ * Test case for the [[ApiConfig]] class, which reads the `reference.conf` rendered by the generator.
+ */
+class ApiConfigSpec extends Specification with NoLanguageFeatures {
+
+  "The `fromConfig` method" should {
+    "read the API config with the defaults of the reference.conf" in new Context {
+      val config = ApiConfig.fromConfig(reference, "petstore")
+
+      config.url must beNone
+      config.requestTimeout must be equalTo 20.seconds
+      config.maximumJsonObjectLength must be equalTo 1024 * 1024
+      config.cache must beNone
+      config.limits must beNone
+      config.retry must beNone
+      config.retryBudget must be equalTo RetryBudget()
+      config.transport must beNone
+      config.executors must beNone
+      config.circuitBreakers must beNone
+    }
+
+    "read the API config with all sections of the reference.conf enabled" in new Context {
+      val config = ApiConfig.fromConfig(ConfigFactory.parseString(
+        """petstore {
+          |  url = "https://petstore.example.com"
+          |  cache.enabled = true
+          |  cache.operations = ["getPetById"]
+          |  limits.enabled = true
+          |  limits.operations.getPetById.maxLimit = 10
+          |  retry.enabled = true
+          |  retry.hedge = true
+          |  transport.enabled = true
+          |  transport.maxConnectionLifetime = 10 minutes
+          |  transport.userAgent = "petstore"
+          |  executors.enabled = true
+          |  circuitBreaker.enabled = true
+          |  circuitBreaker.operations.getPetById.openDuration = 10 seconds
+          |}
+        """.stripMargin).withFallback(reference), "petstore")
+
+      try {
+        config.url must beSome("https://petstore.example.com")
+        config.cache must beSome
+        config.limits must beSome(ConcurrencyLimits(
+          operations = Map("getPetById" -> LimiterSettings(maxLimit = 10))
+        ))
+        config.retry must beSome(RetryPolicy(hedge = true))
+        config.transport must beSome(TransportConfig(
+          maxConnectionLifetime = Some(10.minutes),
+          userAgent = Some("petstore")
+        ))
+        config.executors.map(_.config) must beSome(ExecutorConfig(
+          decodeName = "petstore-decode",
+          blockingName = "petstore-blocking"
+        ))
+        config.circuitBreakers must beSome(CircuitBreakers(
+          operations = Map("getPetById" -> CircuitBreakerSettings(openDuration = 10.seconds))
+        ))
+      } finally {
+        config.executors.foreach(_.shutdown())
+      }
+    }
+  }
+
+  /**
+   * The context.
+   */
+  trait Context extends Scope {
+
+    /**
+     * The reference.conf as the generator renders it for the config path `petstore`.
+     */
+    lazy val reference: Config = {
+      val template = IOUtils.toString(getClass.getClassLoader.getResourceAsStream("play-scala/reference.mustache"), StandardCharsets.UTF_8)
+      ConfigFactory.parseString(template.replace("{{configPath}}", "petstore"))
+    }
+  }
+}
@@ -15,12 +15,18 @@
  */
 package com.mohiva.swagger.codegen
 
-import java.io.FileNotFoundException
+import java.io.{ ByteArrayOutputStream, FileNotFoundException }
+import java.lang.ref.WeakReference
 import java.nio.file.{ Path, Paths }
 import java.time.{ LocalDate, OffsetDateTime, ZoneOffset }
-
-import com.mohiva.swagger.codegen.core.ApiRequest.{ ApiKey, BasicCredentials }
-import com.mohiva.swagger.codegen.core.{ ApiConfig, ApiError, ApiFile, ApiInvoker }
+import java.util.concurrent.{ ConcurrentLinkedQueue, TimeoutException }
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.zip.{ GZIPInputStream, GZIPOutputStream, InflaterInputStream }
+import javax.inject.Inject
+
+import akka.util.ByteString
+import com.mohiva.swagger.codegen.core.ApiRequest.{ ApiKey, BasicCredentials, Config, ContentEncoding, RequestCompression }
+import com.mohiva.swagger.codegen.core._
 import com.mohiva.swagger.codegen.models.User
 import mockws.{ MockWS, MockWSHelpers, Route }
 import org.apache.commons.io.IOUtils
@@ -29,14 +35,23 @@ import org.specs2.matcher.ContentMatchers
 import org.specs2.mutable.Specification
 import org.specs2.specification.Scope
 import play.api.http.{ DefaultFileMimeTypes, FileMimeTypes, FileMimeTypesConfiguration }
-import play.api.libs.json.Json
+import play.api.libs.json.{ JsObject, JsString, Json }
+import play.api.inject.bind
+import play.api.inject.guice.GuiceApplicationBuilder
+import play.api.libs.ws.WSClient
+import play.api.libs.ws.ahc.AhcConfigBuilder
+import play.api.mvc.Result
 import play.api.mvc.Results._
+import play.api.test.Helpers.running
 import play.api.test.WithApplication
+import play.shaded.ahc.org.asynchttpclient.AsyncHttpClient
 
+import scala.collection.JavaConverters._
 import scala.concurrent.ExecutionContext.Implicits.global
 import scala.concurrent.duration._
-import scala.concurrent.{ Await, Future }
+import scala.concurrent.{ Await, Future, Promise }
 import scala.language.postfixOps
+import scala.util.Try
 
 /**
  * Test case for the [[TestApi]] class.
@@ -50,6 +65,352 @@ class TestApiSpec extends Specification with NoLanguageFeatures with ContentMatc
       await(testApi.testGet()).content must beEqualTo(())
     }
 
+    "coalesce identical in-flight GET requests" in new Context {
+      val counter = new AtomicInteger(0)
+      val route = Route {
+        case ("GET", "/test") => Action.async { request =>
+          val count = counter.incrementAndGet()
+          Future {
+            Thread.sleep(500)
+            Ok(count.toString)
+          }
+        }
+      }
+
+      val responses = Future.sequence(Seq.fill(5)(testApi.testCoalescedGet()))
+
+      await(responses).map(_.content) must be equalTo Seq.fill(5)("1")
+      counter.get must be equalTo 1
+    }
+
+    "not coalesce sequential GET requests" in new Context {
+      val counter = new AtomicInteger(0)
+      val route = Route {
+        case ("GET", "/test") => Action { request =>
+          Ok(counter.incrementAndGet().toString)
+        }
+      }
+
+      await(testApi.testCoalescedGet()).content must be equalTo "1"
+      await(testApi.testCoalescedGet()).content must be equalTo "2"
+    }
+
+    "serve a fresh response from the cache" in new Context {
+      val counter = new AtomicInteger(0)
+      val route = Route {
+        case ("GET", "/test") => Action { request =>
+          Ok(counter.incrementAndGet().toString).withHeaders("Cache-Control" -> "max-age=60")
+        }
+      }
+      val cache = new ApiCache(1024L)
+      override lazy val apiConfig: ApiConfig = ApiConfig(cache = Some(cache))
+
+      await(testApi.testCachedGet()).content must be equalTo "1"
+      await(testApi.testCachedGet()).content must be equalTo "1"
+      cache.stats.hits must be equalTo 1L
+      cache.stats.misses must be equalTo 1L
+    }
+
+    "revalidate a stale response with its ETag" in new Context {
+      val counter = new AtomicInteger(0)
+      val route = Route {
+        case ("GET", "/test") => Action { request =>
+          request.headers.get("If-None-Match") match {
+            case Some("\"etag\"") => NotModified
+            case _                => Ok(counter.incrementAndGet().toString).withHeaders("Cache-Control" -> "no-cache", "ETag" -> "\"etag\"")
+          }
+        }
+      }
+      val cache = new ApiCache(1024L)
+      override lazy val apiConfig: ApiConfig = ApiConfig(cache = Some(cache))
+
+      await(testApi.testCachedGet()).content must be equalTo "1"
+      await(testApi.testCachedGet()).content must be equalTo "1"
+      cache.stats.revalidations must be equalTo 1L
+      cache.stats.misses must be equalTo 1L
+    }
+
+    "not store a response with the no-store directive" in new Context {
+      val counter = new AtomicInteger(0)
+      val route = Route {
+        case ("GET", "/test") => Action { request =>
+          Ok(counter.incrementAndGet().toString).withHeaders("Cache-Control" -> "no-store", "ETag" -> "\"etag\"")
+        }
+      }
+      val cache = new ApiCache(1024L)
+      override lazy val apiConfig: ApiConfig = ApiConfig(cache = Some(cache))
+
+      await(testApi.testCachedGet()).content must be equalTo "1"
+      await(testApi.testCachedGet()).content must be equalTo "2"
+      cache.stats.entries must be equalTo 0
+    }
+
+    "bypass the cache if it's disabled in the request config" in new Context {
+      val counter = new AtomicInteger(0)
+      val route = Route {
+        case ("GET", "/test") => Action { request =>
+          Ok(counter.incrementAndGet().toString).withHeaders("Cache-Control" -> "max-age=60")
+        }
+      }
+      val cache = new ApiCache(1024L)
+      override lazy val apiConfig: ApiConfig = ApiConfig(cache = Some(cache))
+
+      await(testApi.testCachedGet(Config(cache = Some(false)))).content must be equalTo "1"
+      await(testApi.testCachedGet(Config(cache = Some(false)))).content must be equalTo "2"
+      cache.stats.misses must be equalTo 0L
+    }
+
+    "evict the least recently used response if the cache is full" in new Context {
+      val route = Route {
+        case ("GET", url) => Action { request =>
+          Ok(url).withHeaders("Cache-Control" -> "max-age=60")
+        }
+      }
+      val cache = new ApiCache(10L)
+      override lazy val apiConfig: ApiConfig = ApiConfig(cache = Some(cache))
+
+      await(testApi.testCachedGet(Config(url = Some("/a")))).content must be equalTo "/a/test"
+      await(testApi.testCachedGet(Config(url = Some("/b")))).content must be equalTo "/b/test"
+      cache.stats.entries must be equalTo 1
+      cache.stats.evictions must be equalTo 1L
+    }
+
+    "reject a request if the concurrency limit is exceeded" in new Context {
+      val route = Route {
+        case ("GET", "/test") => Action.async { request =>
+          Future {
+            Thread.sleep(500)
+            Ok("test")
+          }
+        }
+      }
+      val settings = LimiterSettings(initialLimit = 1, maxLimit = 1, maxQueueSize = 0)
+      override lazy val apiConfig: ApiConfig = ApiConfig(limits = Some(ConcurrencyLimits(settings, settings)))
+
+      val first = testApi.testCachedGet()
+      await(testApi.testCachedGet()) must throwA[ApiLimitExceededError]
+      await(first).content must be equalTo "test"
+    }
+
+    "queue a request until a permit gets available" in new Context {
+      val route = Route {
+        case ("GET", "/test") => Action.async { request =>
+          Future {
+            Thread.sleep(200)
+            Ok("test")
+          }
+        }
+      }
+      val settings = LimiterSettings(initialLimit = 1, maxLimit = 1, maxQueueSize = 1, maxWait = 5.seconds)
+      override lazy val apiConfig: ApiConfig = ApiConfig(limits = Some(ConcurrencyLimits(settings, settings)))
+
+      val responses = Future.sequence(Seq(testApi.testCachedGet(), testApi.testCachedGet()))
+
+      await(responses).map(_.content) must be equalTo Seq("test", "test")
+    }
+
+    "send the requests over a dedicated WS client if the transport is configured" in new Context {
+      val route = Route {
+        case ("GET", "/test") => Action(Ok("shared"))
+      }
+      val server = new ApiStubServer(Seq(StubRoute("GET", "/test", contentType = "text/plain", example = Some("dedicated"))))
+      override lazy val apiConfig: ApiConfig = ApiConfig(url = Some(server.url), transport = Some(TransportConfig()))
+
+      try {
+        await(testApi.testCachedGet()).content must be equalTo "dedicated"
+      } finally {
+        apiInvoker.close()
+        server.stop()
+      }
+    }
+
+    "share one invoker and its dedicated WS client between the injected APIs" in {
+      val app = new GuiceApplicationBuilder()
+        .overrides(bind[ApiConfig].toInstance(ApiConfig(transport = Some(TransportConfig()))))
+        .build()
+
+      val (first, second, shared) = running(app) {
+        (
+          app.injector.instanceOf[FirstInjectedApi].apiInvoker,
+          app.injector.instanceOf[SecondInjectedApi].apiInvoker,
+          app.injector.instanceOf[WSClient]
+        )
+      }
+
+      first must be(second)
+      first.wsClient must not(be(shared))
+      first.wsClient.underlying[AsyncHttpClient].isClosed must beTrue
+    }
+
+    "translate the transport settings into the config of the AHC client" in {
+      val transport = TransportConfig(
+        maxConnectionsTotal = 20,
+        maxConnectionsPerHost = 10,
+        connectTimeout = 1.second,
+        idleTimeout = 2.seconds,
+        pooledIdleTimeout = 3.seconds,
+        maxConnectionLifetime = Some(10.minutes),
+        keepAlive = false,
+        compression = true,
+        userAgent = Some("test")
+      )
+      val config = new AhcConfigBuilder(ApiTransport.ahcConfig(transport)).build()
+
+      config.getMaxConnections must be equalTo 20
+      config.getMaxConnectionsPerHost must be equalTo 10
+      config.getConnectTimeout must be equalTo 1000
+      config.getReadTimeout must be equalTo 2000
+      config.getPooledConnectionIdleTimeout must be equalTo 3000
+      config.getConnectionTtl must be equalTo 600000
+      config.isKeepAlive must beFalse
+      config.isCompressionEnforced must beTrue
+      config.getUserAgent must be equalTo "test"
+    }
+
+    "reject requests immediately while the circuit breaker is open" in new Context {
+      val counter = new AtomicInteger(0)
+      val route = Route {
+        case ("GET", "/test") => Action {
+          counter.incrementAndGet()
+          ServiceUnavailable
+        }
+      }
+      val settings = CircuitBreakerSettings(windowSize = 4, minCalls = 2, openDuration = 1.minute)
+      override lazy val apiConfig: ApiConfig = ApiConfig(circuitBreakers = Some(CircuitBreakers(settings)))
+
+      await(testApi.testCachedGet()) must throwA[ApiError[_]]
+      await(testApi.testCachedGet()) must throwA[ApiError[_]]
+      await(testApi.testCachedGet()) must throwA[ApiCircuitOpenError]
+      counter.get must be equalTo 2
+      apiInvoker.circuitBreakerSnapshot()("").rejected must be equalTo 1L
+    }
+
+    "close the circuit breaker if the probe calls succeed" in new Context {
+      val counter = new AtomicInteger(0)
+      val route = Route {
+        case ("GET", "/test") => Action {
+          if (counter.incrementAndGet() <= 2) ServiceUnavailable else Ok("test")
+        }
+      }
+      val events = new ConcurrentLinkedQueue[CircuitBreakerEvent]()
+      val listener = new ApiInvokerListener {
+        def onComplete(metrics: RequestMetrics): Unit = ()
+        override def onCircuitBreakerEvent(event: CircuitBreakerEvent): Unit = events.add(event)
+      }
+      val settings = CircuitBreakerSettings(windowSize = 4, minCalls = 2, openDuration = 100.millis, halfOpenCalls = 1)
+      override lazy val apiConfig: ApiConfig = ApiConfig(
+        listener = listener,
+        circuitBreakers = Some(CircuitBreakers(settings))
+      )
+
+      await(testApi.testCachedGet()) must throwA[ApiError[_]]
+      await(testApi.testCachedGet()) must throwA[ApiError[_]]
+      Thread.sleep(200)
+      await(testApi.testCachedGet()).content must be equalTo "test"
+      events.asScala.map(e => e.from -> e.to).toList must be equalTo List(
+        CircuitState.Closed -> CircuitState.Open,
+        CircuitState.Open -> CircuitState.HalfOpen,
+        CircuitState.HalfOpen -> CircuitState.Closed
+      )
+      apiInvoker.circuitBreakerSnapshot()("").transitions(CircuitState.Open) must be equalTo 1L
+    }
+
+    "open the circuit breaker if the calls are too slow" in new Context {
+      val route = Route {
+        case ("GET", "/test") => Action.async { request =>
+          Future {
+            Thread.sleep(100)
+            Ok("test")
+          }
+        }
+      }
+      val settings = CircuitBreakerSettings(windowSize = 4, minCalls = 2, slowCallDuration = 50.millis)
+      override lazy val apiConfig: ApiConfig = ApiConfig(circuitBreakers = Some(CircuitBreakers(settings)))
+
+      await(testApi.testCachedGet()).content must be equalTo "test"
+      await(testApi.testCachedGet()).content must be equalTo "test"
+      await(testApi.testCachedGet()) must throwA[ApiCircuitOpenError]
+    }
+
+    "retry a request which responded with a retry status code" in new Context {
+      val counter = new AtomicInteger(0)
+      val route = Route {
+        case ("GET", "/test") => Action {
+          val attempt = counter.incrementAndGet()
+          if (attempt < 3) ServiceUnavailable else Ok(attempt.toString)
+        }
+      }
+
+      await(testApi.testRetriedGet()).content must be equalTo "3"
+    }
+
+    "not retry a request more often than the policy allows" in new Context {
+      val counter = new AtomicInteger(0)
+      val route = Route {
+        case ("GET", "/test") => Action {
+          counter.incrementAndGet()
+          ServiceUnavailable
+        }
+      }
+
+      await(testApi.testRetriedGet()) must throwA[ApiError[_]]
+      counter.get must be equalTo 3
+    }
+
+    "not retry a request if the request config disables retries" in new Context {
+      val counter = new AtomicInteger(0)
+      val route = Route {
+        case ("GET", "/test") => Action {
+          counter.incrementAndGet()
+          ServiceUnavailable
+        }
+      }
+
+      await(testApi.testRetriedGet(Config(retry = Some(RetryPolicy.Disabled)))) must throwA[ApiError[_]]
+      counter.get must be equalTo 1
+    }
+
+    "use the response of the hedged request if the first request fails" in new Context {
+      val counter = new AtomicInteger(0)
+      val route = Route {
+        case ("GET", "/test") => Action.async { request =>
+          val attempt = counter.incrementAndGet()
+          Future {
+            if (attempt <= 20) {
+              Thread.sleep(20)
+              Ok("warmup")
+            } else if (attempt == 21) {
+              Thread.sleep(200)
+              ServiceUnavailable
+            } else {
+              Thread.sleep(400)
+              Ok("hedge")
+            }
+          }
+        }
+      }
+      val policy = RetryPolicy(maxAttempts = 1, hedge = true)
+
+      (1 to 20).foreach(_ => await(testApi.testRetriedGet(Config(retry = Some(policy)))))
+
+      await(testApi.testRetriedGet(Config(retry = Some(policy)))).content must be equalTo "hedge"
+      counter.get must be equalTo 22
+    }
+
+    "not retry a request with a non idempotent method" in new Context {
+      val counter = new AtomicInteger(0)
+      val route = Route {
+        case ("POST", "/test") => Action {
+          counter.incrementAndGet()
+          ServiceUnavailable
+        }
+      }
+      override lazy val apiConfig: ApiConfig = ApiConfig(retry = Some(RetryPolicy()))
+
+      await(testApi.testPost()) must throwA[ApiError[_]]
+      counter.get must be equalTo 1
+    }
+
     "send a POST request" in new Context {
       val route = Route { case ("POST", "/test") => Action(NoContent) }
 
@@ -66,6 +427,68 @@ class TestApiSpec extends Specification with NoLanguageFeatures with ContentMatc
       await(testApi.testPostWithBody(user)).content must beEqualTo(user)
     }
 
+    "send a POST request with a gzip compressed body" in new Context {
+      val route = Route {
+        case ("POST", "/test") => Action(BodyParser.byteString) { request =>
+          if (request.headers.get("Content-Encoding").contains("gzip")) {
+            Ok(Json.parse(new GZIPInputStream(request.body.iterator.asInputStream)))
+          } else {
+            BadRequest
+          }
+        }
+      }
+
+      await(testApi.testPostWithCompressedBody(user)).content must beEqualTo(user)
+    }
+
+    "send a POST request with a deflate compressed body if the request config overrides the compression" in new Context {
+      val route = Route {
+        case ("POST", "/test") => Action(BodyParser.byteString) { request =>
+          if (request.headers.get("Content-Encoding").contains("deflate")) {
+            Ok(Json.parse(new InflaterInputStream(request.body.iterator.asInputStream)))
+          } else {
+            BadRequest
+          }
+        }
+      }
+
+      val config = Config(compression = Some(RequestCompression(ContentEncoding.Deflate, minSize = 0)))
+
+      await(testApi.testPostWithCompressedBody(user, config)).content must beEqualTo(user)
+    }
+
+    "send a POST request with an uncompressed body if the body is smaller than the minimum size" in new Context {
+      val route = Route {
+        case ("POST", "/test") => Action(BodyParser.json) { request =>
+          if (request.headers.get("Content-Encoding").isEmpty) Ok(request.body) else BadRequest
+        }
+      }
+
+      val config = Config(compression = Some(RequestCompression.Disabled))
+
+      await(testApi.testPostWithCompressedBody(user, config)).content must beEqualTo(user)
+    }
+
+    "send a POST request with a body encoded with jsoniter-scala" in new Context {
+      val route = Route {
+        case ("POST", "/test") => Action(BodyParser.json) { request =>
+          Ok(request.body)
+        }
+      }
+
+      await(testApi.testPostWithJsoniterBody(user)).content must beEqualTo(user)
+    }
+
+    "send a POST request with a CBOR body if the operation consumes CBOR" in new Context {
+      val route = Route {
+        case ("POST", "/test") => Action(BodyParser.byteString) { request =>
+          if (request.contentType.contains(MediaTypes.Cbor)) Ok(Cbor.parse(request.body)) else BadRequest
+        }
+      }
+
+      await(testApi.testPostWithCborBody(user)).content must beEqualTo(user)
+    }
+
     "send a PUT request" in new Context {
       val route = Route { case ("PUT", "/test") => Action(NoContent) }
 
@@ -208,6 +631,20 @@ class TestApiSpec extends Specification with NoLanguageFeatures with ContentMatc
       file.asByteArray must be equalTo file(path).asByteArray
     }
 
+    "send a request with a path-backed File body" in new Context {
+      val path: Path = Paths.get("test.txt")
+      val route = Route {
+        case ("POST", "/test") => Action { request =>
+          val f = request.body.asRaw.map(_.asFile).get
+          Ok.sendFile(f)
+        }
+      }
+
+      val file: ApiFile = await(testApi.testRequestWithFileBody(ApiFile(resource(path)))).content
+
+      file.asByteArray must be equalTo file(path).asByteArray
+    }
+
     "send a request with an Int body" in new Context {
       val route = Route {
         case ("POST", "/test") => Action { request =>
@@ -293,6 +730,26 @@ class TestApiSpec extends Specification with NoLanguageFeatures with ContentMatc
       )).content must be equalTo "test1.txt-test2.txt-test3.txt-test-true"
     }
 
+    "send a request with path-backed and ByteString-backed files as multipart-form data" in new WithApplication with Context {
+      val route = Route {
+        case ("POST", "/test") => Action(BodyParser.multipartFormData) { request =>
+          val file1 = request.body.file("file").map(_.filename).getOrElse(throw new Exception("Not found `file`"))
+          val file2 = request.body.file("files0").map(_.filename).getOrElse(throw new Exception("Not found `files0`"))
+          val file3 = request.body.file("files1").map(_.filename).getOrElse(throw new Exception("Not found `files1`"))
+          val param = request.body.dataParts("param").mkString("")
+          val returnFile = request.body.dataParts("returnFile").mkString("")
+          Ok(file1 + "-" + file2 + "-" + file3 + "-" + param + "-" + returnFile)
+        }
+      }
+
+      await(testApi.testRequestWithMultipartFormData(
+        ApiFile(resource(Paths.get("test1.txt"))),
+        Seq(ApiFile(resource(Paths.get("test2.txt"))), ApiFile("test3.txt", ByteString("test3"))),
+        "test",
+        returnFile = true
+      )).content must be equalTo "test1.txt-test2.txt-test3.txt-test-true"
+    }
+
     "send a request with form-url-encoded data" in new Context {
       val route = Route {
         case ("POST", "/test") => Action(BodyParser.formUrlEncoded) { request =>
@@ -378,6 +835,81 @@ class TestApiSpec extends Specification with NoLanguageFeatures with ContentMatc
       await(testApi.testRequestWithQueryParameters("test", 12345)).content must be equalTo "param1=test&param2=12345"
     }
 
+    "send a batch of requests and emit the results in the order of the requests" in new Context {
+      val route = Route {
+        case ("GET", "/test") => Action.async { request =>
+          Future {
+            Thread.sleep((10 - request.getQueryString("param2").map(_.toInt).getOrElse(0)) * 10L)
+            Ok(toQueryString(request.queryString))
+          }
+        }
+      }
+
+      val params = (1 to 10).map(i => ("test", i))
+      val results = await(testApi.testRequestWithQueryParametersBatch(params, parallelism = 4)
+        .runFold(Seq.empty[Try[ApiResponse[String]]])(_ :+ _))
+
+      results.map(_.get.content) must be equalTo params.map { case (p1, p2) => s"param1=$p1&param2=$p2" }
+    }
+
+    "not fail a batch if a request of the batch fails" in new Context {
+      val route = Route {
+        case ("GET", "/test") => Action { request =>
+          if (request.getQueryString("param2").contains("2")) InternalServerError
+          else Ok(toQueryString(request.queryString))
+        }
+      }
+
+      val results = await(testApi.testRequestWithQueryParametersBatch(Seq(("test", 1), ("test", 2), ("test", 3)))
+        .runFold(Seq.empty[Try[ApiResponse[String]]])(_ :+ _))
+
+      results must have size 3
+      results(0) must beSuccessfulTry
+      results(1) must beFailedTry.withThrowable[ApiError[_]]
+      results(2) must beSuccessfulTry
+    }
+
+    "fail the requests of a batch which didn't complete within the deadline" in new Context {
+      val route = Route {
+        case ("GET", "/test") => Action.async { request =>
+          if (request.getQueryString("param2").contains("2")) Promise[Result]().future
+          else Future.successful(Ok(toQueryString(request.queryString)))
+        }
+      }
+
+      val results = await(testApi.testRequestWithQueryParametersBatch(
+        Seq(("test", 1), ("test", 2), ("test", 3)),
+        parallelism = 1,
+        deadline = Some(200 millis)
+      ).runFold(Seq.empty[Try[ApiResponse[String]]])(_ :+ _))
+
+      results(0) must beSuccessfulTry
+      results(1) must beFailedTry.withThrowable[TimeoutException]
+      results(2) must beFailedTry.withThrowable[TimeoutException]
+    }
+
+    "not keep the results of a batch reachable until the deadline expires" in new Context {
+      val route = Route {
+        case ("GET", "/test") => Action { request =>
+          Ok(toQueryString(request.queryString))
+        }
+      }
+
+      def references: Seq[WeakReference[ApiResponse[String]]] = {
+        await(testApi.testRequestWithQueryParametersBatch(
+          (1 to 10).map(i => ("test", i)),
+          deadline = Some(1 hour)
+        ).runFold(Seq.empty[Try[ApiResponse[String]]])(_ :+ _)).map(result => new WeakReference(result.get))
+      }
+
+      val results = references
+      (1 to 10).iterator.map { _ =>
+        System.gc()
+        Thread.sleep(50)
+        results.forall(_.get == null)
+      }.contains(true) must beTrue
+    }
+
     "send a request with array[CSV] query parameter" in new Context {
       val route = Route {
         case ("GET", "/test") => Action { request =>
@@ -490,6 +1022,91 @@ class TestApiSpec extends Specification with NoLanguageFeatures with ContentMatc
       await(testApi.testRequestWithPathParameters("item", 1)).content must beEqualTo(())
     }
 
+    "send a request with percent-encoded path parameters" in new Context {
+      val route = Route {
+        case ("GET", "/test/it%20em%2F%C3%A4:@/1") => Action { request =>
+          NoContent
+        }
+      }
+
+      await(testApi.testRequestWithPathParameters("it em/ä:@", 1)).content must beEqualTo(())
+    }
+
+    "send a request with typed path, query and header parameters" in new Context {
+      val route = Route {
+        case ("GET", "/test/1") => Action { request =>
+          if (request.headers.get("X-HEADER").contains("true")) Ok(toQueryString(request.queryString))
+          else BadRequest
+        }
+      }
+
+      val response = await(testApi.testRequestWithEncodedParameters(
+        id = 1L,
+        tags = Seq("a", "b"),
+        ids = Seq(1, 2, 3),
+        limit = Some(10),
+        header = true
+      ))
+
+      response.content.split("&").toSet must be equalTo Set("tags=a", "tags=b", "ids=1|2|3", "limit=10")
+    }
+
+    "omit empty typed query parameters" in new Context {
+      val route = Route {
+        case ("GET", "/test/1") => Action { request =>
+          if (request.queryString.isEmpty) Ok("empty") else BadRequest
+        }
+      }
+
+      await(testApi.testRequestWithEncodedParameters(1L, Seq(), Seq(), None, Some(""), header = false)).content must be equalTo "empty"
+    }
+
+    "decode large responses on the decode pool of the API" in new Context {
+      val route = Route { case ("GET", "/test") => Action(Ok("test")) }
+      val executors = ApiExecutors(ExecutorConfig(decodeName = "test-decode", decodeMinSize = 0))
+      override lazy val apiConfig: ApiConfig = ApiConfig(executors = Some(executors))
+      val template = ApiRequest.Template("TestApi", "testDecode", ApiRequest.RequestMethod.GET, "",
+        ApiRequest.PathTemplate.parse("/test"), None)
+        .withPrimitiveSuccessResponse[String](200)(ResponseDecoder[String](_ => Thread.currentThread.getName))
+
+      try {
+        await(apiInvoker.execute[String](ApiRequest(template, Config()))).content must startWith("test-decode-")
+      } finally {
+        executors.shutdown()
+      }
+    }
+
+    "record the metrics of a successful request" in new Context {
+      val route = Route { case ("GET", "/test") => Action(NoContent) }
+      val listener = new HdrHistogramListener()
+      override lazy val apiConfig: ApiConfig = ApiConfig(listener = listener)
+
+      await(testApi.testGet())
+
+      val snapshot = listener.snapshot()("testGet")
+      snapshot.successes must be equalTo 1L
+      snapshot.errors must be equalTo 0L
+      snapshot.statusCodes must be equalTo Map(204 -> 1L)
+      snapshot.totalTime.count must be equalTo 1L
+    }
+
+    "record the metrics of a failed request" in new Context {
+      val route = Route {
+        case ("GET", "/test") => Action { request =>
+          InternalServerError("test")
+        }
+      }
+      val listener = new HdrHistogramListener()
+      override lazy val apiConfig: ApiConfig = ApiConfig(listener = listener)
+
+      await(testApi.testApiErrorWithStringAsValue()) must throwA[ApiError[String]]
+
+      val snapshot = listener.snapshot()("testApiErrorWithStringAsValue")
+      snapshot.successes must be equalTo 0L
+      snapshot.errors must be equalTo 1L
+      snapshot.statusCodes must be equalTo Map(500 -> 1L)
+    }
+
     "send a request with basic credentials" in new Context {
       val route = Route {
         case ("GET", "/test") => Action { request =>
@@ -565,6 +1182,82 @@ class TestApiSpec extends Specification with NoLanguageFeatures with ContentMatc
       await(testApi.testApiResponseWithJsonObjectAsValue()).content must be equalTo user
     }
 
+    "prefer CBOR in the Accept header of an operation which produces CBOR" in new Context {
+      val route = Route {
+        case ("GET", "/test") => Action { request =>
+          if (request.headers.get("Accept").contains("application/cbor, application/json;q=0.5")) {
+            Ok(Json.toJson(user))
+          } else {
+            BadRequest
+          }
+        }
+      }
+
+      await(testApi.testApiResponseWithBinaryMediaTypes()).content must be equalTo user
+    }
+
+    "return an ApiResponse with a CBOR encoded Json object as value" in new Context {
+      val route = Route {
+        case ("GET", "/test") => Action { request =>
+          Ok(Cbor.toBytes(Json.toJson(user))).as(MediaTypes.Cbor)
+        }
+      }
+
+      await(testApi.testApiResponseWithBinaryMediaTypes()).content must be equalTo user
+    }
+
+    "return an ApiError if a CBOR response contains a non-finite number" in new Context {
+      val route = Route {
+        case ("GET", "/test") => Action { request =>
+          Ok(ByteString(Array(0xf9, 0x7e, 0x00).map(_.toByte))).as(MediaTypes.Cbor)
+        }
+      }
+
+      await(testApi.testApiResponseWithBinaryMediaTypes()) must throwA[ApiError[_]].like {
+        case e => e.getCause must beAnInstanceOf[IllegalArgumentException]
+      }
+      Cbor.parse(ByteString(Array(0xfb, 0x7f, 0xf0, 0, 0, 0, 0, 0, 0).map(_.toByte))) must throwA[IllegalArgumentException]
+    }
+
+    "return an ApiResponse decoded with a registered binary codec as value" in new Context {
+      val route = Route {
+        case ("GET", "/test") => Action { request =>
+          if (request.headers.get("Accept").exists(_.contains(MediaTypes.Protobuf))) {
+            Ok(ByteString(Json.stringify(Json.toJson(user)).reverse)).as(MediaTypes.Protobuf)
+          } else {
+            BadRequest
+          }
+        }
+      }
+      val codec = BinaryCodec[User](MediaTypes.Protobuf)(
+        u => ByteString(Json.stringify(Json.toJson(u)).reverse),
+        bytes => Json.parse(bytes.utf8String.reverse).as[User]
+      )
+      override lazy val apiConfig: ApiConfig = ApiConfig(codecs = Seq(codec))
+
+      await(testApi.testApiResponseWithBinaryMediaTypes()).content must be equalTo user
+    }
+
+    "return an ApiResponse with a Json object decoded with jsoniter-scala as value" in new Context {
+      val route = Route {
+        case ("GET", "/test") => Action { request =>
+          Ok(Json.toJson(user))
+        }
+      }
+
+      await(testApi.testApiResponseWithJsoniterObjectAsValue()).content must be equalTo user
+    }
+
+    "return an ApiResponse with a Json array decoded with jsoniter-scala as value" in new Context {
+      val route = Route {
+        case ("GET", "/test") => Action { request =>
+          Ok(Json.toJson(Seq(user)))
+        }
+      }
+
+      await(testApi.testApiResponseWithJsoniterArrayAsValue()).content must be equalTo Seq(user)
+    }
+
     "return an ApiResponse with a Json array as value" in new Context {
       val route = Route {
         case ("GET", "/test") => Action { request =>
@@ -575,6 +1268,46 @@ class TestApiSpec extends Specification with NoLanguageFeatures with ContentMatc
       await(testApi.testApiResponseWithJsonArrayAsValue()).content must be equalTo Seq(user)
     }
 
+    "return an ApiResponse with a streamed Json array as value" in new Context {
+      val route = Route {
+        case ("GET", "/test") => Action { request =>
+          Ok(Json.toJson(Seq(user, user)))
+        }
+      }
+
+      val source = await(testApi.testApiResponseWithJsonArrayAsValueSource()).content
+
+      await(source.runFold(Seq.empty[User])(_ :+ _)) must be equalTo Seq(user, user)
+    }
+
+    "return a failed source if a streamed Json array element couldn't be serialized into a class" in new Context {
+      val route = Route {
+        case ("GET", "/test") => Action { request =>
+          Ok(Json.arr(Json.toJson(user), Json.obj("test" -> "test")))
+        }
+      }
+
+      val source = await(testApi.testApiResponseWithJsonArrayAsValueSource()).content
+
+      await(source.runFold(Seq.empty[User])(_ :+ _)) must throwA[ApiError[Nothing]].like {
+        case e: ApiError[_] =>
+          e.getMessage must contain(ApiInvoker.ResponseSerializationError.format("{\"test\":\"test\"}", classOf[User]))
+      }
+    }
+
+    "return an ApiError with the expected values if the Json contains an unknown enum value" in new Context {
+      val route = Route {
+        case ("GET", "/test") => Action { request =>
+          Ok(Json.toJson(user).as[JsObject] + ("gender" -> JsString("Unknown")))
+        }
+      }
+
+      await(testApi.testApiResponseWithJsonObjectAsValue()) must throwA[ApiError[_]].like {
+        case e: ApiError[_] =>
+          e.getCause.getMessage must contain("Invalid value `Unknown` for enum `Gender`; expected one of: Male, Female")
+      }
+    }
+
     "return an ApiError if the Json couldn't be serialized into a class" in new Context {
       val route = Route {
         case ("GET", "/test") => Action { request =>
@@ -611,6 +1344,36 @@ class TestApiSpec extends Specification with NoLanguageFeatures with ContentMatc
       file.asByteArray must be equalTo file(Paths.get("test.txt")).asByteArray
     }
 
+    "return an ApiResponse with a streamed File as value" in new Context {
+      val route = Route {
+        case ("GET", "/test") => Action { request =>
+          Ok.sendResource("test.txt")
+        }
+      }
+
+      val source = await(testApi.testApiResponseWithFileAsValueStream()).content
+      val bytes = await(source.runFold(ByteString.empty)(_ ++ _))
+
+      bytes.toArray must be equalTo file(Paths.get("test.txt")).asByteArray
+    }
+
+    "return an ApiResponse with a decompressed streamed File as value" in new Context {
+      val route = Route {
+        case ("GET", "/test") => Action { request =>
+          val out = new ByteArrayOutputStream()
+          val gzip = new GZIPOutputStream(out)
+          gzip.write(file(Paths.get("test.txt")).asByteArray)
+          gzip.close()
+          Ok(ByteString(out.toByteArray)).withHeaders("Content-Encoding" -> "gzip")
+        }
+      }
+
+      val source = await(testApi.testApiResponseWithFileAsValueStream()).content
+      val bytes = await(source.runFold(ByteString.empty)(_ ++ _))
+
+      bytes.toArray must be equalTo file(Paths.get("test.txt")).asByteArray
+    }
+
     "return an ApiResponse with a String as value" in new Context {
       val route = Route {
         case ("GET", "/test") => Action { request =>
@@ -795,6 +1558,20 @@ class TestApiSpec extends Specification with NoLanguageFeatures with ContentMatc
       }
     }
 
+    "return an ApiError with a String as value for a streamed response" in new Context {
+      val route = Route {
+        case ("GET", "/test") => Action { request =>
+          InternalServerError("test")
+        }
+      }
+
+      await(testApi.testApiErrorWithStringAsValueStream()) must throwA[ApiError[String]].like {
+        case e: ApiError[_] =>
+          e.content must beSome("test")
+          e.getMessage must contain(ApiInvoker.ApiResponseError)
+      }
+    }
+
     "return an ApiError with Long as value" in new Context {
       val route = Route {
         case ("GET", "/test") => Action { request =>
@@ -1014,6 +1791,16 @@ class TestApiSpec extends Specification with NoLanguageFeatures with ContentMatc
       ApiFile(path.getFileName.toString, is)
     }
 
+    /**
+     * Helper function to resolve the path of a file from class path.
+     */
+    def resource(path: Path): Path = {
+      val url = Option(this.getClass.getClassLoader.getResource(path.toString)).getOrElse {
+        throw new FileNotFoundException("Cannot find test file: " + path)
+      }
+      Paths.get(url.toURI)
+    }
+
     /**
      * Helper function which converts the given data into a query string format.
      */
@@ -1028,3 +1815,13 @@ class TestApiSpec extends Specification with NoLanguageFeatures with ContentMatc
     }
   }
 }
+
+/**
+ * An API as the generator creates it, which gets the invoker injected.
+ */
+class FirstInjectedApi @Inject() (val apiInvoker: ApiInvoker)
+
+/**
+ * Another API as the generator creates it, which gets the invoker injected.
+ */
+class SecondInjectedApi @Inject() (val apiInvoker: ApiInvoker)
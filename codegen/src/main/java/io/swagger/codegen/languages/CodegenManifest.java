@@ -0,0 +1,131 @@
+package io.swagger.codegen.languages;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The manifest of an incremental code generation.
+ *
+ * The manifest maps every generated file to the hash of the inputs it was rendered from. A file whose inputs have
+ * the same hash as in the previous run doesn't need to be rendered and written again, so that its modification
+ * time stays untouched and sbt doesn't recompile it.
+ */
+class CodegenManifest {
+    private static final Logger LOGGER = LoggerFactory.getLogger(CodegenManifest.class);
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final File file;
+    private final Path outputFolder;
+    private final Properties previous = new Properties();
+    private final Map<String, String> current = new ConcurrentHashMap<>();
+
+    /**
+     * The class constructor.
+     *
+     * @param outputFolder the output folder of the generated code
+     * @param file the manifest file, relative to the output folder
+     */
+    CodegenManifest(String outputFolder, String file) {
+        this.outputFolder = new File(outputFolder).getAbsoluteFile().toPath().normalize();
+        this.file = this.outputFolder.resolve(file).toFile();
+        if (this.file.isFile()) {
+            try (InputStream in = new FileInputStream(this.file)) {
+                previous.load(in);
+            } catch (IOException e) {
+                LOGGER.warn("Cannot read the codegen manifest " + this.file + ", all files will be generated", e);
+                previous.clear();
+            }
+        }
+    }
+
+    /**
+     * Records the hash of the inputs of a generated file.
+     *
+     * @param filename the name of the generated file
+     * @param hash the hash of its inputs
+     */
+    void record(String filename, String hash) {
+        current.put(key(filename), hash);
+    }
+
+    /**
+     * Indicates if a file exists and was generated from the same inputs in the previous run.
+     *
+     * @param filename the name of the generated file
+     * @return true if the file is unchanged, false otherwise
+     */
+    boolean isUnchanged(String filename) {
+        final String key = key(filename);
+        final String hash = current.get(key);
+        return hash != null && hash.equals(previous.getProperty(key)) && new File(filename).isFile();
+    }
+
+    /**
+     * Writes the hashes of the current run to the manifest file.
+     */
+    void write() {
+        final Properties properties = new Properties();
+        properties.putAll(current);
+        if (!file.getParentFile().isDirectory() && !file.getParentFile().mkdirs()) {
+            LOGGER.warn("Cannot create the directory of the codegen manifest " + file);
+            return;
+        }
+        try (OutputStream out = new FileOutputStream(file)) {
+            properties.store(out, "Hashes of the inputs of the generated files");
+        } catch (IOException e) {
+            LOGGER.warn("Cannot write the codegen manifest " + file, e);
+        }
+    }
+
+    /**
+     * Hashes the given parts with SHA-256.
+     *
+     * @param parts the parts to hash
+     * @return the hex encoded hash
+     */
+    static String hash(String... parts) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not supported", e);
+        }
+        for (String part : parts) {
+            digest.update(String.valueOf(part).getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+        }
+
+        final byte[] bytes = digest.digest();
+        final char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            hex[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0x0F];
+            hex[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0x0F];
+        }
+        return new String(hex);
+    }
+
+    /**
+     * Gets the key of a generated file, which is its path relative to the output folder.
+     *
+     * @param filename the name of the generated file
+     * @return the key of the file
+     */
+    private String key(String filename) {
+        final Path path = new File(filename).getAbsoluteFile().toPath().normalize();
+        return (path.startsWith(outputFolder) ? outputFolder.relativize(path) : path).toString().replace(File.separatorChar, '/');
+    }
+}
@@ -4,17 +4,32 @@ import com.samskivert.mustache.Escapers;
 import com.samskivert.mustache.Mustache;
 import com.samskivert.mustache.Template;
 import io.swagger.codegen.*;
+import io.swagger.models.ComposedModel;
+import io.swagger.models.HttpMethod;
+import io.swagger.models.Model;
+import io.swagger.models.Operation;
+import io.swagger.models.Path;
+import io.swagger.models.RefModel;
 import io.swagger.models.Response;
+import io.swagger.models.Swagger;
 import io.swagger.models.auth.SecuritySchemeDefinition;
 import io.swagger.models.properties.FileProperty;
 import io.swagger.models.properties.Property;
+import io.swagger.util.Json;
+import org.apache.commons.io.FileUtils;
+import org.apache.commons.io.IOUtils;
 import org.apache.commons.lang3.StringUtils;
 
 import java.io.File;
 import java.io.IOException;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Client generator which is based on the PlayWS library.
@@ -46,6 +61,101 @@ public class PlayScalaClientCodegen extends AbstractScalaCodegen implements Code
      */
     private boolean renderJavadoc = true;
     private boolean removeOAuthSecurities = true;
+    private boolean streamJsonArrays = false;
+    private boolean coalesceRequests = false;
+    private boolean incremental = false;
+    private boolean lazyJsonFormats = false;
+    private String apiGrouping = API_GROUPING_TAGS;
+    private int maxOperationsPerApi = 0;
+    private String jsonLibrary = JSON_LIBRARY_PLAY_JSON;
+    private boolean batchMethods = false;
+    private String requestCompression = COMPRESSION_NONE;
+    private boolean stubServer = false;
+
+    /**
+     * The manifest of the incremental generation, or null if every file should be generated.
+     */
+    private CodegenManifest manifest;
+
+    /**
+     * The Swagger spec, which provides the inputs of the incremental generation.
+     */
+    private Swagger swagger;
+
+    /**
+     * The hashes of the templates including their partials, by template name.
+     */
+    private final Map<String, String> templateHashes = new ConcurrentHashMap<>();
+
+    /**
+     * The pattern which matches the partials included by a template.
+     */
+    private static final Pattern PARTIAL_PATTERN = Pattern.compile("\\{\\{>\\s*([^}\\s]+)\\s*}}");
+
+    /**
+     * The manifest file of the incremental generation, relative to the output folder.
+     */
+    private static final String MANIFEST_FILE = ".swagger-codegen" + File.separator + "play-scala.manifest";
+
+    /**
+     * The formatted identifiers, by name. Large specs format the same identifiers for thousands of operations,
+     * params and properties.
+     */
+    private final Map<String, String> identifiers = new ConcurrentHashMap<>();
+
+    /**
+     * The formatted capitalized identifiers, by name.
+     */
+    private final Map<String, String> capitalizedIdentifiers = new ConcurrentHashMap<>();
+
+    /**
+     * The pattern which splits a fragment into lines.
+     */
+    private static final Pattern LINE_BREAK_PATTERN = Pattern.compile("\\r?\\n");
+
+    /**
+     * A Mustache escaper that allows to escape variables with grave accents.
+     */
+    private static final Mustache.Escaper SCALA_ESCAPER = text -> {
+        // The given text is a reserved word which is escaped by enclosing it with grave accents. If we would
+        // escape that with the default Mustache `HTML` escaper, then the escaper would also escape our grave
+        // accents. So we remove the grave accents before the escaping and add it back after the escaping.
+        if (text.startsWith("`") && text.endsWith("`")) {
+            String unescaped =  text.substring(1, text.length() - 1);
+            return "`" + Escapers.HTML.escape(unescaped) + "`";
+        }
+
+        // All none reserved words will be escaped with the default Mustache `HTML` escaper
+        return Escapers.HTML.escape(text);
+    };
+
+    /**
+     * The HTTP methods for which requests will be coalesced if the `coalesceRequests` option is enabled.
+     */
+    private static final Set<String> SAFE_METHODS = new HashSet<>(Arrays.asList("GET", "HEAD", "OPTIONS"));
+
+    /**
+     * The values of the enumerated options.
+     */
+    private static final String JSON_LIBRARY_PLAY_JSON = "play-json";
+    private static final String JSON_LIBRARY_JSONITER = "jsoniter-scala";
+    private static final String API_GROUPING_TAGS = "tags";
+    private static final String API_GROUPING_PATHS = "paths";
+    private static final String COMPRESSION_NONE = "none";
+    private static final List<String> COMPRESSION_ENCODINGS = Arrays.asList("gzip", "deflate");
+
+    /**
+     * The binary media types which will be negotiated with Json as fallback. CBOR can be read and written for all
+     * models, all other media types need a codec registered in the API config.
+     */
+    private static final List<String> BINARY_MEDIA_TYPES = Arrays.asList(
+            "application/cbor", "application/x-protobuf", "application/protobuf", "application/vnd.google.protobuf");
+
+    /**
+     * The types for which a dedicated param encoder exists, all other types will be encoded with `String.valueOf`.
+     */
+    private static final Set<String> ENCODED_PARAM_TYPES = new HashSet<>(Arrays.asList(
+            "String", "Int", "Long", "Float", "Double", "Boolean", "Byte", "Short"));
 
     /**
      * If set to true, only the default response (the one with le lowest 2XX code) will be considered as a success, and all
@@ -73,6 +183,36 @@ public class PlayScalaClientCodegen extends AbstractScalaCodegen implements Code
 
         static final String SCALA_VERSION = "scalaVersion";
         static final String SCALA_VERSION_DESC = "the Scala version to use in generated build.sbt";
+
+        static final String STREAM_JSON_ARRAYS = "streamJsonArrays";
+        static final String STREAM_JSON_ARRAYS_DESC = "generate additional methods which stream the elements of Json array responses";
+
+        static final String COALESCE_REQUESTS = "coalesceRequests";
+        static final String COALESCE_REQUESTS_DESC = "coalesce identical in-flight requests of safe operations (GET, HEAD, OPTIONS)";
+
+        static final String INCREMENTAL = "incremental";
+        static final String INCREMENTAL_DESC = "skip rendering and writing models and APIs whose inputs are unchanged since the last run";
+
+        static final String LAZY_JSON_FORMATS = "lazyJsonFormats";
+        static final String LAZY_JSON_FORMATS_DESC = "initialize the Json formats of the models and the request templates of the APIs on first use";
+
+        static final String API_GROUPING = "apiGrouping";
+        static final String API_GROUPING_DESC = "group the operations into API classes by their first tag (tags) or by the first segment of their path (paths)";
+
+        static final String MAX_OPERATIONS_PER_API = "maxOperationsPerApi";
+        static final String MAX_OPERATIONS_PER_API_DESC = "split API classes with more operations into numbered classes, 0 means unlimited";
+
+        static final String JSON_LIBRARY = "jsonLibrary";
+        static final String JSON_LIBRARY_DESC = "the Json library of the generated client: play-json or jsoniter-scala, which reads and writes the models without an intermediate Json AST";
+
+        static final String BATCH_METHODS = "batchMethods";
+        static final String BATCH_METHODS_DESC = "generate additional methods which execute an operation for a batch of parameters with bounded parallelism";
+
+        static final String REQUEST_COMPRESSION = "requestCompression";
+        static final String REQUEST_COMPRESSION_DESC = "the content encoding of request bodies which are larger than 1KB: none, gzip or deflate";
+
+        static final String STUB_SERVER = "stubServer";
+        static final String STUB_SERVER_DESC = "generate an in-process stub server which answers every operation with its example payload";
     }
 
     /**
@@ -150,6 +290,20 @@ public class PlayScalaClientCodegen extends AbstractScalaCodegen implements Code
         cliOptions.add(new CliOption(CustomCodegenConstants.PROJECT_NAME, CustomCodegenConstants.PROJECT_NAME_DESC));
         cliOptions.add(new CliOption(CustomCodegenConstants.PROJECT_VERSION, CustomCodegenConstants.PROJECT_VERSION_DESC));
         cliOptions.add(new CliOption(CustomCodegenConstants.SCALA_VERSION, CustomCodegenConstants.SCALA_VERSION_DESC));
+        cliOptions.add(CliOption.newBoolean(CustomCodegenConstants.STREAM_JSON_ARRAYS, CustomCodegenConstants.STREAM_JSON_ARRAYS_DESC));
+        cliOptions.add(CliOption.newBoolean(CustomCodegenConstants.COALESCE_REQUESTS, CustomCodegenConstants.COALESCE_REQUESTS_DESC));
+        cliOptions.add(CliOption.newBoolean(CustomCodegenConstants.INCREMENTAL, CustomCodegenConstants.INCREMENTAL_DESC));
+        cliOptions.add(CliOption.newBoolean(CustomCodegenConstants.LAZY_JSON_FORMATS, CustomCodegenConstants.LAZY_JSON_FORMATS_DESC));
+        cliOptions.add(new CliOption(CustomCodegenConstants.API_GROUPING, CustomCodegenConstants.API_GROUPING_DESC)
+                .defaultValue(API_GROUPING_TAGS));
+        cliOptions.add(new CliOption(CustomCodegenConstants.MAX_OPERATIONS_PER_API, CustomCodegenConstants.MAX_OPERATIONS_PER_API_DESC)
+                .defaultValue("0"));
+        cliOptions.add(new CliOption(CustomCodegenConstants.JSON_LIBRARY, CustomCodegenConstants.JSON_LIBRARY_DESC)
+                .defaultValue(JSON_LIBRARY_PLAY_JSON));
+        cliOptions.add(CliOption.newBoolean(CustomCodegenConstants.BATCH_METHODS, CustomCodegenConstants.BATCH_METHODS_DESC));
+        cliOptions.add(CliOption.newBoolean(CustomCodegenConstants.STUB_SERVER, CustomCodegenConstants.STUB_SERVER_DESC));
+        cliOptions.add(new CliOption(CustomCodegenConstants.REQUEST_COMPRESSION, CustomCodegenConstants.REQUEST_COMPRESSION_DESC)
+                .defaultValue(COMPRESSION_NONE));
     }
 
     @Override
@@ -180,22 +334,434 @@ public class PlayScalaClientCodegen extends AbstractScalaCodegen implements Code
             scalaVersion = (String) additionalProperties.get(CustomCodegenConstants.SCALA_VERSION);
         }
 
+        if (additionalProperties.containsKey(CustomCodegenConstants.STREAM_JSON_ARRAYS)) {
+            streamJsonArrays = convertPropertyToBooleanAndWriteBack(CustomCodegenConstants.STREAM_JSON_ARRAYS);
+        }
+
+        if (additionalProperties.containsKey(CustomCodegenConstants.COALESCE_REQUESTS)) {
+            coalesceRequests = convertPropertyToBooleanAndWriteBack(CustomCodegenConstants.COALESCE_REQUESTS);
+        }
+
+        if (additionalProperties.containsKey(CustomCodegenConstants.INCREMENTAL)) {
+            incremental = convertPropertyToBooleanAndWriteBack(CustomCodegenConstants.INCREMENTAL);
+        }
+
+        if (additionalProperties.containsKey(CustomCodegenConstants.LAZY_JSON_FORMATS)) {
+            lazyJsonFormats = convertPropertyToBooleanAndWriteBack(CustomCodegenConstants.LAZY_JSON_FORMATS);
+        }
+
+        if (additionalProperties.containsKey(CustomCodegenConstants.API_GROUPING)) {
+            apiGrouping = additionalProperties.get(CustomCodegenConstants.API_GROUPING).toString();
+            if (!API_GROUPING_TAGS.equals(apiGrouping) && !API_GROUPING_PATHS.equals(apiGrouping)) {
+                throw new IllegalArgumentException("Unsupported API grouping: " + apiGrouping);
+            }
+        }
+
+        if (additionalProperties.containsKey(CustomCodegenConstants.MAX_OPERATIONS_PER_API)) {
+            maxOperationsPerApi = Integer.parseInt(additionalProperties.get(CustomCodegenConstants.MAX_OPERATIONS_PER_API).toString());
+        }
+
+        if (additionalProperties.containsKey(CustomCodegenConstants.JSON_LIBRARY)) {
+            jsonLibrary = additionalProperties.get(CustomCodegenConstants.JSON_LIBRARY).toString();
+            if (!JSON_LIBRARY_PLAY_JSON.equals(jsonLibrary) && !JSON_LIBRARY_JSONITER.equals(jsonLibrary)) {
+                throw new IllegalArgumentException("Unsupported Json library: " + jsonLibrary);
+            }
+        }
+
+        if (additionalProperties.containsKey(CustomCodegenConstants.BATCH_METHODS)) {
+            batchMethods = convertPropertyToBooleanAndWriteBack(CustomCodegenConstants.BATCH_METHODS);
+        }
+
+        if (additionalProperties.containsKey(CustomCodegenConstants.REQUEST_COMPRESSION)) {
+            requestCompression = additionalProperties.get(CustomCodegenConstants.REQUEST_COMPRESSION).toString();
+            if (!COMPRESSION_NONE.equals(requestCompression) && !COMPRESSION_ENCODINGS.contains(requestCompression)) {
+                throw new IllegalArgumentException("Unsupported request compression: " + requestCompression);
+            }
+        }
+
+        if (additionalProperties.containsKey(CustomCodegenConstants.STUB_SERVER)) {
+            stubServer = convertPropertyToBooleanAndWriteBack(CustomCodegenConstants.STUB_SERVER);
+        }
+
         additionalProperties.put(CodegenConstants.INVOKER_PACKAGE, invokerPackage);
         additionalProperties.put(CustomCodegenConstants.CONFIG_PATH, configPath);
         additionalProperties.put(CustomCodegenConstants.PROJECT_ORGANIZATION, projectOrganization);
         additionalProperties.put(CustomCodegenConstants.PROJECT_NAME, projectName);
         additionalProperties.put(CustomCodegenConstants.PROJECT_VERSION, projectVersion);
         additionalProperties.put(CustomCodegenConstants.SCALA_VERSION, scalaVersion);
+        additionalProperties.put(CustomCodegenConstants.LAZY_JSON_FORMATS, lazyJsonFormats);
+        additionalProperties.put(CustomCodegenConstants.JSON_LIBRARY, jsonLibrary);
+        additionalProperties.put("jsoniter", isJsoniter());
+        additionalProperties.put("jsonBackend", isJsoniter() ? "Jsoniter" : "Json");
 
         final String invokerFolder = (sourceFolder + File.separator + invokerPackage).replace(".", File.separator);
         supportingFiles.add(new SupportingFile("apiFile.mustache", invokerFolder, "ApiFile.scala"));
+        supportingFiles.add(new SupportingFile("apiCache.mustache", invokerFolder, "ApiCache.scala"));
+        supportingFiles.add(new SupportingFile("apiCircuitBreaker.mustache", invokerFolder, "ApiCircuitBreaker.scala"));
+        supportingFiles.add(new SupportingFile("apiCodec.mustache", invokerFolder, "ApiCodec.scala"));
         supportingFiles.add(new SupportingFile("apiConfig.mustache", invokerFolder, "ApiConfig.scala"));
+        supportingFiles.add(new SupportingFile("apiExecutors.mustache", invokerFolder, "ApiExecutors.scala"));
         supportingFiles.add(new SupportingFile("apiRequest.mustache", invokerFolder, "ApiRequest.scala"));
         supportingFiles.add(new SupportingFile("apiResponse.mustache", invokerFolder, "ApiResponse.scala"));
         supportingFiles.add(new SupportingFile("apiInvoker.mustache", invokerFolder, "ApiInvoker.scala"));
+        supportingFiles.add(new SupportingFile("apiLimiter.mustache", invokerFolder, "ApiLimiter.scala"));
+        supportingFiles.add(new SupportingFile("apiRetry.mustache", invokerFolder, "ApiRetry.scala"));
+        supportingFiles.add(new SupportingFile("apiTransport.mustache", invokerFolder, "ApiTransport.scala"));
+        supportingFiles.add(new SupportingFile("apiMetrics.mustache", invokerFolder, "ApiMetrics.scala"));
         supportingFiles.add(new SupportingFile("apiImplicits.mustache", invokerFolder, "ApiImplicits.scala"));
+        if (isJsoniter()) {
+            supportingFiles.add(new SupportingFile("apiJsoniter.mustache", invokerFolder, "ApiJsoniter.scala"));
+        }
+        if (stubServer) {
+            supportingFiles.add(new SupportingFile("apiStubServer.mustache", invokerFolder, "ApiStubServer.scala"));
+            supportingFiles.add(new SupportingFile("stubRoutes.mustache", invokerFolder, "StubRoutes.scala"));
+        }
 
         importMapping.put("ApiFile", invokerPackage + ".ApiFile");
+
+        if (incremental) {
+            manifest = new CodegenManifest(outputFolder, MANIFEST_FILE);
+        }
+    }
+
+    /**
+     * Adds an operation to its API class.
+     *
+     * The operations will be grouped by their tag or by the first segment of their path. If a group exceeds the
+     * maximum number of operations per API, the remaining operations will be added to numbered groups, so that
+     * services which only use some operations of a huge API don't need to load all of them.
+     */
+    @Override
+    public void addOperationToGroup(String tag, String resourcePath, Operation operation, CodegenOperation co,
+                                    Map<String, List<CodegenOperation>> operations) {
+        final String base = API_GROUPING_PATHS.equals(apiGrouping) ? pathGroup(resourcePath) : tag;
+        String group = base;
+        for (int part = 1; ; part++) {
+            final List<CodegenOperation> ops = operations.get(group);
+            if (ops != null && containsOperation(ops, co)) {
+                // An operation with multiple tags will be offered once per tag
+                return;
+            }
+            if (maxOperationsPerApi <= 0 || ops == null || ops.size() < maxOperationsPerApi) {
+                break;
+            }
+            group = base + (part + 1);
+        }
+
+        super.addOperationToGroup(group, resourcePath, operation, co, operations);
+    }
+
+    /**
+     * Gets the group of an operation from its path, which is the first path segment that isn't a param.
+     *
+     * @param resourcePath the path of the operation
+     * @return the group
+     */
+    private String pathGroup(String resourcePath) {
+        for (String segment : StringUtils.split(resourcePath, '/')) {
+            if (!segment.startsWith("{")) {
+                return sanitizeTag(segment);
+            }
+        }
+
+        return "default";
+    }
+
+    /**
+     * Indicates if a group already contains an operation.
+     *
+     * @param ops the operations of the group
+     * @param co the operation
+     * @return true if the group contains the operation, false otherwise
+     */
+    private static boolean containsOperation(List<CodegenOperation> ops, CodegenOperation co) {
+        for (CodegenOperation op : ops) {
+            if (op.path.equals(co.path) && op.httpMethod.equals(co.httpMethod)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @Override
+    public void preprocessSwagger(Swagger swagger) {
+        super.preprocessSwagger(swagger);
+        this.swagger = swagger;
+    }
+
+    /**
+     * Records the input hashes of all model files, if the generation is incremental.
+     *
+     * The hash of a model covers its definition, the definitions it is composed of, the global parts of the spec,
+     * the generator options and the templates. The hashes will be calculated in parallel.
+     */
+    @Override
+    public Map<String, Object> postProcessAllModels(Map<String, Object> objs) {
+        final Map<String, Object> processed = super.postProcessAllModels(objs);
+        if (manifest != null && swagger != null) {
+            final String common = commonHash();
+            processed.keySet().parallelStream().forEach(name -> {
+                final String model = modelJson(name);
+                for (String templateName : modelTemplateFiles().keySet()) {
+                    manifest.record(modelFilename(templateName, name), CodegenManifest.hash(common, templateHash(templateName), model));
+                }
+            });
+        }
+
+        return processed;
+    }
+
+    /**
+     * Records the input hashes of the API files of an operation group, if the generation is incremental.
+     *
+     * The hash of an API covers the path items of its operations, the global parts of the spec, the generator
+     * options and the templates. If an operation cannot be found in the spec, the API will always be generated.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> postProcessOperationsWithModels(Map<String, Object> objs, List<Object> allModels) {
+        final Map<String, Object> processed = super.postProcessOperationsWithModels(objs, allModels);
+        if (isJsoniter()) {
+            addJsoniterCodecs((Map<String, Object>) processed.get("operations"));
+        }
+        if (manifest != null && swagger != null) {
+            final Map<String, Object> operations = (Map<String, Object>) processed.get("operations");
+            final String classname = (String) operations.get("classname");
+            final List<String> parts = new ArrayList<>();
+            parts.add(commonHash());
+            for (CodegenOperation op : (List<CodegenOperation>) operations.get("operation")) {
+                final String operation = operationJson(op);
+                if (operation == null) {
+                    return processed;
+                }
+                parts.add(operation);
+            }
+            for (String templateName : apiTemplateFiles().keySet()) {
+                final List<String> templateParts = new ArrayList<>(parts);
+                templateParts.add(templateHash(templateName));
+                final String filename = apiFileFolder() + File.separator + classname + apiTemplateFiles().get(templateName);
+                manifest.record(filename, CodegenManifest.hash(templateParts.toArray(new String[0])));
+            }
+        }
+
+        return processed;
+    }
+
+    /**
+     * Adds the container types of the Json responses and bodies of an API, for which the API must derive
+     * jsoniter-scala codecs. The codecs of the models will be derived in their companion objects.
+     *
+     * @param operations the operations of the API
+     */
+    @SuppressWarnings("unchecked")
+    private void addJsoniterCodecs(Map<String, Object> operations) {
+        final Set<String> dataTypes = new TreeSet<>();
+        for (CodegenOperation op : (List<CodegenOperation>) operations.get("operation")) {
+            for (CodegenResponse response : op.responses) {
+                if (response.dataType != null && !response.primitiveType && !response.simpleType) {
+                    dataTypes.add(response.dataType);
+                }
+            }
+            if (op.bodyParam != null && !op.bodyParam.isPrimitiveType && op.bodyParam.isContainer) {
+                dataTypes.add(op.bodyParam.dataType);
+            }
+        }
+
+        final List<Map<String, String>> codecs = new ArrayList<>();
+        for (String dataType : dataTypes) {
+            final Map<String, String> codec = new HashMap<>();
+            codec.put("name", "jsoniterCodec" + codecs.size());
+            codec.put("dataType", dataType);
+            codecs.add(codec);
+        }
+        operations.put("jsoniterCodecs", codecs);
+    }
+
+    /**
+     * Indicates if the generated client uses jsoniter-scala.
+     *
+     * @return true if the generated client uses jsoniter-scala, false if it uses play-json
+     */
+    private boolean isJsoniter() {
+        return JSON_LIBRARY_JSONITER.equals(jsonLibrary);
+    }
+
+    /**
+     * Writes the manifest of an incremental generation, after all models and APIs were generated.
+     */
+    @Override
+    public Map<String, Object> postProcessSupportingFileData(Map<String, Object> objs) {
+        final Map<String, Object> processed = super.postProcessSupportingFileData(objs);
+        if (manifest != null) {
+            manifest.write();
+        }
+
+        return processed;
+    }
+
+    /**
+     * Skips the files of an incremental generation whose inputs are unchanged since the last run.
+     */
+    @Override
+    public boolean shouldOverwrite(String filename) {
+        return super.shouldOverwrite(filename) && (manifest == null || !manifest.isUnchanged(filename));
+    }
+
+    /**
+     * Hashes the inputs which all generated files share: the generator version, the generator options and the
+     * global parts of the spec.
+     *
+     * Only the documented generator options and the packages will be hashed. The generator adds other properties
+     * like the `generatedDate`, which change on every run and would invalidate all files.
+     *
+     * @return the hash of the shared inputs
+     */
+    private String commonHash() {
+        final Map<String, Object> options = new TreeMap<>();
+        for (CliOption option : cliOptions()) {
+            final Object value = additionalProperties.get(option.getOpt());
+            if (value instanceof String || value instanceof Boolean || value instanceof Number) {
+                options.put(option.getOpt(), value);
+            }
+        }
+        options.put(CodegenConstants.INVOKER_PACKAGE, invokerPackage);
+        options.put(CodegenConstants.MODEL_PACKAGE, modelPackage());
+        options.put(CodegenConstants.API_PACKAGE, apiPackage());
+
+        final Map<String, Object> global = new LinkedHashMap<>();
+        global.put("info", swagger.getInfo());
+        global.put("host", swagger.getHost());
+        global.put("basePath", swagger.getBasePath());
+        global.put("schemes", swagger.getSchemes());
+        global.put("consumes", swagger.getConsumes());
+        global.put("produces", swagger.getProduces());
+        global.put("security", swagger.getSecurity());
+        global.put("securityDefinitions", swagger.getSecurityDefinitions());
+        global.put("parameters", swagger.getParameters());
+        global.put("responses", swagger.getResponses());
+
+        return CodegenManifest.hash(
+                String.valueOf(getClass().getPackage().getImplementationVersion()),
+                options.toString(),
+                new TreeMap<>(typeMapping).toString(),
+                new TreeMap<>(importMapping).toString(),
+                toJson(global));
+    }
+
+    /**
+     * Serializes the definition of a model together with the definitions it is composed of.
+     *
+     * @param name the name of the model
+     * @return the Json of the definitions
+     */
+    private String modelJson(String name) {
+        final Map<String, Model> definitions = swagger.getDefinitions() == null
+                ? Collections.<String, Model>emptyMap()
+                : swagger.getDefinitions();
+        final Map<String, Model> models = new LinkedHashMap<>();
+        final Deque<String> pending = new ArrayDeque<>(Collections.singleton(name));
+        while (!pending.isEmpty()) {
+            final String current = pending.pop();
+            final Model model = definitions.get(current);
+            if (model != null && !models.containsKey(current)) {
+                models.put(current, model);
+                if (model instanceof ComposedModel) {
+                    for (Model part : ((ComposedModel) model).getAllOf()) {
+                        if (part instanceof RefModel) {
+                            pending.push(((RefModel) part).getSimpleRef());
+                        }
+                    }
+                }
+            }
+        }
+
+        return toJson(models);
+    }
+
+    /**
+     * Serializes the Swagger operation of a Codegen operation.
+     *
+     * @param op the Codegen operation
+     * @return the Json of the operation, or null if it cannot be found in the spec
+     */
+    private String operationJson(CodegenOperation op) {
+        final Path path = swagger.getPath(op.path);
+        if (path == null || op.httpMethod == null) {
+            return null;
+        }
+        final Operation operation = path.getOperationMap().get(HttpMethod.valueOf(op.httpMethod.toUpperCase(Locale.ROOT)));
+        if (operation == null) {
+            return null;
+        }
+
+        return op.path + " " + op.httpMethod + " " + toJson(operation) + " " + toJson(path.getParameters());
+    }
+
+    /**
+     * Hashes a template together with all partials it includes.
+     *
+     * @param templateName the name of the template
+     * @return the hash of the template
+     */
+    private String templateHash(String templateName) {
+        final String cached = templateHashes.get(templateName);
+        if (cached != null) {
+            return cached;
+        }
+
+        final Set<String> visited = new HashSet<>();
+        final List<String> contents = new ArrayList<>();
+        final Deque<String> pending = new ArrayDeque<>(Collections.singleton(templateName));
+        while (!pending.isEmpty()) {
+            final String current = pending.pop();
+            if (visited.add(current)) {
+                final String content = readTemplate(current);
+                contents.add(current + "\n" + content);
+                final Matcher matcher = PARTIAL_PATTERN.matcher(content);
+                while (matcher.find()) {
+                    pending.push(matcher.group(1) + ".mustache");
+                }
+            }
+        }
+
+        final String hash = CodegenManifest.hash(contents.toArray(new String[0]));
+        templateHashes.put(templateName, hash);
+        return hash;
+    }
+
+    /**
+     * Reads a template from the template folder or from the embedded templates.
+     *
+     * @param templateName the name of the template
+     * @return the content of the template, or an empty string if the template doesn't exist
+     */
+    private String readTemplate(String templateName) {
+        try {
+            final File file = new File(templateDir(), templateName);
+            if (file.isFile()) {
+                return FileUtils.readFileToString(file, StandardCharsets.UTF_8);
+            }
+            try (InputStream in = getClass().getClassLoader().getResourceAsStream(embeddedTemplateDir() + "/" + templateName)) {
+                return in == null ? "" : IOUtils.toString(in, StandardCharsets.UTF_8);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot read template " + templateName, e);
+        }
+    }
+
+    /**
+     * Serializes a part of the spec to Json.
+     *
+     * @param value the value to serialize
+     * @return the Json
+     */
+    private static String toJson(Object value) {
+        try {
+            return Json.mapper().writeValueAsString(value);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot serialize the spec", e);
+        }
     }
 
     /**
@@ -216,6 +782,417 @@ public class PlayScalaClientCodegen extends AbstractScalaCodegen implements Code
         return r;
     }
 
+    /**
+     * Convert Swagger Operation object to Codegen Operation object
+     *
+     * Operations which respond with a file get the `x-stream-response` vendor extension, so that an additional method
+     * which streams the response body will be generated for them. If the `streamJsonArrays` option is enabled,
+     * operations which respond with an array of models get the `x-stream-json-array` vendor extension, so that an
+     * additional method which streams the array elements will be generated for them. Operations whose identical
+     * in-flight requests should be coalesced get the `x-coalesce-requests` vendor extension. This is enabled for safe
+     * operations by the `coalesceRequests` option and can be overridden per operation with the `x-coalesce` extension.
+     * If the `batchMethods` option is enabled, operations with parameters get the `x-batch-type` and
+     * `x-batch-params` vendor extensions, which hold the type of a batch element and the lambda parameters which
+     * bind its values to the parameter names, so that an additional method which executes a batch will be generated.
+     * Operations whose request bodies should be compressed get the `x-request-compression` vendor extension.
+     * If the `stubServer` option is enabled, all operations get the `x-stub-route` vendor extension, which holds the
+     * route of the stub server with the example payload of the operation.
+     *
+     * @param path the path of the operation
+     * @param httpMethod HTTP method
+     * @param operation Swagger operation object
+     * @param definitions a map of Swagger models
+     * @param swagger a Swagger object representing the spec
+     * @return Codegen Operation object
+     */
+    @Override
+    public CodegenOperation fromOperation(String path, String httpMethod, Operation operation,
+                                          Map<String, Model> definitions, Swagger swagger) {
+        CodegenOperation op = super.fromOperation(path, httpMethod, operation, definitions, swagger);
+
+        if (operation.getResponses() != null) {
+            for (Response response : operation.getResponses().values()) {
+                if (response.getSchema() instanceof FileProperty) {
+                    addVendorExtension(op, "x-stream-response");
+                    break;
+                }
+            }
+        }
+
+        if (streamJsonArrays && !isJsoniter() && op.isListContainer && !op.returnTypeIsPrimitive && op.returnBaseType != null) {
+            addVendorExtension(op, "x-stream-json-array");
+        }
+
+        final Object coalesce = op.vendorExtensions == null ? null : op.vendorExtensions.get("x-coalesce");
+        final boolean coalesceOperation = coalesce != null
+                ? Boolean.parseBoolean(coalesce.toString())
+                : coalesceRequests && SAFE_METHODS.contains(httpMethod.toUpperCase(Locale.ROOT));
+        if (coalesceOperation) {
+            addVendorExtension(op, "x-coalesce-requests");
+        }
+
+        final String retryPolicy = retryPolicy(op.vendorExtensions == null ? null : op.vendorExtensions.get("x-retry"));
+        if (retryPolicy != null) {
+            addVendorExtension(op, "x-retry-policy", retryPolicy);
+        }
+
+        final String compression = requestCompression(op.vendorExtensions == null ? null : op.vendorExtensions.get("x-compress-request"), op);
+        if (compression != null) {
+            addVendorExtension(op, "x-request-compression", compression);
+        }
+
+        final List<String> produces = mediaTypes(op.produces);
+        final List<String> consumes = mediaTypes(op.consumes);
+        if (!Collections.disjoint(produces, BINARY_MEDIA_TYPES) || !Collections.disjoint(consumes, BINARY_MEDIA_TYPES)) {
+            addVendorExtension(op, "x-media-types", scalaSeq(produces) + ", " + scalaSeq(consumes));
+            op.consumes = jsonFirst(op.consumes);
+        }
+
+        for (List<CodegenParameter> params : Arrays.asList(op.pathParams, op.queryParams, op.headerParams)) {
+            for (CodegenParameter param : params) {
+                final String encoder = paramEncoder(param);
+                if (encoder != null) {
+                    final Map<String, Object> extensions = new HashMap<>();
+                    if (param.vendorExtensions != null) {
+                        extensions.putAll(param.vendorExtensions);
+                    }
+                    extensions.put("x-param-encoder", encoder);
+                    param.vendorExtensions = extensions;
+                }
+            }
+        }
+
+        if (stubServer) {
+            addVendorExtension(op, "x-stub-route", stubRoute(op));
+        }
+
+        if (batchMethods && !op.allParams.isEmpty()) {
+            final List<String> types = new ArrayList<>();
+            final List<String> names = new ArrayList<>();
+            for (CodegenParameter param : op.allParams) {
+                types.add(param.required || param.isContainer ? param.dataType : "Option[" + param.dataType + "]");
+                names.add(param.paramName);
+            }
+            if (types.size() == 1) {
+                addVendorExtension(op, "x-batch-type", types.get(0));
+                addVendorExtension(op, "x-batch-params", names.get(0));
+            } else {
+                addVendorExtension(op, "x-batch-type", "(" + String.join(", ", types) + ")");
+                addVendorExtension(op, "x-batch-params", "case (" + String.join(", ", names) + ")");
+            }
+        }
+
+        return op;
+    }
+
+    /**
+     * Translates the `x-retry` vendor extension of an operation into the Scala expression of its retry policy.
+     *
+     * The extension can either be a boolean, which enables the default policy or disables retries for the
+     * operation, or an object with the settings `maxAttempts`, `initialBackoff` and `maxBackoff` in milliseconds,
+     * `statusCodes`, `hedge` and `hedgePercentile`.
+     *
+     * @param extension the value of the vendor extension
+     * @return the Scala expression of the retry policy or null if the operation doesn't override the policy
+     */
+    private String retryPolicy(Object extension) {
+        if (extension == null) {
+            return null;
+        }
+        if (!(extension instanceof Map)) {
+            return Boolean.parseBoolean(extension.toString()) ? "RetryPolicy()" : "RetryPolicy.Disabled";
+        }
+
+        final List<String> args = new ArrayList<>();
+        for (Map.Entry<?, ?> setting : ((Map<?, ?>) extension).entrySet()) {
+            final String name = String.valueOf(setting.getKey());
+            final String value = String.valueOf(setting.getValue());
+            switch (name) {
+                case "maxAttempts":
+                    args.add("maxAttempts = " + Integer.parseInt(value));
+                    break;
+                case "initialBackoff":
+                case "maxBackoff":
+                    args.add(name + " = scala.concurrent.duration.FiniteDuration(" + Long.parseLong(value) + "L, \"ms\")");
+                    break;
+                case "statusCodes":
+                    final List<String> codes = new ArrayList<>();
+                    if (setting.getValue() instanceof Collection) {
+                        for (Object code : (Collection<?>) setting.getValue()) {
+                            codes.add(String.valueOf(Integer.parseInt(String.valueOf(code))));
+                        }
+                    }
+                    args.add("retryStatusCodes = Set(" + StringUtils.join(codes, ", ") + ")");
+                    break;
+                case "hedge":
+                    args.add("hedge = " + Boolean.parseBoolean(value));
+                    break;
+                case "hedgePercentile":
+                    args.add("hedgePercentile = " + Double.parseDouble(value));
+                    break;
+                default:
+                    LOGGER.warn("Ignoring unknown x-retry setting '" + name + "'");
+            }
+        }
+
+        return "RetryPolicy(" + StringUtils.join(args, ", ") + ")";
+    }
+
+    /**
+     * Gets the Scala expression of the stub server route of an operation.
+     *
+     * The route answers with the first success status code of the operation and with its Json example, which the
+     * default example generator derives from the schema of the response. Operations without a response schema will
+     * be answered without a payload.
+     *
+     * @param op the operation
+     * @return the Scala expression
+     */
+    private static String stubRoute(CodegenOperation op) {
+        String status = "200";
+        if (op.responses != null) {
+            for (CodegenResponse response : op.responses) {
+                if (response.code != null && response.code.matches("2\\d\\d")) {
+                    status = response.code;
+                    break;
+                }
+            }
+        }
+
+        Map<String, String> example = null;
+        if (op.examples != null) {
+            for (Map<String, String> candidate : op.examples) {
+                final String contentType = candidate.get("contentType");
+                if (example == null || (contentType != null && contentType.contains("json"))) {
+                    example = candidate;
+                }
+                if (contentType != null && contentType.contains("json")) {
+                    break;
+                }
+            }
+        }
+
+        final String contentType = example != null && example.get("contentType") != null
+                ? example.get("contentType")
+                : "application/json";
+        final String payload = example != null && example.get("example") != null
+                ? "Some(" + scalaString(example.get("example")) + ")"
+                : "None";
+
+        return "StubRoute(" + scalaString(op.httpMethod.toUpperCase(Locale.ROOT)) + ", " + scalaString(op.path) + ", "
+                + status + ", " + scalaString(contentType) + ", " + payload + ")";
+    }
+
+    /**
+     * Gets the Scala literal of a string.
+     *
+     * @param value the string
+     * @return the Scala literal
+     */
+    private static String scalaString(String value) {
+        final StringBuilder literal = new StringBuilder("\"");
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '"':
+                    literal.append("\\\"");
+                    break;
+                case '\\':
+                    literal.append("\\\\");
+                    break;
+                case '\n':
+                    literal.append("\\n");
+                    break;
+                case '\r':
+                    literal.append("\\r");
+                    break;
+                case '\t':
+                    literal.append("\\t");
+                    break;
+                default:
+                    literal.append(c);
+            }
+        }
+        return literal.append('"').toString();
+    }
+
+    /**
+     * Gets the normalized media types of the `produces` or `consumes` of an operation.
+     *
+     * @param mediaTypes the media types of the operation
+     * @return the media types in lower case and without parameters
+     */
+    private static List<String> mediaTypes(List<Map<String, String>> mediaTypes) {
+        final List<String> normalized = new ArrayList<>();
+        if (mediaTypes != null) {
+            for (Map<String, String> mediaType : mediaTypes) {
+                final String value = mediaType.get("mediaType");
+                if (value != null) {
+                    normalized.add(value.split(";")[0].trim().toLowerCase(Locale.ROOT));
+                }
+            }
+        }
+        return normalized;
+    }
+
+    /**
+     * Moves the binary media types of the `consumes` of an operation behind the other media types.
+     *
+     * The first media type is the content type of the request template, which must stay the Json fallback. The
+     * binary media types will be negotiated at runtime.
+     *
+     * @param mediaTypes the media types of the operation
+     * @return the reordered media types
+     */
+    private static List<Map<String, String>> jsonFirst(List<Map<String, String>> mediaTypes) {
+        if (mediaTypes == null) {
+            return null;
+        }
+
+        final List<Map<String, String>> binary = new ArrayList<>();
+        final List<Map<String, String>> reordered = new ArrayList<>();
+        for (Map<String, String> mediaType : mediaTypes) {
+            final String value = String.valueOf(mediaType.get("mediaType")).split(";")[0].trim().toLowerCase(Locale.ROOT);
+            (BINARY_MEDIA_TYPES.contains(value) ? binary : reordered).add(new HashMap<>(mediaType));
+        }
+        reordered.addAll(binary);
+        for (int i = 0; i < reordered.size(); i++) {
+            if (i < reordered.size() - 1) {
+                reordered.get(i).put("hasMore", "true");
+            } else {
+                reordered.get(i).remove("hasMore");
+            }
+        }
+        return reordered;
+    }
+
+    /**
+     * Gets the Scala expression of a sequence of strings.
+     *
+     * @param values the strings
+     * @return the Scala expression
+     */
+    private static String scalaSeq(List<String> values) {
+        final List<String> quoted = new ArrayList<>();
+        for (String value : values) {
+            quoted.add("\"" + value + "\"");
+        }
+        return "Seq(" + StringUtils.join(quoted, ", ") + ")";
+    }
+
+    /**
+     * Gets the Scala expression of the encoder of a path, query or header param.
+     *
+     * The encoder is chosen by the type of the param, so that the generated client doesn't need to match the value
+     * against all known types on every request. Optional values and arrays get the encoders of their element type.
+     *
+     * @param param the Codegen Parameter object
+     * @return the Scala expression of the encoder or null if the param must be normalized at runtime
+     */
+    private static String paramEncoder(CodegenParameter param) {
+        if (param.isContainer) {
+            if (!param.isListContainer || param.items == null) {
+                return null;
+            }
+            final String format = param.collectionFormat == null ? "csv" : param.collectionFormat;
+            return valueEncoder(param.items.datatype) + ".array(ApiParams.CollectionFormats." + format.toUpperCase(Locale.ROOT) + ")";
+        }
+
+        return param.required ? valueEncoder(param.dataType) : valueEncoder(param.dataType) + ".optional";
+    }
+
+    /**
+     * Gets the Scala expression of the encoder of a single value.
+     *
+     * @param dataType the data type of the value
+     * @return the Scala expression of the encoder
+     */
+    private static String valueEncoder(String dataType) {
+        return "ApiParams.ParamEncoder." + (ENCODED_PARAM_TYPES.contains(dataType) ? dataType : "Any");
+    }
+
+    /**
+     * Translates the `x-compress-request` vendor extension of an operation into the Scala expression of its request
+     * compression.
+     *
+     * The extension can either be a boolean, which enables the gzip compression or disables the compression for
+     * the operation, or an object with the settings `encoding` (gzip or deflate) and `minSize` in bytes. Without the
+     * extension, operations with a body will be compressed with the encoding of the `requestCompression` option.
+     *
+     * @param extension the value of the vendor extension
+     * @param op the Codegen Operation object
+     * @return the Scala expression of the request compression or null if the body shouldn't be compressed
+     */
+    private String requestCompression(Object extension, CodegenOperation op) {
+        if (extension == null) {
+            return COMPRESSION_NONE.equals(requestCompression) || op.bodyParam == null
+                    ? null
+                    : "ApiRequest.RequestCompression(" + contentEncoding(requestCompression) + ")";
+        }
+        if (!(extension instanceof Map)) {
+            return Boolean.parseBoolean(extension.toString()) ? "ApiRequest.RequestCompression()" : null;
+        }
+
+        final List<String> args = new ArrayList<>();
+        for (Map.Entry<?, ?> setting : ((Map<?, ?>) extension).entrySet()) {
+            final String name = String.valueOf(setting.getKey());
+            final String value = String.valueOf(setting.getValue());
+            switch (name) {
+                case "encoding":
+                    if (!COMPRESSION_ENCODINGS.contains(value)) {
+                        throw new IllegalArgumentException("Unsupported request compression: " + value);
+                    }
+                    args.add(contentEncoding(value));
+                    break;
+                case "minSize":
+                    args.add("minSize = " + Integer.parseInt(value));
+                    break;
+                default:
+                    LOGGER.warn("Ignoring unknown x-compress-request setting '" + name + "'");
+            }
+        }
+
+        return "ApiRequest.RequestCompression(" + StringUtils.join(args, ", ") + ")";
+    }
+
+    /**
+     * Gets the Scala expression of a content encoding.
+     *
+     * @param encoding the name of the content encoding
+     * @return the Scala expression of the content encoding
+     */
+    private static String contentEncoding(String encoding) {
+        return "encoding = ApiRequest.ContentEncoding." + StringUtils.capitalize(encoding);
+    }
+
+    /**
+     * Adds a vendor extension flag to an operation.
+     *
+     * The vendor extensions of an operation are shared with the Swagger model, so they will be copied before
+     * they get modified.
+     *
+     * @param op the Codegen Operation object
+     * @param name the name of the vendor extension
+     */
+    private void addVendorExtension(CodegenOperation op, String name) {
+        addVendorExtension(op, name, true);
+    }
+
+    /**
+     * Adds a vendor extension with a value to an operation.
+     *
+     * @param op the Codegen Operation object
+     * @param name the name of the vendor extension
+     * @param value the value of the vendor extension
+     */
+    private void addVendorExtension(CodegenOperation op, String name, Object value) {
+        final Map<String, Object> extensions = new HashMap<>();
+        if (op.vendorExtensions != null) {
+            extensions.putAll(op.vendorExtensions);
+        }
+        extensions.put(name, value);
+        op.vendorExtensions = extensions;
+    }
+
     @Override
     public CodegenType getTag() {
         return CodegenType.CLIENT;
@@ -236,20 +1213,7 @@ public class PlayScalaClientCodegen extends AbstractScalaCodegen implements Code
      */
     @Override
     public Mustache.Compiler processCompiler(Mustache.Compiler compiler) {
-        Mustache.Escaper SCALA = text -> {
-            // The given text is a reserved word which is escaped by enclosing it with grave accents. If we would
-            // escape that with the default Mustache `HTML` escaper, then the escaper would also escape our grave
-            // accents. So we remove the grave accents before the escaping and add it back after the escaping.
-            if (text.startsWith("`") && text.endsWith("`")) {
-                String unescaped =  text.substring(1, text.length() - 1);
-                return "`" + Escapers.HTML.escape(unescaped) + "`";
-            }
-
-            // All none reserved words will be escaped with the default Mustache `HTML` escaper
-            return Escapers.HTML.escape(text);
-        };
-
-        return compiler.withEscaper(SCALA);
+        return compiler.withEscaper(SCALA_ESCAPER);
     }
 
     /**
@@ -296,6 +1260,27 @@ public class PlayScalaClientCodegen extends AbstractScalaCodegen implements Code
         return formatIdentifier(property.baseName, true);
     }
 
+    /**
+     * Memoizes the formatted identifiers, which are used by `toOperationId`, `toParamName`, `toVarName`,
+     * `toEnumName` and the enum entry lambda.
+     */
+    @Override
+    protected String formatIdentifier(String name, boolean capitalized) {
+        if (name == null) {
+            return super.formatIdentifier(null, capitalized);
+        }
+
+        final Map<String, String> cache = capitalized ? capitalizedIdentifiers : identifiers;
+        final String cached = cache.get(name);
+        if (cached != null) {
+            return cached;
+        }
+
+        final String identifier = super.formatIdentifier(name, capitalized);
+        cache.put(name, identifier);
+        return identifier;
+    }
+
     @Override
     public String toDefaultValue(Property p) {
         if (!p.getRequired()) {
@@ -348,7 +1333,7 @@ public class PlayScalaClientCodegen extends AbstractScalaCodegen implements Code
     private static class JavadocLambda extends CustomLambda {
         @Override
         public String formatFragment(String fragment) {
-            final String[] lines = fragment.split("\\r?\\n");
+            final String[] lines = LINE_BREAK_PATTERN.split(fragment);
             final StringBuilder sb = new StringBuilder();
             sb.append("  /**\n");
             for (String line : lines) {
@@ -368,6 +1353,7 @@ public class PlayScalaClientCodegen extends AbstractScalaCodegen implements Code
 
     private static class CamelizeLambda extends CustomLambda {
         private final boolean capitalizeFirst;
+        private final Map<String, String> camelized = new ConcurrentHashMap<>();
 
         CamelizeLambda(boolean capitalizeFirst) {
             this.capitalizeFirst = capitalizeFirst;
@@ -375,7 +1361,7 @@ public class PlayScalaClientCodegen extends AbstractScalaCodegen implements Code
 
         @Override
         public String formatFragment(String fragment) {
-            return camelize(fragment, !capitalizeFirst);
+            return camelized.computeIfAbsent(fragment, f -> camelize(f, !capitalizeFirst));
         }
     }
 
@@ -0,0 +1,75 @@
+package io.swagger.codegen.playscala;
+
+import io.swagger.codegen.CodegenOperation;
+import io.swagger.codegen.languages.PlayScalaClientCodegen;
+import io.swagger.models.Operation;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+@SuppressWarnings("static-method")
+public class PlayScalaApiGroupingTest {
+
+    @Test(description = "group operations by tag")
+    public void tagGroupingTest() {
+        final PlayScalaClientCodegen codegen = codegen(null, null);
+        final Map<String, List<CodegenOperation>> operations = new TreeMap<>();
+        add(codegen, operations, "pet", "/pet/{id}", "GET", "getPet");
+        add(codegen, operations, "store", "/pet/{id}/order", "POST", "orderPet");
+
+        Assert.assertEquals(operations.keySet().toString(), "[pet, store]");
+    }
+
+    @Test(description = "group operations by the first path segment")
+    public void pathGroupingTest() {
+        final PlayScalaClientCodegen codegen = codegen("paths", null);
+        final Map<String, List<CodegenOperation>> operations = new TreeMap<>();
+        add(codegen, operations, "pet", "/pet/{id}", "GET", "getPet");
+        add(codegen, operations, "store", "/pet/{id}/order", "POST", "orderPet");
+        add(codegen, operations, "store", "/{tenant}/order", "GET", "getOrders");
+        add(codegen, operations, "admin", "/{tenant}/order", "GET", "getOrders");
+
+        Assert.assertEquals(operations.keySet().toString(), "[order, pet]");
+        Assert.assertEquals(operations.get("pet").size(), 2);
+        Assert.assertEquals(operations.get("order").size(), 1);
+    }
+
+    @Test(description = "split groups which exceed the maximum number of operations")
+    public void splitTest() {
+        final PlayScalaClientCodegen codegen = codegen(null, "2");
+        final Map<String, List<CodegenOperation>> operations = new TreeMap<>();
+        for (int i = 0; i < 5; i++) {
+            add(codegen, operations, "pet", "/pet/" + i, "GET", "getPet" + i);
+        }
+
+        Assert.assertEquals(operations.keySet().toString(), "[pet, pet2, pet3]");
+        Assert.assertEquals(operations.get("pet").size(), 2);
+        Assert.assertEquals(operations.get("pet2").size(), 2);
+        Assert.assertEquals(operations.get("pet3").size(), 1);
+    }
+
+    private static PlayScalaClientCodegen codegen(String apiGrouping, String maxOperationsPerApi) {
+        final PlayScalaClientCodegen codegen = new PlayScalaClientCodegen();
+        if (apiGrouping != null) {
+            codegen.additionalProperties().put("apiGrouping", apiGrouping);
+        }
+        if (maxOperationsPerApi != null) {
+            codegen.additionalProperties().put("maxOperationsPerApi", maxOperationsPerApi);
+        }
+        codegen.processOpts();
+        return codegen;
+    }
+
+    private static void add(PlayScalaClientCodegen codegen, Map<String, List<CodegenOperation>> operations,
+                            String tag, String path, String httpMethod, String operationId) {
+        final CodegenOperation co = new CodegenOperation();
+        co.path = path;
+        co.httpMethod = httpMethod;
+        co.operationId = operationId;
+        codegen.addOperationToGroup(tag, path, new Operation(), co, operations);
+    }
+}
@@ -0,0 +1,150 @@
+package io.swagger.codegen.playscala;
+
+import io.swagger.codegen.ClientOptInput;
+import io.swagger.codegen.ClientOpts;
+import io.swagger.codegen.DefaultGenerator;
+import io.swagger.codegen.languages.PlayScalaClientCodegen;
+import io.swagger.models.Info;
+import io.swagger.models.ModelImpl;
+import io.swagger.models.Operation;
+import io.swagger.models.Path;
+import io.swagger.models.Response;
+import io.swagger.models.Swagger;
+import io.swagger.models.properties.LongProperty;
+import io.swagger.models.properties.RefProperty;
+import io.swagger.models.properties.StringProperty;
+
+import org.apache.commons.io.FileUtils;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@SuppressWarnings("static-method")
+public class PlayScalaIncrementalCodegenTest {
+
+    @Test(description = "overwrite all models in the first incremental run")
+    public void firstRunTest() throws IOException {
+        final File output = Files.createTempDirectory("play-scala-codegen").toFile();
+        final Swagger swagger = swagger("User", "Pet");
+        final PlayScalaClientCodegen codegen = run(output, swagger);
+
+        Assert.assertTrue(codegen.shouldOverwrite(write(codegen, "User")));
+        Assert.assertTrue(codegen.shouldOverwrite(write(codegen, "Pet")));
+    }
+
+    @Test(description = "skip unchanged models in the next incremental run")
+    public void unchangedModelTest() throws IOException {
+        final File output = Files.createTempDirectory("play-scala-codegen").toFile();
+        final PlayScalaClientCodegen first = run(output, swagger("User", "Pet"));
+        write(first, "User");
+        write(first, "Pet");
+        first.postProcessSupportingFileData(new HashMap<String, Object>());
+
+        final Swagger swagger = swagger("User", "Pet");
+        ((ModelImpl) swagger.getDefinitions().get("Pet")).property("age", new LongProperty());
+        final PlayScalaClientCodegen second = run(output, swagger);
+
+        Assert.assertFalse(second.shouldOverwrite(second.modelFilename("model.mustache", "User")));
+        Assert.assertTrue(second.shouldOverwrite(second.modelFilename("model.mustache", "Pet")));
+    }
+
+    @Test(description = "overwrite a deleted model in the next incremental run")
+    public void deletedModelTest() throws IOException {
+        final File output = Files.createTempDirectory("play-scala-codegen").toFile();
+        final PlayScalaClientCodegen first = run(output, swagger("User"));
+        final String filename = write(first, "User");
+        first.postProcessSupportingFileData(new HashMap<String, Object>());
+        FileUtils.forceDelete(new File(filename));
+
+        final PlayScalaClientCodegen second = run(output, swagger("User"));
+
+        Assert.assertTrue(second.shouldOverwrite(filename));
+    }
+
+    @Test(description = "overwrite all models if the generation isn't incremental")
+    public void disabledTest() throws IOException {
+        final File output = Files.createTempDirectory("play-scala-codegen").toFile();
+        final PlayScalaClientCodegen first = run(output, swagger("User"));
+        final String filename = write(first, "User");
+        first.postProcessSupportingFileData(new HashMap<String, Object>());
+
+        final PlayScalaClientCodegen codegen = new PlayScalaClientCodegen();
+        codegen.setOutputDir(output.getAbsolutePath());
+        codegen.processOpts();
+        codegen.preprocessSwagger(swagger("User"));
+        codegen.postProcessAllModels(models(swagger("User")));
+
+        Assert.assertTrue(codegen.shouldOverwrite(filename));
+    }
+
+    @Test(description = "rewrite no models and APIs if the generator runs twice on the same spec")
+    public void generatorTest() throws IOException {
+        final File output = Files.createTempDirectory("play-scala-codegen").toFile();
+        // The core templates are assembled by the codegen script, so only models and APIs will be generated
+        System.setProperty("models", "");
+        System.setProperty("apis", "");
+        try {
+            Assert.assertFalse(generate(output).isEmpty());
+            Assert.assertEquals(generate(output), Collections.emptyList());
+        } finally {
+            System.clearProperty("models");
+            System.clearProperty("apis");
+        }
+    }
+
+    private static List<File> generate(File output) {
+        final Swagger swagger = swagger("User");
+        swagger.info(new Info().title("Test").version("1.0.0"));
+        swagger.path("/users", new Path().get(new Operation()
+                .tag("user")
+                .operationId("getUser")
+                .response(200, new Response().description("The user").schema(new RefProperty("User")))));
+
+        final PlayScalaClientCodegen codegen = new PlayScalaClientCodegen();
+        codegen.setOutputDir(output.getAbsolutePath());
+        codegen.additionalProperties().put("incremental", true);
+        return new DefaultGenerator().opts(new ClientOptInput().opts(new ClientOpts()).swagger(swagger).config(codegen)).generate();
+    }
+
+    private static Swagger swagger(String... names) {
+        final Swagger swagger = new Swagger();
+        for (String name : names) {
+            swagger.addDefinition(name, new ModelImpl()
+                    .property("id", new LongProperty())
+                    .property("name", new StringProperty()));
+        }
+        return swagger;
+    }
+
+    private static Map<String, Object> models(Swagger swagger) {
+        final Map<String, Object> models = new HashMap<>();
+        for (String name : swagger.getDefinitions().keySet()) {
+            models.put(name, Collections.singletonMap("models", Collections.emptyList()));
+        }
+        return models;
+    }
+
+    private static PlayScalaClientCodegen run(File output, Swagger swagger) {
+        final PlayScalaClientCodegen codegen = new PlayScalaClientCodegen();
+        codegen.setOutputDir(output.getAbsolutePath());
+        codegen.additionalProperties().put("incremental", true);
+        codegen.processOpts();
+        codegen.preprocessSwagger(swagger);
+        codegen.postProcessAllModels(models(swagger));
+        return codegen;
+    }
+
+    private static String write(PlayScalaClientCodegen codegen, String name) throws IOException {
+        final String filename = codegen.modelFilename("model.mustache", name);
+        FileUtils.writeStringToFile(new File(filename), name, StandardCharsets.UTF_8);
+        return filename;
+    }
+}
@@ -0,0 +1,67 @@
+package io.swagger.codegen.playscala;
+
+import io.swagger.codegen.CodegenOperation;
+import io.swagger.codegen.languages.PlayScalaClientCodegen;
+import io.swagger.models.ModelImpl;
+import io.swagger.models.Operation;
+import io.swagger.models.Response;
+import io.swagger.models.Swagger;
+import io.swagger.models.properties.LongProperty;
+import io.swagger.models.properties.RefProperty;
+import io.swagger.models.properties.StringProperty;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@SuppressWarnings("static-method")
+public class PlayScalaStubServerTest {
+
+    @Test(description = "add the stub route with the Json example of the success response")
+    public void exampleTest() {
+        final Operation operation = new Operation()
+                .operationId("getPet")
+                .response(200, new Response().description("The pet").schema(new RefProperty("Pet")))
+                .response(404, new Response().description("Not found"));
+
+        final String route = stubRoute(codegen(true), "/pet/{petId}", "get", operation);
+
+        Assert.assertTrue(route.startsWith("StubRoute(\"GET\", \"/pet/{petId}\", 200, \"application/json\", Some(\""));
+        Assert.assertTrue(route.contains("\\\"name\\\""));
+    }
+
+    @Test(description = "add the stub route without a payload if the operation has no response schema")
+    public void noContentTest() {
+        final Operation operation = new Operation()
+                .operationId("deletePet")
+                .response(204, new Response().description("Deleted"));
+
+        final String route = stubRoute(codegen(true), "/pet/{petId}", "delete", operation);
+
+        Assert.assertEquals(route, "StubRoute(\"DELETE\", \"/pet/{petId}\", 204, \"application/json\", None)");
+    }
+
+    @Test(description = "add no stub route if the stub server is disabled")
+    public void disabledTest() {
+        final Operation operation = new Operation()
+                .operationId("deletePet")
+                .response(204, new Response().description("Deleted"));
+
+        Assert.assertNull(stubRoute(codegen(false), "/pet/{petId}", "delete", operation));
+    }
+
+    private static PlayScalaClientCodegen codegen(boolean stubServer) {
+        final PlayScalaClientCodegen codegen = new PlayScalaClientCodegen();
+        codegen.additionalProperties().put("stubServer", stubServer);
+        codegen.processOpts();
+        return codegen;
+    }
+
+    private static String stubRoute(PlayScalaClientCodegen codegen, String path, String httpMethod, Operation operation) {
+        final Swagger swagger = new Swagger();
+        swagger.addDefinition("Pet", new ModelImpl()
+                .property("id", new LongProperty())
+                .property("name", new StringProperty()));
+        final CodegenOperation op = codegen.fromOperation(path, httpMethod, operation, swagger.getDefinitions(), swagger);
+        return op.vendorExtensions == null ? null : (String) op.vendorExtensions.get("x-stub-route");
+    }
+}
@@ -0,0 +1,251 @@
+/**
+ * Copyright 2016 Mohiva Organisation (license at mohiva dot com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mohiva.swagger.codegen.loaddriver
+
+import java.lang.management.ManagementFactory
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.{ AtomicInteger, LongAdder }
+import java.util.concurrent.locks.LockSupport
+
+import com.mohiva.swagger.codegen.core.HistogramSnapshot
+import org.HdrHistogram.ConcurrentHistogram
+
+import scala.concurrent.duration._
+import scala.concurrent.{ ExecutionContext, Future }
+import scala.util.control.NonFatal
+
+/**
+ * The load model of a run.
+ */
+sealed trait LoadMode
+object LoadMode {
+
+  /**
+   * Starts the requests at a fixed rate, independent of the responses (open model).
+   *
+   * The latency of a request is measured from the time at which it should have been started, so that a client
+   * which falls behind the rate doesn't hide its queueing delay (coordinated omission).
+   *
+   * @param rps         The number of requests per second.
+   * @param maxInFlight The maximum number of requests in flight. Requests above the limit will be dropped, so that
+   *                    an overloaded client doesn't run out of memory.
+   */
+  case class FixedRate(rps: Int, maxInFlight: Int = 10000) extends LoadMode {
+    require(rps > 0, "The rate must be positive")
+  }
+
+  /**
+   * Keeps a fixed number of requests in flight, each of them started as soon as the previous one completed
+   * (closed model).
+   *
+   * @param concurrency The number of requests in flight.
+   */
+  case class MaxConcurrency(concurrency: Int) extends LoadMode {
+    require(concurrency > 0, "The concurrency must be positive")
+  }
+}
+
+/**
+ * The report of a run.
+ *
+ * @param mode           The load model of the run.
+ * @param requests       The number of completed requests.
+ * @param failures       The number of failed requests.
+ * @param dropped        The number of requests which weren't started, because too many requests were in flight.
+ * @param duration       The duration of the run.
+ * @param latency        The latencies of the requests in nanoseconds.
+ * @param allocatedBytes The number of bytes allocated by the JVM during the run, if the JVM can measure it.
+ */
+case class LoadReport(
+  mode: LoadMode,
+  requests: Long,
+  failures: Long,
+  dropped: Long,
+  duration: FiniteDuration,
+  latency: HistogramSnapshot,
+  allocatedBytes: Option[Long]) {
+
+  /**
+   * The number of completed requests per second.
+   */
+  def throughput: Double = requests / seconds
+
+  /**
+   * The number of allocated bytes per second.
+   */
+  def allocationRate: Option[Double] = allocatedBytes.map(_ / seconds)
+
+  /**
+   * Formats the report.
+   *
+   * @return The formatted report.
+   */
+  def format: String = {
+    def ms(nanos: Long): String = "%.2f ms".format(nanos / 1e6)
+    Seq(
+      s"Mode:        $mode",
+      s"Requests:    $requests ($failures failed, $dropped dropped) in ${duration.toMillis} ms",
+      "Throughput:  %.1f requests/s".format(throughput),
+      s"Latency:     p50 ${ms(latency.p50)}, p90 ${ms(latency.p90)}, p99 ${ms(latency.p99)}, " +
+        s"p99.9 ${ms(latency.p999)}, max ${ms(latency.max)}",
+      "Allocation:  " + allocationRate.map(rate => "%.1f MB/s".format(rate / (1024 * 1024))).getOrElse("n/a")
+    ).mkString("\n")
+  }
+
+  /**
+   * The duration of the run in seconds.
+   */
+  private def seconds: Double = math.max(duration.toNanos, 1L) / 1e9
+}
+
+/**
+ * Drives a client with a load model and measures its throughput, its latency and the allocation rate of the JVM.
+ *
+ * The driver is agnostic of the API, it only needs a function which sends a request with a generated client. The
+ * allocation rate is the sum of the bytes allocated by the live threads of the JVM, which includes the threads of an
+ * in-process stub server, but not the threads which terminated during the run.
+ *
+ * @param call Sends a request.
+ * @param ec   The execution context on which the responses will be recorded.
+ */
+class LoadDriver(call: () => Future[_])(implicit ec: ExecutionContext) {
+  import LoadDriver._
+
+  /**
+   * Runs the load.
+   *
+   * The method blocks until the run and all its requests are completed. The warmup uses the same load model, but its
+   * requests won't be reported.
+   *
+   * @param mode     The load model.
+   * @param duration The duration of the run.
+   * @param warmup   The duration of the warmup before the run.
+   * @return The report of the run.
+   */
+  def run(mode: LoadMode, duration: FiniteDuration, warmup: FiniteDuration = Duration.Zero): LoadReport = {
+    if (warmup > Duration.Zero) {
+      execute(mode, warmup, new Recorder)
+    }
+
+    val recorder = new Recorder
+    val allocatedBefore = allocatedBytes()
+    val start = System.nanoTime()
+    execute(mode, duration, recorder)
+    val elapsed = (System.nanoTime() - start).nanos
+    val allocated = for (before <- allocatedBefore; after <- allocatedBytes()) yield after - before
+
+    LoadReport(
+      mode = mode,
+      requests = recorder.successes.sum() + recorder.failures.sum(),
+      failures = recorder.failures.sum(),
+      dropped = recorder.dropped.sum(),
+      duration = elapsed,
+      latency = HistogramSnapshot(recorder.latency),
+      allocatedBytes = allocated
+    )
+  }
+
+  /**
+   * Executes the load and waits until all requests are completed.
+   *
+   * @param mode     The load model.
+   * @param duration The duration of the load.
+   * @param recorder The recorder of the results.
+   */
+  private def execute(mode: LoadMode, duration: FiniteDuration, recorder: Recorder): Unit = {
+    val start = System.nanoTime()
+    val end = start + duration.toNanos
+    mode match {
+      case LoadMode.FixedRate(rps, maxInFlight) =>
+        val interval = TimeUnit.SECONDS.toNanos(1L).toDouble / rps
+        var sent = 0L
+        var intended = start
+        while (intended < end) {
+          val now = System.nanoTime()
+          if (intended > now) {
+            LockSupport.parkNanos(intended - now)
+          } else {
+            if (recorder.inFlight.get >= maxInFlight) recorder.dropped.increment() else issue(recorder, intended)(())
+            sent += 1
+            intended = start + (sent * interval).toLong
+          }
+        }
+      case LoadMode.MaxConcurrency(concurrency) =>
+        def loop(): Unit = if (System.nanoTime() < end) issue(recorder, System.nanoTime())(loop())
+        (1 to concurrency).foreach(_ => loop())
+        while (System.nanoTime() < end) {
+          LockSupport.parkNanos(end - System.nanoTime())
+        }
+    }
+
+    val drainDeadline = System.nanoTime() + DrainTimeout.toNanos
+    while (recorder.inFlight.get > 0 && System.nanoTime() < drainDeadline) {
+      Thread.sleep(10)
+    }
+  }
+
+  /**
+   * Sends a request and records its result.
+   *
+   * @param recorder The recorder of the results.
+   * @param intended The time at which the request should have been started.
+   * @param next     Called after the result was recorded.
+   */
+  private def issue(recorder: Recorder, intended: Long)(next: => Unit): Unit = {
+    recorder.inFlight.incrementAndGet()
+    val result = try call() catch { case NonFatal(e) => Future.failed(e) }
+    result.onComplete { r =>
+      recorder.latency.recordValue(math.max(1L, System.nanoTime() - intended))
+      if (r.isSuccess) recorder.successes.increment() else recorder.failures.increment()
+      recorder.inFlight.decrementAndGet()
+      next
+    }
+  }
+
+  /**
+   * Gets the number of bytes allocated by the live threads of the JVM.
+   *
+   * @return The number of allocated bytes, or None if the JVM cannot measure it.
+   */
+  private def allocatedBytes(): Option[Long] = ManagementFactory.getThreadMXBean match {
+    case bean: com.sun.management.ThreadMXBean
+      if bean.isThreadAllocatedMemorySupported && bean.isThreadAllocatedMemoryEnabled =>
+      Some(bean.getThreadAllocatedBytes(bean.getAllThreadIds).filter(_ > 0).sum)
+    case _ => None
+  }
+
+  /**
+   * Records the results of the requests.
+   */
+  private class Recorder {
+    val latency = new ConcurrentHistogram(3)
+    val successes = new LongAdder
+    val failures = new LongAdder
+    val dropped = new LongAdder
+    val inFlight = new AtomicInteger(0)
+  }
+}
+
+/**
+ * The companion object of the [[LoadDriver]].
+ */
+object LoadDriver {
+
+  /**
+   * The maximum time to wait for the requests in flight after the load has ended.
+   */
+  val DrainTimeout: FiniteDuration = 1.minute
+}
@@ -0,0 +1,148 @@
+/**
+ * Copyright 2016 Mohiva Organisation (license at mohiva dot com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.mohiva.swagger.codegen.loaddriver
+
+import java.time.{ LocalDate, OffsetDateTime, ZoneOffset }
+
+import akka.actor.ActorSystem
+import akka.stream.ActorMaterializer
+import com.mohiva.swagger.codegen.TestApi
+import com.mohiva.swagger.codegen.core._
+import com.mohiva.swagger.codegen.models.User
+import play.api.libs.json.Json
+
+import scala.concurrent.ExecutionContext.Implicits.global
+import scala.concurrent.duration._
+
+/**
+ * Runs the test API at a fixed rate or with a fixed concurrency against an [[ApiStubServer]] and prints the report.
+ *
+ * The stub server answers the Json array operation of the test API with an array of `--array-size` users after
+ * `--latency` plus a random `--jitter`. If `--url` is given, the load will be sent to an external server instead,
+ * e.g. a stub server in another JVM, so that its allocations aren't part of the allocation rate. The transport
+ * settings of the dedicated WS client can be set with `--max-connections`, `--keep-alive` and `--compression`, so
+ * that runtime changes and transport settings can be compared on one machine.
+ *
+ * Run with: `sbt "loaddriver/run --concurrency 64 --duration 30s --warmup 10s --array-size 100"`
+ */
+object LoadDriverApp {
+
+  /**
+   * The options and their defaults.
+   */
+  val Defaults: Map[String, String] = Map(
+    "concurrency" -> "64",
+    "duration" -> "30s",
+    "warmup" -> "10s",
+    "array-size" -> "10",
+    "latency" -> "0ms",
+    "jitter" -> "0ms",
+    "max-connections" -> "-1",
+    "keep-alive" -> "true",
+    "compression" -> "false"
+  )
+
+  /**
+   * The options without defaults.
+   */
+  val Optional: Set[String] = Set("rps", "url")
+
+  /**
+   * Runs the load and prints the report.
+   *
+   * @param args The options of the form `--name value`.
+   */
+  def main(args: Array[String]): Unit = {
+    val options = parse(args)
+    val mode = options.get("rps") match {
+      case Some(rps) => LoadMode.FixedRate(rps.toInt)
+      case None      => LoadMode.MaxConcurrency(options("concurrency").toInt)
+    }
+
+    implicit val system: ActorSystem = ActorSystem("LoadDriver")
+    implicit val materializer: ActorMaterializer = ActorMaterializer()
+
+    val server = if (options.contains("url")) None else Some(new ApiStubServer(
+      routes = Seq(StubRoute("GET", "/test", example = Some(Json.stringify(Json.toJson(Seq(user)))))),
+      settings = StubSettings(
+        latency = duration(options("latency")),
+        jitter = duration(options("jitter")),
+        arraySize = options("array-size").toInt
+      )
+    ))
+    val transport = TransportConfig(
+      maxConnectionsPerHost = options("max-connections").toInt,
+      keepAlive = options("keep-alive").toBoolean,
+      compression = options("compression").toBoolean
+    )
+    val wsClient = ApiTransport.client(transport)
+    val url = options.get("url").orElse(server.map(_.url))
+    val testApi = new TestApi(new ApiInvoker(ApiConfig(url = url), wsClient))
+
+    try {
+      val driver = new LoadDriver(() => testApi.testApiResponseWithJsonArrayAsValue())
+      val report = driver.run(mode, duration(options("duration")), duration(options("warmup")))
+      println(report.format)
+    } finally {
+      wsClient.close()
+      server.foreach(_.stop())
+      system.terminate()
+    }
+  }
+
+  /**
+   * Parses the command line arguments of the form `--name value`.
+   *
+   * @param args The command line arguments.
+   * @return The options, with the defaults for the missing options.
+   */
+  private def parse(args: Array[String]): Map[String, String] = {
+    require(args.length % 2 == 0, "Options must be given as `--name value`")
+    val options = args.grouped(2).map {
+      case Array(name, value) if name.startsWith("--") => name.drop(2) -> value
+      case other => throw new IllegalArgumentException("Invalid option: " + other.mkString(" "))
+    }.toMap
+    val unknown = options.keySet -- Defaults.keySet -- Optional
+    require(unknown.isEmpty, "Unknown options: " + unknown.mkString(", "))
+    Defaults ++ options
+  }
+
+  /**
+   * Parses a finite duration like `30s` or `200ms`.
+   *
+   * @param value The duration to parse.
+   * @return The duration.
+   */
+  private def duration(value: String): FiniteDuration = Duration(value) match {
+    case finite: FiniteDuration => finite
+    case _                      => throw new IllegalArgumentException("Invalid duration: " + value)
+  }
+
+  /**
+   * The user which will be repeated in the Json array payload.
+   */
+  private val user = User(
+    id = 1L,
+    name = "Lucky Luke",
+    visits = 45,
+    roles = Seq("user", "admin"),
+    gender = User.Gender.Male,
+    activated = true,
+    dateOfBirth = LocalDate.of(1979, 2, 17),
+    lastLogin = None,
+    insertDate = OffsetDateTime.of(2016, 2, 19, 13, 28, 43, 0, ZoneOffset.UTC)
+  )
+}
@@ -46,6 +46,14 @@ object Dependencies {
     val playWSMock = "de.leanovate.play-mockws" %% "play-mockws" % "2.6.2"
     val swaggerCodegen = "io.swagger" % "swagger-codegen" % "2.3.0"
     val javaxInject = "javax.inject" % "javax.inject" % "1"
+    object Jsoniter {
+      private val version = "0.29.2"
+      val core = "com.github.plokhotnyuk.jsoniter-scala" %% "jsoniter-scala-core" % version
+      val macros = "com.github.plokhotnyuk.jsoniter-scala" %% "jsoniter-scala-macros" % version
+    }
+
+    val hdrHistogram = "org.hdrhistogram" % "HdrHistogram" % "2.1.10"
+    val jacksonCbor = "com.fasterxml.jackson.dataformat" % "jackson-dataformat-cbor" % "2.8.11"
     val testNG = "org.testng" % "testng" % "6.8"
   }
 }
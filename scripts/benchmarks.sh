@@ -0,0 +1,32 @@
+#!/bin/bash
+#
+# Runs the JMH benchmarks and writes the results as JSON.
+#
+# Copyright 2016 Mohiva Organisation (license at mohiva dot com)
+#
+# Licensed under the Apache License, Version 2.0 (the "License");
+# you may not use this file except in compliance with the License.
+# You may obtain a copy of the License at
+#
+#     http://www.apache.org/licenses/LICENSE-2.0
+#
+# Unless required by applicable law or agreed to in writing, software
+# distributed under the License is distributed on an "AS IS" BASIS,
+# WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+# See the License for the specific language governing permissions and
+# limitations under the License.
+#
+# The results will be written to `benchmarks/target/results/<commit>.json`, so that the results of different
+# commits can be compared. All arguments will be passed to JMH, e.g. a benchmark pattern or the number of
+# iterations.
+#
+set -o nounset -o errexit
+
+SCRIPTS_DIR="$( cd "$( dirname "${BASH_SOURCE[0]}" )" && pwd )"
+PROJECT_DIR="$( dirname "${SCRIPTS_DIR}" )"
+RESULTS_DIR=${PROJECT_DIR}/benchmarks/target/results
+COMMIT=$(git -C ${PROJECT_DIR} rev-parse --short HEAD)
+
+mkdir -p ${RESULTS_DIR}
+
+bash ${SCRIPTS_DIR}/sbt.sh "benchmarks/jmh:run -rf json -rff ${RESULTS_DIR}/${COMMIT}.json $*"
@@ -0,0 +1,74 @@
+#!/bin/bash
+#
+# Benchmarks the incremental code generation with a synthetic spec.
+#
+# Copyright 2016 Mohiva Organisation (license at mohiva dot com)
+#
+# Licensed under the Apache License, Version 2.0 (the "License");
+# you may not use this file except in compliance with the License.
+# You may obtain a copy of the License at
+#
+#     http://www.apache.org/licenses/LICENSE-2.0
+#
+# Unless required by applicable law or agreed to in writing, software
+# distributed under the License is distributed on an "AS IS" BASIS,
+# WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+# See the License for the specific language governing permissions and
+# limitations under the License.
+#
+# Generates a spec with the given number of models (default 5000) and one operation per ten models, and measures
+# a full generation, an incremental generation without changes and an incremental generation after one model
+# changed.
+#
+set -o nounset -o errexit
+
+SCRIPTS_DIR="$( cd "$( dirname "${BASH_SOURCE[0]}" )" && pwd )"
+MODELS=${1:-5000}
+WORK_DIR=$(mktemp -d /tmp/swagger-play-scala-benchmark-XXXX)
+SPEC=${WORK_DIR}/spec.yaml
+OUTPUT=${WORK_DIR}/client
+
+# Writes the synthetic spec, with an optional extra property for the first model
+write_spec() {
+    {
+        echo "swagger: '2.0'"
+        echo "info: { title: Benchmark, version: '1.0' }"
+        echo "basePath: /v1"
+        echo "paths:"
+        for ((i = 0; i < MODELS; i += 10)); do
+            echo "  /models${i}/{id}:"
+            echo "    get:"
+            echo "      tags: [ api$((i / 500)) ]"
+            echo "      operationId: getModel${i}"
+            echo "      parameters: [ { name: id, in: path, required: true, type: integer, format: int64 } ]"
+            echo "      responses: { 200: { description: ok, schema: { \$ref: '#/definitions/Model${i}' } } }"
+        done
+        echo "definitions:"
+        for ((i = 0; i < MODELS; i++)); do
+            echo "  Model${i}:"
+            echo "    type: object"
+            echo "    required: [ id ]"
+            echo "    properties:"
+            echo "      id: { type: integer, format: int64 }"
+            echo "      name: { type: string }"
+            echo "      createdAt: { type: string, format: date-time }"
+            echo "      tags: { type: array, items: { type: string } }"
+            if [ ${i} -eq 0 ]; then echo "$1"; fi
+        done
+    } > ${SPEC}
+}
+
+# Runs the code generation and prints the elapsed time
+generate() {
+    local start=$(date +%s%N)
+    bash ${SCRIPTS_DIR}/codegen.sh -i ${SPEC} -o ${OUTPUT} --additional-properties incremental=true > ${WORK_DIR}/codegen.log
+    echo "$1: $((($(date +%s%N) - start) / 1000000)) ms"
+}
+
+write_spec ""
+generate "full generation"
+generate "incremental generation without changes"
+write_spec "      changed: { type: boolean }"
+generate "incremental generation with one changed model"
+
+rm -rf ${WORK_DIR}
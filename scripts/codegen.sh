@@ -40,19 +40,39 @@ LANGUAGE="io.swagger.codegen.languages.PlayScalaClientCodegen"
 mkdir -p ${TMP_DIR}/templates
 cp ${TEMPLATES}/* ${TMP_DIR}/templates
 cp ${STUB_DIR}/core/ApiFile.scala ${TMP_DIR}/templates/apiFile.mustache
+cp ${STUB_DIR}/core/ApiCache.scala ${TMP_DIR}/templates/apiCache.mustache
+cp ${STUB_DIR}/core/ApiCircuitBreaker.scala ${TMP_DIR}/templates/apiCircuitBreaker.mustache
+cp ${STUB_DIR}/core/ApiCodec.scala ${TMP_DIR}/templates/apiCodec.mustache
 cp ${STUB_DIR}/core/ApiConfig.scala ${TMP_DIR}/templates/apiConfig.mustache
+cp ${STUB_DIR}/core/ApiExecutors.scala ${TMP_DIR}/templates/apiExecutors.mustache
 cp ${STUB_DIR}/core/ApiImplicits.scala ${TMP_DIR}/templates/apiImplicits.mustache
 cp ${STUB_DIR}/core/ApiInvoker.scala ${TMP_DIR}/templates/apiInvoker.mustache
+cp ${STUB_DIR}/core/ApiJsoniter.scala ${TMP_DIR}/templates/apiJsoniter.mustache
+cp ${STUB_DIR}/core/ApiLimiter.scala ${TMP_DIR}/templates/apiLimiter.mustache
+cp ${STUB_DIR}/core/ApiRetry.scala ${TMP_DIR}/templates/apiRetry.mustache
+cp ${STUB_DIR}/core/ApiMetrics.scala ${TMP_DIR}/templates/apiMetrics.mustache
 cp ${STUB_DIR}/core/ApiRequest.scala ${TMP_DIR}/templates/apiRequest.mustache
 cp ${STUB_DIR}/core/ApiResponse.scala ${TMP_DIR}/templates/apiResponse.mustache
+cp ${STUB_DIR}/core/ApiStubServer.scala ${TMP_DIR}/templates/apiStubServer.mustache
+cp ${STUB_DIR}/core/ApiTransport.scala ${TMP_DIR}/templates/apiTransport.mustache
 
 # Replace the hardcoded package names with the variable package names
 sed -i "s/com.mohiva.swagger.codegen.core/{{invokerPackage}}/g" ${TMP_DIR}/templates/apiFile.mustache
+sed -i "s/com.mohiva.swagger.codegen.core/{{invokerPackage}}/g" ${TMP_DIR}/templates/apiCache.mustache
+sed -i "s/com.mohiva.swagger.codegen.core/{{invokerPackage}}/g" ${TMP_DIR}/templates/apiCircuitBreaker.mustache
+sed -i "s/com.mohiva.swagger.codegen.core/{{invokerPackage}}/g" ${TMP_DIR}/templates/apiCodec.mustache
 sed -i "s/com.mohiva.swagger.codegen.core/{{invokerPackage}}/g" ${TMP_DIR}/templates/apiConfig.mustache
+sed -i "s/com.mohiva.swagger.codegen.core/{{invokerPackage}}/g" ${TMP_DIR}/templates/apiExecutors.mustache
 sed -i "s/com.mohiva.swagger.codegen.core/{{invokerPackage}}/g" ${TMP_DIR}/templates/apiImplicits.mustache
 sed -i "s/com.mohiva.swagger.codegen.core/{{invokerPackage}}/g" ${TMP_DIR}/templates/apiInvoker.mustache
+sed -i "s/com.mohiva.swagger.codegen.core/{{invokerPackage}}/g" ${TMP_DIR}/templates/apiJsoniter.mustache
+sed -i "s/com.mohiva.swagger.codegen.core/{{invokerPackage}}/g" ${TMP_DIR}/templates/apiLimiter.mustache
+sed -i "s/com.mohiva.swagger.codegen.core/{{invokerPackage}}/g" ${TMP_DIR}/templates/apiRetry.mustache
+sed -i "s/com.mohiva.swagger.codegen.core/{{invokerPackage}}/g" ${TMP_DIR}/templates/apiMetrics.mustache
 sed -i "s/com.mohiva.swagger.codegen.core/{{invokerPackage}}/g" ${TMP_DIR}/templates/apiRequest.mustache
 sed -i "s/com.mohiva.swagger.codegen.core/{{invokerPackage}}/g" ${TMP_DIR}/templates/apiResponse.mustache
+sed -i "s/com.mohiva.swagger.codegen.core/{{invokerPackage}}/g" ${TMP_DIR}/templates/apiStubServer.mustache
+sed -i "s/com.mohiva.swagger.codegen.core/{{invokerPackage}}/g" ${TMP_DIR}/templates/apiTransport.mustache
 
 # Compile the codegen module
 bash ${SCRIPTS_DIR}/sbt.sh codegen/compile